@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private PoolableObjectFactory<Object> factory;
+  private ConcurrentConnectionPool<Object> pool;
+  private ExecutorService executor = newSingleThreadExecutor();
+  private SimpleUnitTestSupportSchedulerService schedulerService = new SimpleUnitTestSupportSchedulerService();
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(i -> new Object());
+    when(factory.validateObject(any())).thenReturn(true);
+  }
+
+  @After
+  public void after() throws Exception {
+    executor.shutdownNow();
+    if (pool != null) {
+      pool.close();
+    }
+    schedulerService.stop();
+  }
+
+  @Test
+  public void borrowsLastReturnedConnection() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+    assertThat(connection1, is(not(sameInstance(connection2))));
+
+    pool.returnObject(connection2);
+    pool.returnObject(connection1);
+    assertThat(pool.borrowObject(), is(sameInstance(connection1)));
+    assertThat(pool.getNumActive(), is(1));
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory, times(2)).makeObject();
+  }
+
+  @Test
+  public void failsWhenExhausted() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    Object connection = pool.borrowObject();
+    try {
+      pool.borrowObject();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      assertThat(pool.getExhaustedCount(), is(1L));
+    }
+
+    assertThat(pool.getUtilization(), is(1.0));
+    pool.returnObject(connection);
+    assertThat(pool.getUtilization(), is(0.0));
+  }
+
+  @Test
+  public void timesOutWaitingWhenExhausted() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    pool.borrowObject();
+    try {
+      pool.borrowObject();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      assertThat(pool.getExhaustedCount(), is(1L));
+    }
+  }
+
+  @Test
+  public void handsOffReturnedConnectionToWaitingThread() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object connection = pool.borrowObject();
+    Future<Object> waiting = executor.submit(() -> pool.borrowObject());
+
+    pool.returnObject(connection);
+    assertThat(waiting.get(5, SECONDS), is(sameInstance(connection)));
+    assertThat(pool.getBorrowedCount(), is(2L));
+  }
+
+  @Test
+  public void waitingThreadCreatesConnectionWhenOneIsInvalidated() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object connection = pool.borrowObject();
+    Future<Object> waiting = executor.submit(() -> pool.borrowObject());
+
+    pool.invalidateObject(connection);
+    assertThat(waiting.get(5, SECONDS), is(not(sameInstance(connection))));
+    verify(factory).destroyObject(connection);
+  }
+
+  @Test
+  public void invalidateIdleConnection() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+    pool.invalidateObject(connection);
+
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(pool.getNumActive(), is(0));
+    verify(factory).destroyObject(connection);
+    assertThat(pool.borrowObject(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void housekeepingRunsWithContextClassLoaderOfCreator() throws Exception {
+    ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {};
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(-1);
+    poolingProfile.setEvictionCheckIntervalMillis(10);
+    pool = withContextClassLoader(classLoader, () -> createPool(poolingProfile));
+
+    List<ClassLoader> validationClassLoaders = new CopyOnWriteArrayList<>();
+    Object connection = pool.borrowObject();
+    when(factory.validateObject(connection)).thenAnswer(i -> {
+      validationClassLoaders.add(currentThread().getContextClassLoader());
+      return true;
+    });
+    pool.returnObject(connection);
+
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> !validationClassLoaders.isEmpty()));
+    assertThat(validationClassLoaders.get(0), is(sameInstance(classLoader)));
+  }
+
+  @Test
+  public void growsWhenExhaustedAndDestroysConnectionsBeyondMaxIdle() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_GROW, INITIALISE_NONE));
+
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+    pool.returnObject(connection1);
+    pool.returnObject(connection2);
+
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory).destroyObject(connection2);
+  }
+
+  @Test
+  public void evictsIdleConnections() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(10);
+    poolingProfile.setEvictionCheckIntervalMillis(10);
+    pool = createPool(poolingProfile);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> {
+      verify(factory).destroyObject(connection);
+      return pool.getNumIdle() == 0;
+    }));
+  }
+
+  @Test
+  public void evictsInvalidConnections() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(-1);
+    poolingProfile.setEvictionCheckIntervalMillis(10);
+    pool = createPool(poolingProfile);
+
+    Object connection = pool.borrowObject();
+    when(factory.validateObject(connection)).thenReturn(false);
+    pool.returnObject(connection);
+
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> {
+      verify(factory).destroyObject(connection);
+      return pool.getNumIdle() == 0;
+    }));
+  }
+
+  @Test
+  public void closedPoolDoesNotRetainConnections() throws Exception {
+    // not a mock, which would keep track of the connections it is invoked with
+    pool = createPool(new BasePoolableObjectFactory<Object>() {
+
+      @Override
+      public Object makeObject() {
+        return new Object();
+      }
+    }, new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    // returned from a thread which outlives the pool
+    final PhantomReference<Object> connectionRef = executor.submit(() -> {
+      Object connection = pool.borrowObject();
+      pool.returnObject(connection);
+      return new PhantomReference<>(connection, new ReferenceQueue<>());
+    }).get(5, SECONDS);
+    pool.close();
+
+    new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> {
+      System.gc();
+      assertThat(connectionRef.isEnqueued(), is(true));
+      return true;
+    }, "A hard reference is being maintained to the connection."));
+  }
+
+  @Test
+  public void closeWakesWaitingThreads() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    pool.borrowObject();
+    Future<Object> waiting = executor.submit(() -> pool.borrowObject());
+
+    pool.close();
+    try {
+      waiting.get(5, SECONDS);
+      fail("Was expecting the waiting thread to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(PoolingProfile poolingProfile) {
+    return createPool(factory, poolingProfile);
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(PoolableObjectFactory<Object> factory, PoolingProfile poolingProfile) {
+    return new ConcurrentConnectionPool<>(factory, poolingProfile, schedulerService, config());
+  }
+}
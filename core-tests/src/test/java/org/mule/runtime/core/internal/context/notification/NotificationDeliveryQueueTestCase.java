@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class NotificationDeliveryQueueTestCase extends AbstractMuleTestCase {
+
+  private final List<Notification> received = new ArrayList<>();
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final NotificationListener<Notification> listener = received::add;
+
+  @Test
+  public void notificationsAreDeliveredInOrderInASingleTask() {
+    NotificationDeliveryQueue queue = new NotificationDeliveryQueue(listener, tasks::add, 16);
+    Notification first = mock(Notification.class);
+    Notification second = mock(Notification.class);
+
+    assertThat(queue.offer(first), is(true));
+    assertThat(queue.offer(second), is(true));
+    assertThat(tasks.size(), is(1));
+
+    runTasks();
+    assertThat(received, contains(first, second));
+    assertThat(queue.getDeliveredCount(), is(2L));
+  }
+
+  @Test
+  public void notificationsAreDroppedWhenTheQueueIsFull() {
+    NotificationDeliveryQueue queue = new NotificationDeliveryQueue(listener, tasks::add, 4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(queue.offer(mock(Notification.class)), is(true));
+    }
+
+    assertThat(queue.offer(mock(Notification.class)), is(false));
+    assertThat(queue.getDroppedCount(), is(1L));
+
+    runTasks();
+    assertThat(received.size(), is(4));
+    assertThat(queue.offer(mock(Notification.class)), is(true));
+  }
+
+  @Test
+  public void failingListenerDoesNotStopDelivery() {
+    Notification failing = mock(Notification.class);
+    Notification other = mock(Notification.class);
+    NotificationDeliveryQueue queue = new NotificationDeliveryQueue(notification -> {
+      if (notification == failing) {
+        throw new IllegalStateException("Expected");
+      }
+      received.add(notification);
+    }, tasks::add, 16);
+
+    queue.offer(failing);
+    queue.offer(other);
+
+    runTasks();
+    assertThat(received, contains(other));
+  }
+
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+}
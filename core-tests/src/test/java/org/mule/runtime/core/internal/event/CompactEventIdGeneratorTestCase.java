@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.mule.runtime.core.api.event.EventIdGenerator;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+@SmallTest
+public class CompactEventIdGeneratorTestCase extends AbstractMuleTestCase {
+
+  private static final int THREAD_COUNT = 16;
+  private static final int IDS_PER_THREAD = 10000;
+
+  @Test
+  public void idStartsWithClusterNodeId() {
+    assertThat(new CompactEventIdGenerator("3-").generateId(), startsWith("3-"));
+  }
+
+  @Test
+  public void idsAreUniqueAcrossThreads() throws Exception {
+    EventIdGenerator generator = new CompactEventIdGenerator("");
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    CountDownLatch startLatch = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          startLatch.await(5, SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int j = 0; j < IDS_PER_THREAD; j++) {
+          ids.add(generator.generateId());
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    startLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(ids, hasSize(THREAD_COUNT * IDS_PER_THREAD));
+  }
+
+  @Test
+  public void idsOfGeneratorsWithSameClusterNodeIdAreDifferent() {
+    String id = new CompactEventIdGenerator("1-").generateId();
+    String otherId = new CompactEventIdGenerator("1-").generateId();
+
+    assertThat(id, is(not(otherId)));
+  }
+}
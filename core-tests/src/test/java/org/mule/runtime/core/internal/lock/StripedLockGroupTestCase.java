@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.core.internal.lock.StripedLockGroup.LockStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class StripedLockGroupTestCase extends AbstractMuleTestCase {
+
+  private static final int THREAD_COUNT = 100;
+  private static final int ITERATIONS_PER_THREAD = 100;
+
+  private final StripedLockGroup lockGroup = new StripedLockGroup(new SingleServerLockProvider());
+
+  @Test
+  public void lockUnlockHighConcurrency() throws Exception {
+    testHighConcurrency(false);
+  }
+
+  @Test
+  public void tryLockUnlockHighConcurrency() throws Exception {
+    testHighConcurrency(true);
+  }
+
+  @Test
+  public void lockIsCreatedOnceWhileReferenced() {
+    LockProvider lockProvider = mock(LockProvider.class, RETURNS_DEEP_STUBS);
+    StripedLockGroup lockGroup = new StripedLockGroup(lockProvider);
+
+    for (int i = 0; i < 5; i++) {
+      lockGroup.lock("lockId");
+    }
+    lockGroup.unlock("lockId");
+
+    verify(lockProvider, times(1)).createLock("lockId");
+  }
+
+  @Test
+  public void lockIsReleasedWhenUnlocked() {
+    lockGroup.lock("lockId");
+    assertThat(lockGroup.getStatistics("lockId").isPresent(), is(true));
+
+    lockGroup.unlock("lockId");
+    assertThat(lockGroup.getStatistics("lockId").isPresent(), is(false));
+  }
+
+  @Test
+  public void lockIsReleasedWhenTryLockFails() throws Exception {
+    lockGroup.lock("lockId");
+
+    AtomicInteger acquisitions = new AtomicInteger();
+    Thread other = new Thread(() -> {
+      try {
+        if (lockGroup.tryLock("lockId")) {
+          acquisitions.incrementAndGet();
+        }
+        if (lockGroup.tryLock("lockId", 10, MILLISECONDS)) {
+          acquisitions.incrementAndGet();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    other.start();
+    other.join();
+
+    assertThat(acquisitions.get(), is(0));
+    lockGroup.unlock("lockId");
+    assertThat(lockGroup.getStatistics("lockId").isPresent(), is(false));
+  }
+
+  @Test
+  public void contendedAcquisitionsAreCounted() throws Exception {
+    CountDownLatch waiting = new CountDownLatch(1);
+    lockGroup.lock("lockId");
+
+    Thread other = new Thread(() -> {
+      waiting.countDown();
+      lockGroup.lock("lockId");
+      lockGroup.unlock("lockId");
+    });
+    other.start();
+    assertThat(waiting.await(5, SECONDS), is(true));
+    Thread.sleep(50);
+
+    LockStatistics statistics = lockGroup.getStatistics("lockId").get();
+    lockGroup.unlock("lockId");
+    other.join();
+
+    assertThat(statistics.getAcquisitions(), is(2L));
+    assertThat(statistics.getContendedAcquisitions(), is(1L));
+    assertThat(statistics.getWaitTime(MILLISECONDS), greaterThan(0L));
+  }
+
+  @Test
+  public void uncontendedAcquisitionsDoNotWait() throws Exception {
+    lockGroup.lock("lockId");
+    assertThat(lockGroup.tryLock("lockId", 1, SECONDS), is(true));
+    lockGroup.lockInterruptibly("lockId");
+
+    LockStatistics statistics = lockGroup.getStatistics("lockId").get();
+    assertThat(statistics.getAcquisitions(), is(3L));
+    assertThat(statistics.getContendedAcquisitions(), is(0L));
+    assertThat(statistics.getWaitTime(MILLISECONDS), greaterThanOrEqualTo(0L));
+
+    for (int i = 0; i < 3; i++) {
+      lockGroup.unlock("lockId");
+    }
+  }
+
+  private void testHighConcurrency(boolean useTryLock) throws Exception {
+    Map<String, Integer> counters = new ConcurrentHashMap<>();
+    CountDownLatch startLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT * 2);
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      for (String key : new String[] {"A", "B"}) {
+        Thread thread = new Thread(() -> {
+          try {
+            startLatch.await(5, SECONDS);
+            for (int j = 0; j < ITERATIONS_PER_THREAD; j++) {
+              if (useTryLock) {
+                while (!lockGroup.tryLock(key, 100, MILLISECONDS));
+              } else {
+                lockGroup.lock(key);
+              }
+              try {
+                // not atomic on purpose, the lock is what keeps it consistent
+                counters.put(key, counters.getOrDefault(key, 0) + 1);
+              } finally {
+                lockGroup.unlock(key);
+              }
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+        threads.add(thread);
+        thread.start();
+      }
+    }
+    startLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(counters.get("A"), is(THREAD_COUNT * ITERATIONS_PER_THREAD));
+    assertThat(counters.get("B"), is(THREAD_COUNT * ITERATIONS_PER_THREAD));
+    assertThat(lockGroup.getStatistics("A").isPresent(), is(false));
+    assertThat(lockGroup.getStatistics("B").isPresent(), is(false));
+  }
+}
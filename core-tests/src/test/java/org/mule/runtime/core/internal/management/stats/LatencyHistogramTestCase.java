@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.MAX_TRACKABLE_VALUE;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void emptyHistogram() {
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getTotalCount(), equalTo(100L));
+    assertThat(histogram.getValueAtPercentile(50), equalTo(50L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(99L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(100L));
+  }
+
+  @Test
+  public void largeValuesHaveBoundedError() {
+    for (long value = 128; value < MAX_TRACKABLE_VALUE; value = value * 3 + 7) {
+      LatencyHistogram single = new LatencyHistogram();
+      single.record(value);
+      assertThat(single.getValueAtPercentile(50), allOf(greaterThanOrEqualTo(value), lessThanOrEqualTo(value + value / 64)));
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getValueAtPercentile(50), allOf(greaterThanOrEqualTo(500L), lessThanOrEqualTo(508L)));
+    assertThat(histogram.getValueAtPercentile(99), allOf(greaterThanOrEqualTo(990L), lessThanOrEqualTo(1006L)));
+    assertThat(histogram.getValueAtPercentile(99.9), allOf(greaterThanOrEqualTo(999L), lessThanOrEqualTo(1015L)));
+  }
+
+  @Test
+  public void outOfRangeValuesAreClamped() {
+    histogram.record(-1);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.getValueAtPercentile(0), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(MAX_TRACKABLE_VALUE));
+  }
+
+  @Test
+  public void addAndReset() {
+    histogram.record(10);
+    LatencyHistogram other = new LatencyHistogram();
+    other.record(20);
+    other.add(histogram);
+
+    assertThat(other.getTotalCount(), equalTo(2L));
+    assertThat(other.getValueAtPercentile(50), equalTo(10L));
+
+    other.reset();
+    assertThat(other.getTotalCount(), equalTo(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    histogram.getValueAtPercentile(101);
+  }
+}
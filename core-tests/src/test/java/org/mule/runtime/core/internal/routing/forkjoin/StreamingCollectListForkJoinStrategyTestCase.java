@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.STREAMING_COLLECT_LIST;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.processor.InternalProcessor;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(FORK_JOIN_STRATEGIES)
+@Story(STREAMING_COLLECT_LIST)
+public class StreamingCollectListForkJoinStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private ProcessingStrategy processingStrategy;
+  private Scheduler scheduler;
+  private ForkJoinStrategy strategy;
+
+  @Before
+  public void setup() throws Exception {
+    processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+
+    StreamingManager streamingManager =
+        ((MuleContextWithRegistry) muleContext).getRegistry().lookupObject(StreamingManager.class);
+    strategy = new StreamingCollectListForkJoinStrategyFactory(streamingManager.forObjects().getDefaultCursorProviderFactory())
+        .createForkJoinStrategy(processingStrategy, 2, true, MAX_VALUE, scheduler,
+                                muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get());
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Description("This strategy emits the result event without waiting for the routes to be processed and streams their results.")
+  public void streamResults() throws Throwable {
+    List<Processor> processed = new ArrayList<>();
+    Message route1Result = of(1);
+    Message route2Result = of(2);
+    Message route3Result = of(3);
+
+    CoreEvent result = invokeStrategyBlocking(asList(createRoutingPair(route1Result, processed),
+                                                     createRoutingPair(route2Result, processed),
+                                                     createRoutingPair(route3Result, processed)));
+
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    CursorIteratorProvider provider = (CursorIteratorProvider) result.getMessage().getPayload().getValue();
+    assertThat(consume(provider.openCursor()), containsInAnyOrder(route1Result, route2Result, route3Result));
+    assertThat(processed, hasSize(3));
+
+    // results are repeatable, without processing the routes again
+    assertThat(consume(provider.openCursor()), containsInAnyOrder(route1Result, route2Result, route3Result));
+    assertThat(processed, hasSize(3));
+  }
+
+  @Test
+  @Description("The routes are processed even if the results are never consumed.")
+  public void routesProcessedWithoutConsumingResults() throws Throwable {
+    List<Processor> processed = new ArrayList<>();
+
+    invokeStrategyBlocking(asList(createRoutingPair(of(1), processed),
+                                  createRoutingPair(of(2), processed),
+                                  createRoutingPair(of(3), processed)));
+
+    new PollingProber(RECEIVE_TIMEOUT, 50).check(new JUnitLambdaProbe(() -> {
+      synchronized (processed) {
+        assertThat(processed, hasSize(3));
+      }
+      return true;
+    }));
+  }
+
+  @Test
+  @Description("Errors are thrown via CompositeRoutingException once the results of the successful routes are consumed.")
+  public void errorAfterResults() throws Throwable {
+    Message routeResult = of(1);
+    RuntimeException exception = new IllegalStateException();
+
+    CoreEvent result = invokeStrategyBlocking(asList(createRoutingPair(routeResult, new ArrayList<>()),
+                                                     of(testEvent(), createChain((InternalTestProcessor) event -> {
+                                                       throw exception;
+                                                     }))));
+
+    CursorIterator cursor = ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor();
+    assertThat(cursor.next(), is(routeResult));
+    try {
+      cursor.hasNext();
+      fail("Expected the failure of the route");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause(), instanceOf(CompositeRoutingException.class));
+      CompositeRoutingException compositeRoutingException = (CompositeRoutingException) e.getCause();
+      assertThat(compositeRoutingException.getErrors(), hasSize(1));
+      assertThat(compositeRoutingException.getErrors().get(0).getCause(), is(exception));
+    }
+  }
+
+  @Test
+  @Description("Waiting for the results of the routes is bounded by the timeout of the router.")
+  public void resultsTimeout() throws Throwable {
+    strategy = new StreamingCollectListForkJoinStrategyFactory(((MuleContextWithRegistry) muleContext).getRegistry()
+        .lookupObject(StreamingManager.class).forObjects().getDefaultCursorProviderFactory())
+            .createForkJoinStrategy(processingStrategy, 2, true, 100, scheduler,
+                                    muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get());
+    Latch routeLatch = new Latch();
+
+    try {
+      CoreEvent result = invokeStrategyBlocking(asList(of(testEvent(), createChain((InternalTestProcessor) event -> {
+        try {
+          routeLatch.await(RECEIVE_TIMEOUT, MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return event;
+      }))));
+
+      CursorIterator cursor = ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor();
+      for (int i = 0; i < 2; ++i) {
+        try {
+          cursor.hasNext();
+          fail("Expected the timeout of the route");
+        } catch (MuleRuntimeException e) {
+          // expected, also when the iterator is used again
+        }
+      }
+    } finally {
+      routeLatch.release();
+    }
+  }
+
+  private CoreEvent invokeStrategyBlocking(List<RoutingPair> routingPairs) throws Throwable {
+    return from(strategy.forkJoin(testEvent(), fromIterable(routingPairs))).block();
+  }
+
+  private List<Message> consume(CursorIterator cursor) {
+    List<Message> messages = new ArrayList<>();
+    while (cursor.hasNext()) {
+      messages.add((Message) cursor.next());
+    }
+    return messages;
+  }
+
+  private RoutingPair createRoutingPair(Message result, List<Processor> processed) throws MuleException {
+    return of(testEvent(), createChain(new InternalTestProcessor() {
+
+      @Override
+      public CoreEvent process(CoreEvent event) {
+        synchronized (processed) {
+          processed.add(this);
+        }
+        return CoreEvent.builder(event).message(result).build();
+      }
+    }));
+  }
+
+  private MessageProcessorChain createChain(Processor processor) throws MuleException {
+    MessageProcessorChain chain = newChain(Optional.empty(), processor);
+    initialiseIfNeeded(chain, muleContext);
+    return chain;
+  }
+
+  @FunctionalInterface
+  private interface InternalTestProcessor extends Processor, InternalProcessor {
+
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.AbstractCursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.InputStream;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SegmentedInMemoryCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  public SegmentedInMemoryCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, InputStream dataStream) {
+    InMemoryCursorStreamConfig config =
+        new InMemoryCursorStreamConfig(new DataSize(bufferSize, BYTE),
+                                       new DataSize(bufferSize / 2, BYTE),
+                                       new DataSize(maxBufferSize, BYTE));
+
+    return new SegmentedCursorStreamProvider(dataStream, new SegmentedInMemoryStreamBuffer(dataStream, config, bufferManager));
+  }
+
+  private static class SegmentedCursorStreamProvider extends AbstractCursorStreamProvider {
+
+    private final SegmentedInMemoryStreamBuffer buffer;
+
+    private SegmentedCursorStreamProvider(InputStream wrappedStream, SegmentedInMemoryStreamBuffer buffer) {
+      super(wrappedStream, null, false);
+      this.buffer = buffer;
+    }
+
+    @Override
+    protected CursorStream doOpenCursor() {
+      return new BufferedCursorStream(buffer, this);
+    }
+
+    @Override
+    public void releaseResources() {
+      buffer.close();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.round;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MAX_STREAMING_MEMORY_PERCENTAGE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class ThreadCachingByteBufferManagerTestCase extends MemoryBoundByteBufferManagerContractTestCase {
+
+  @Override
+  protected MemoryBoundByteBufferManager createDefaultBoundBuffer() {
+    return new ThreadCachingByteBufferManager();
+  }
+
+  @Override
+  protected MemoryBoundByteBufferManager createBuffer(MemoryManager memoryManager, int capacity) {
+    return new ThreadCachingByteBufferManager(memoryManager, 2, capacity, 2, false);
+  }
+
+  @Test
+  public void magazineOfFinishedThreadIsReleased() throws Exception {
+    final int capacity = 100;
+    final int magazineSize = 4;
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(round(capacity * magazineSize / MAX_STREAMING_MEMORY_PERCENTAGE));
+    ThreadCachingByteBufferManager bufferManager =
+        new ThreadCachingByteBufferManager(memoryManager, magazineSize, capacity, magazineSize, false);
+
+    try {
+      // fills the magazine of a thread with all the memory available, and lets the thread finish
+      Thread thread = new Thread(() -> allocateAndRelease(bufferManager, capacity, magazineSize));
+      thread.start();
+      thread.join();
+
+      allocateAndRelease(bufferManager, capacity, magazineSize);
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  private void allocateAndRelease(ThreadCachingByteBufferManager bufferManager, int capacity, int count) {
+    List<ManagedByteBufferWrapper> buffers = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      buffers.add(bufferManager.allocateManaged(capacity));
+    }
+    buffers.forEach(ManagedByteBufferWrapper::release);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.fromSingleComponent;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.util.func.CheckedConsumer;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@RunWith(Parameterized.class)
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 1000;
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        {"Fits in memory", DATA_SIZE, DATA_SIZE * 2},
+        {"Spills to file", DATA_SIZE, 200},
+        {"Spills to file with a single bucket in memory", DATA_SIZE, 7}
+    });
+  }
+
+  private final FileStoreCursorIteratorConfig config;
+  private final int halfDataLength;
+  private CursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase(String name, int dataSize, int maxInMemoryInstances) {
+    super(dataSize);
+    config = new FileStoreCursorIteratorConfig(maxInMemoryInstances);
+    halfDataLength = data.size() / 2;
+  }
+
+  @Before
+  public void before() {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data), config, muleContext.getObjectSerializer(),
+                                                         fromSingleComponent("log"), false);
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+  }
+
+  @Test
+  @Description("fully consume stream in a single thread")
+  public void readFullyWithInSingleCursor() throws Exception {
+    withCursor(cursor -> checkEquals(data, cursor));
+  }
+
+  @Test
+  @Description("Partially consume the stream, rewind back to zero and consume fully")
+  public void rewindWhileStreamNotFullyConsumed() throws Exception {
+    withCursor(cursor -> {
+      checkEquals(read(cursor, halfDataLength), data.subList(0, halfDataLength));
+
+      cursor.seek(0);
+      checkEquals(read(cursor, data.size()), data);
+    });
+  }
+
+  @Test
+  @Description("Two open cursors consume different ends of the same stream, after the first ones were evicted from memory")
+  public void twoOpenCursorsReadingOppositeEndsOfTheStream() throws Exception {
+    withCursor(cursor1 -> withCursor(cursor2 -> {
+      seekAndAssert(cursor2, halfDataLength, halfDataLength);
+      seekAndAssert(cursor1, 0, halfDataLength);
+      seekAndAssert(cursor2, halfDataLength, halfDataLength);
+    }));
+  }
+
+  @Test
+  @Description("Direct access to the last two items of the stream without traversing the whole cursor")
+  public void getLastTwoItems() throws Exception {
+    withCursor(cursor -> {
+      int size = data.size();
+      cursor.seek(size - 2);
+
+      assertThat(cursor.hasNext(), is(true));
+      assertThat(cursor.next(), is(data.get(size - 2)));
+      assertThat(cursor.next(), is(data.get(size - 1)));
+      assertThat(cursor.hasNext(), is(false));
+    });
+  }
+
+  private void seekAndAssert(CursorIterator<Object> cursor, long position, int size) throws Exception {
+    cursor.seek(position);
+    List<Object> read = read(cursor, size);
+    checkEquals(read, data.subList(toIntExact(position), toIntExact(position + size)));
+  }
+
+  private void withCursor(CheckedConsumer<CursorIterator> consumer) throws Exception {
+    try (CursorIterator cursor = streamProvider.openCursor()) {
+      consumer.accept(cursor);
+    }
+  }
+}
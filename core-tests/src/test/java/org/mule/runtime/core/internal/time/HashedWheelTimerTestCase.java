@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.core.internal.time.HashedWheelTimer.Timeout;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class HashedWheelTimerTestCase extends AbstractMuleTestCase {
+
+  // a small wheel, so that delays span several rounds of it
+  private final HashedWheelTimer timer = new HashedWheelTimer("test.timer", 5, MILLISECONDS, 8);
+
+  @After
+  public void after() {
+    timer.stop();
+  }
+
+  @Test
+  public void runsTaskAfterDelay() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicLong elapsed = new AtomicLong();
+    long start = nanoTime();
+
+    timer.newTimeout(() -> {
+      elapsed.set(nanoTime() - start);
+      latch.countDown();
+    }, 100, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(NANOSECONDS.toMillis(elapsed.get()), greaterThanOrEqualTo(100L));
+  }
+
+  @Test
+  public void runsTasksInDifferentRounds() throws Exception {
+    CountDownLatch latch = new CountDownLatch(20);
+    AtomicInteger early = new AtomicInteger();
+
+    for (int i = 0; i < 20; ++i) {
+      long delay = i * 7;
+      long start = nanoTime();
+      timer.newTimeout(() -> {
+        if (NANOSECONDS.toMillis(nanoTime() - start) < delay) {
+          early.incrementAndGet();
+        }
+        latch.countDown();
+      }, delay, MILLISECONDS);
+    }
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(early.get(), is(0));
+  }
+
+  @Test
+  public void cancelledTaskIsNotRun() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(1);
+
+    Timeout timeout = timer.newTimeout(runs::incrementAndGet, 50, MILLISECONDS);
+    timer.newTimeout(latch::countDown, 100, MILLISECONDS);
+
+    assertThat(timeout.cancel(), is(true));
+    assertThat(timeout.isCancelled(), is(true));
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(runs.get(), is(0));
+    assertThat(timeout.cancel(), is(false));
+  }
+
+  @Test
+  public void taskWithMaxDelayIsNotRun() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(1);
+
+    timer.newTimeout(runs::incrementAndGet, Long.MAX_VALUE, MILLISECONDS);
+    timer.newTimeout(runs::incrementAndGet, Long.MAX_VALUE, NANOSECONDS);
+    timer.newTimeout(latch::countDown, 100, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(runs.get(), is(0));
+  }
+
+  @Test
+  public void failingTaskDoesNotStopTimer() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+
+    timer.newTimeout(() -> {
+      throw new IllegalStateException("Expected");
+    }, 10, MILLISECONDS);
+    timer.newTimeout(latch::countDown, 50, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotScheduleOnStoppedTimer() {
+    timer.stop();
+    timer.newTimeout(() -> {
+    }, 10, MILLISECONDS);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class TimerSchedulerTestCase extends AbstractMuleTestCase {
+
+  private final HashedWheelTimer timer = new HashedWheelTimer("test.timer", 5, MILLISECONDS, 8);
+  private final Scheduler delegate = mock(Scheduler.class);
+  private final TimerScheduler scheduler = new TimerScheduler(timer, delegate);
+
+  @After
+  public void after() {
+    timer.stop();
+  }
+
+  @Test
+  public void maxDelayDoesNotOverflow() {
+    ScheduledFuture<?> future = scheduler.schedule(() -> {
+    }, Long.MAX_VALUE, MILLISECONDS);
+
+    assertThat(future.getDelay(DAYS), greaterThan(0L));
+    future.cancel(false);
+  }
+
+  @Test
+  public void waitingTasksAreCancelledOnStop() {
+    ScheduledFuture<?> future = scheduler.schedule(() -> {
+    }, 1, DAYS);
+
+    scheduler.stop();
+
+    assertThat(future.isCancelled(), is(true));
+    verify(delegate).stop();
+  }
+
+  @Test
+  public void waitingTasksAreCancelledOnShutdownNow() {
+    ScheduledFuture<?> future = scheduler.schedule(() -> "value", 1, DAYS);
+
+    scheduler.shutdownNow();
+
+    assertThat(future.isCancelled(), is(true));
+    verify(delegate).shutdownNow();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Transformer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+@SmallTest
+public class TransformerResolutionCacheTestCase extends AbstractMuleTestCase {
+
+  private final TransformerResolutionCache cache = new TransformerResolutionCache();
+  private final Transformer transformer = mock(Transformer.class);
+
+  @Test
+  public void cachesResolutionsAndMisses() {
+    cache.put(DataType.STRING, DataType.BYTE_ARRAY, transformer, cache.getVersion());
+    cache.put(DataType.BYTE_ARRAY, DataType.NUMBER, null, cache.getVersion());
+
+    assertThat(cache.get(DataType.STRING, DataType.BYTE_ARRAY), is(Optional.of(transformer)));
+    assertThat(cache.get(DataType.BYTE_ARRAY, DataType.NUMBER), is(Optional.empty()));
+    assertThat(cache.get(DataType.STRING, DataType.NUMBER), is(nullValue()));
+  }
+
+  @Test
+  public void invalidatesAffectedResolutionsOnly() {
+    cache.put(DataType.STRING, DataType.BYTE_ARRAY, transformer, cache.getVersion());
+    cache.put(DataType.BYTE_ARRAY, DataType.NUMBER, null, cache.getVersion());
+
+    cache.invalidate((source, result) -> result.equals(DataType.NUMBER));
+
+    assertThat(cache.get(DataType.STRING, DataType.BYTE_ARRAY), is(Optional.of(transformer)));
+    assertThat(cache.get(DataType.BYTE_ARRAY, DataType.NUMBER), is(nullValue()));
+    assertThat(cache.size(), is(1));
+  }
+
+  @Test
+  public void resolutionStartedBeforeInvalidationIsNotCached() {
+    long version = cache.getVersion();
+    cache.invalidate((source, result) -> false);
+    cache.put(DataType.STRING, DataType.BYTE_ARRAY, transformer, version);
+
+    assertThat(cache.get(DataType.STRING, DataType.BYTE_ARRAY), is(nullValue()));
+  }
+
+  @Test
+  public void isBounded() {
+    TransformerResolutionCache boundedCache = new TransformerResolutionCache(1);
+    boundedCache.put(DataType.STRING, DataType.BYTE_ARRAY, transformer, boundedCache.getVersion());
+    boundedCache.put(DataType.BYTE_ARRAY, DataType.NUMBER, transformer, boundedCache.getVersion());
+
+    assertThat(boundedCache.size(), is(1));
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SEGMENT_SIZE = 1024;
+  private static final String LARGE_VALUE = String.join("", nCopies(100, "x"));
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY_KEY, String.valueOf(SEGMENT_SIZE));
+
+  private final List<Runnable> syncTasks = new ArrayList<>();
+
+  private MuleContext mockMuleContext;
+  private SegmentedLogQueueStoreDelegate queueStore;
+
+  @Before
+  public void before() {
+    mockMuleContext = mockMuleContext();
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    // background syncs are run by the tests
+    Scheduler syncScheduler = mock(Scheduler.class);
+    when(syncScheduler.scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class)))
+        .thenAnswer(invocation -> {
+          syncTasks.add(invocation.getArgument(0));
+          return mock(ScheduledFuture.class);
+        });
+    when(mockMuleContext.getSchedulerService().ioScheduler(any(SchedulerConfig.class))).thenReturn(syncScheduler);
+    queueStore = createTestQueueStore();
+  }
+
+  @After
+  public void after() {
+    queueStore.close();
+  }
+
+  @Test
+  public void entriesAreReturnedInOrder() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+
+    assertThat(queueStore.getSize(), is(10));
+    for (int i = 0; i < 10; i++) {
+      assertThat(queueStore.peek(), is(createTestDataForIndex(i)));
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void untakenEntriesAreReturnedFirst() throws Exception {
+    queueStore.addAll(asList(createTestDataForIndex(0), createTestDataForIndex(1)));
+    Serializable first = queueStore.poll(0);
+    Serializable second = queueStore.poll(0);
+    queueStore.untake(second);
+    queueStore.untake(first);
+
+    assertThat(queueStore.poll(0), is(first));
+    assertThat(queueStore.poll(0), is(second));
+    assertThat(queueStore.getSize(), is(0));
+  }
+
+  @Test
+  public void entriesSurviveRestart() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    queueStore.poll(0);
+    queueStore.untake(queueStore.poll(0));
+
+    queueStore.close();
+    queueStore = createTestQueueStore();
+
+    assertThat(queueStore.getSize(), is(4));
+    for (int i = 1; i < 5; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(2)));
+  }
+
+  @Test
+  public void tornWriteIsDiscardedOnRecovery() throws Exception {
+    queueStore.putNow(createTestDataForIndex(0));
+    queueStore.putNow(createTestDataForIndex(1));
+    queueStore.close();
+
+    File segment = getSegmentFiles()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(1));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    queueStore.putNow(createTestDataForIndex(0));
+    queueStore.clear();
+    assertThat(queueStore.getSize(), is(0));
+
+    queueStore.putNow(createTestDataForIndex(1));
+    queueStore.close();
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(1)));
+  }
+
+  @Test
+  public void segmentsRollOver() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createLargeTestDataForIndex(i));
+    }
+
+    assertThat(getSegmentFiles().length, greaterThan(1));
+    assertThat(queueStore.getSize(), is(50));
+    for (int i = 0; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createLargeTestDataForIndex(i)));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createLargeTestDataForIndex(i));
+    }
+    int segmentCount = getSegmentFiles().length;
+
+    for (int i = 0; i < 40; i++) {
+      queueStore.poll(0);
+    }
+    sync();
+    int remainingSegmentCount = getSegmentFiles().length;
+    assertThat(segmentCount, greaterThan(remainingSegmentCount));
+
+    for (int i = 40; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createLargeTestDataForIndex(i)));
+    }
+    sync();
+    assertThat(getSegmentFiles().length, is(1));
+  }
+
+  @Test
+  public void untakenEntriesKeepTheirSegments() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createLargeTestDataForIndex(i));
+    }
+    Serializable first = queueStore.poll(0);
+    for (int i = 1; i < 50; i++) {
+      queueStore.poll(0);
+    }
+    queueStore.untake(first);
+    sync();
+
+    queueStore.close();
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(1));
+    assertThat(queueStore.poll(0), is(first));
+  }
+
+  @Test
+  public void entriesSurviveRestartAfterSegmentsAreDeleted() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createLargeTestDataForIndex(i));
+    }
+    for (int i = 0; i < 25; i++) {
+      queueStore.poll(0);
+    }
+    sync();
+
+    queueStore.close();
+    queueStore = createTestQueueStore();
+
+    assertThat(queueStore.getSize(), is(25));
+    for (int i = 25; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createLargeTestDataForIndex(i)));
+    }
+    queueStore.putNow(createLargeTestDataForIndex(50));
+    assertThat(queueStore.poll(0), is(createLargeTestDataForIndex(50)));
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    queueStore.putNow(createTestDataForIndex(0));
+    assertThat(getQueueDirectory().exists(), is(true));
+
+    queueStore.dispose();
+    assertThat(getQueueDirectory().exists(), is(false));
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    SegmentedLogQueueStoreDelegate queue =
+        new SegmentedLogQueueStoreDelegate("seda.queue(post:\\Customer:ApiTest-config.1)",
+                                           workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 1);
+    queue.dispose();
+  }
+
+  private void sync() {
+    syncTasks.forEach(Runnable::run);
+  }
+
+  private File getQueueDirectory() {
+    return new File(workingDirectory.getRoot(), "queuestore" + File.separator + TEST_QUEUE_NAME + "-log");
+  }
+
+  private File[] getSegmentFiles() {
+    return getQueueDirectory().listFiles((dir, name) -> name.endsWith(".segment"));
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private String createLargeTestDataForIndex(int index) {
+    return LARGE_VALUE + index;
+  }
+
+  private SegmentedLogQueueStoreDelegate createTestQueueStore() {
+    return new SegmentedLogQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                              mockMuleContext, 0);
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.Collections.nCopies;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.DATA_FILE_NAME;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  private static final int COMPACTION_ENTRIES = 400;
+  private static final String COMPACTION_VALUE = String.join("", nCopies(4096, "x"));
+
+  private final List<Runnable> compactions = new ArrayList<>();
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(muleContext);
+    // compactions are run by the tests
+    Scheduler compactionScheduler = mock(Scheduler.class);
+    doAnswer(invocation -> compactions.add(invocation.getArgument(0))).when(compactionScheduler).execute(any(Runnable.class));
+    when(muleContext.getSchedulerService().ioScheduler(any(SchedulerConfig.class))).thenReturn(compactionScheduler);
+    partition = openPartition();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store("key", "value");
+    assertThat(partition.contains("key"), is(true));
+    assertThat(partition.retrieve("key"), is("value"));
+
+    assertThat(partition.remove("key"), is("value"));
+    assertThat(partition.contains("key"), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws ObjectStoreException {
+    partition.store("key", "value");
+    partition.store("key", "other value");
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    final String nonExistentKey = "nonExistentKey";
+
+    try {
+      partition.retrieve(nonExistentKey);
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains(nonExistentKey));
+    }
+  }
+
+  @Test
+  public void entriesAreRestoredFromDataFile() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.remove("key1");
+
+    partition = openPartition();
+    assertThat(partition.allKeys().size(), is(1));
+    assertThat(partition.retrieve("key2"), is("value2"));
+    assertThat(LogStructuredObjectStorePartition.isLogStructuredPartition(objectStoreFolder.getRoot()), is(true));
+  }
+
+  @Test
+  public void tornRecordIsDiscarded() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    try (RandomAccessFile dataFile = new RandomAccessFile(new File(objectStoreFolder.getRoot(), DATA_FILE_NAME), "rw")) {
+      dataFile.setLength(dataFile.length() - 1);
+    }
+
+    partition = openPartition();
+    assertThat(partition.allKeys().size(), is(1));
+    assertThat(partition.retrieve("key1"), is("value1"));
+
+    partition.store("key2", "value2");
+    assertThat(openPartition().retrieve("key2"), is("value2"));
+  }
+
+  @Test
+  public void expireByMaxEntriesRemovesOldestEntries() throws ObjectStoreException {
+    for (int i = 0; i < 5; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+
+    partition.expire(MuleObjectStoreManager.UNBOUNDED, 2);
+    assertThat(partition.allKeys().size(), is(2));
+    assertThat(partition.allKeys(), hasItems("key3", "key4"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store("key", "value");
+    partition.clear();
+    assertThat(partition.contains("key"), is(false));
+    assertThat("Partition descriptor doesn't exists", new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(),
+               is(true));
+    assertThat(openPartition().allKeys().size(), is(0));
+  }
+
+  @Test
+  public void compactionKeepsLiveEntries() throws Exception {
+    triggerCompaction();
+    compactions.remove(0).run();
+
+    partition = openPartition();
+    assertThat(partition.allKeys(), hasSize(COMPACTION_ENTRIES / 10));
+    assertThat(partition.retrieve("key0"), is(COMPACTION_VALUE));
+  }
+
+  @Test
+  public void compactionConcurrentWithClear() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      triggerCompaction();
+      Thread compaction = new Thread(compactions.remove(0));
+      compaction.start();
+
+      partition.clear();
+      List<String> storedKeys = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        partition.store("stored" + j, "value" + j);
+        storedKeys.add("stored" + j);
+      }
+      compaction.join();
+
+      assertThat(partition.allKeys(), containsInAnyOrder(storedKeys.toArray()));
+      LogStructuredObjectStorePartition<String> reloaded = openPartition();
+      assertThat(reloaded.allKeys(), containsInAnyOrder(storedKeys.toArray()));
+      assertThat(reloaded.retrieve("stored4"), is("value4"));
+      partition.clear();
+    }
+  }
+
+  @Test
+  public void closeDeletesPartitionDirectory() throws ObjectStoreException {
+    partition.store("key", "value");
+    partition.close();
+    assertThat(objectStoreFolder.getRoot().exists(), is(false));
+  }
+
+  /**
+   * Stores enough data and removes most of it, so that a compaction is requested.
+   */
+  private void triggerCompaction() throws ObjectStoreException {
+    for (int i = 0; i < COMPACTION_ENTRIES; i++) {
+      partition.store("key" + i, COMPACTION_VALUE);
+    }
+    for (int i = COMPACTION_ENTRIES / 10; i < COMPACTION_ENTRIES; i++) {
+      partition.remove("key" + i);
+    }
+    assertThat(compactions, hasSize(1));
+  }
+
+  private LogStructuredObjectStorePartition<String> openPartition() throws ObjectStoreException {
+    LogStructuredObjectStorePartition<String> newPartition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    newPartition.open();
+    return newPartition;
+  }
+}
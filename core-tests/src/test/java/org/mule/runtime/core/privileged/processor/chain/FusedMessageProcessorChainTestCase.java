@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.privileged.processor.chain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE;
+import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainBuilder.PROCESSOR_CHAIN_FUSION_PROPERTY;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.component.AbstractComponent;
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.notification.MessageProcessorNotification;
+import org.mule.runtime.api.notification.MessageProcessorNotificationListener;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
+import org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainTestCase.ExceptionThrowingMessageProcessor;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FusedMessageProcessorChainTestCase extends AbstractMuleContextTestCase {
+
+  @Rule
+  public SystemProperty processorFusion = new SystemProperty(PROCESSOR_CHAIN_FUSION_PROPERTY, "true");
+
+  private final List<String> invocations = new ArrayList<>();
+  private final List<Processor> strategyProcessors = new ArrayList<>();
+
+  /**
+   * Records the processors it is applied to, which are the ones that were not fused.
+   */
+  private final ProcessingStrategy processingStrategy = new ProcessingStrategy() {
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      strategyProcessors.add(((InterceptedReactiveProcessor) processor).getProcessor());
+      return processor;
+    }
+  };
+
+  @Test
+  public void fusedProcessors() throws Exception {
+    assertThat(process(new AppendingProcessor("a"), new AppendingProcessor("b"), new AppendingProcessor("c"))
+        .getMessage().getPayload().getValue(), is("0abc"));
+    assertThat(invocations, contains("a", "b", "c"));
+  }
+
+  @Test
+  public void fusedProcessorsAroundNonFusedProcessor() throws Exception {
+    assertThat(process(new AppendingProcessor("a"), new AppendingProcessor("b"), new CpuIntensiveProcessor(),
+                       new AppendingProcessor("c"), new AppendingProcessor("d"))
+                           .getMessage().getPayload().getValue(),
+               is("0ab-cd"));
+  }
+
+  @Test
+  public void fusedProcessorsSkipProcessingStrategy() throws Exception {
+    assertThat(process(Optional.of(processingStrategy), new AppendingProcessor("a"), new AppendingProcessor("b"),
+                       new AppendingProcessor("c"))
+                           .getMessage().getPayload().getValue(),
+               is("0abc"));
+    assertThat(strategyProcessors, is(empty()));
+  }
+
+  @Test
+  public void nonFusedProcessorGoesThroughProcessingStrategy() throws Exception {
+    Processor nonFused = new CpuIntensiveProcessor();
+
+    assertThat(process(Optional.of(processingStrategy), new AppendingProcessor("a"), new AppendingProcessor("b"), nonFused,
+                       new AppendingProcessor("c"), new AppendingProcessor("d"))
+                           .getMessage().getPayload().getValue(),
+               is("0ab-cd"));
+    assertThat(strategyProcessors, contains(nonFused));
+  }
+
+  @Test
+  public void singleProcessorIsNotFused() throws Exception {
+    Processor processor = new AppendingProcessor("a");
+
+    assertThat(process(Optional.of(processingStrategy), processor).getMessage().getPayload().getValue(), is("0a"));
+    assertThat(strategyProcessors, contains(processor));
+  }
+
+  @Test
+  public void nullResultDropsEvent() throws Exception {
+    assertThat(process(new AppendingProcessor("a"), event -> null, new AppendingProcessor("b")), is(nullValue()));
+    assertThat(invocations, contains("a"));
+  }
+
+  @Test
+  public void errorStopsFusedProcessors() throws Exception {
+    IllegalStateException exception = new IllegalStateException();
+    try {
+      process(new AppendingProcessor("a"), new ExceptionThrowingMessageProcessor(exception), new AppendingProcessor("b"));
+      fail("Expected an exception");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), is(exception));
+    }
+    assertThat(invocations, contains("a"));
+  }
+
+  @Test
+  public void notifications() throws Exception {
+    List<MessageProcessorNotification> notifications = new ArrayList<>();
+    muleContext.getNotificationManager().addInterfaceToType(MessageProcessorNotificationListener.class,
+                                                            MessageProcessorNotification.class);
+    muleContext.getNotificationManager()
+        .addListener((MessageProcessorNotificationListener) notification -> notifications
+            .add((MessageProcessorNotification) notification));
+
+    IllegalStateException exception = new IllegalStateException();
+    try {
+      process(new AppendingProcessor("a"), new ExceptionThrowingMessageProcessor(exception));
+      fail("Expected an exception");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), is(exception));
+    }
+
+    assertThat(notifications, hasSize(4));
+    assertThat(notifications.get(0).getAction().getActionId(), is(MESSAGE_PROCESSOR_PRE_INVOKE));
+    assertThat(notifications.get(1).getAction().getActionId(), is(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notifications.get(1).getException(), is(nullValue()));
+    assertThat(notifications.get(2).getAction().getActionId(), is(MESSAGE_PROCESSOR_PRE_INVOKE));
+    assertThat(notifications.get(2).getEvent().getMessage().getPayload().getValue(), is("0a"));
+    assertThat(notifications.get(3).getAction().getActionId(), is(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notifications.get(3).getException(), is(instanceOf(MessagingException.class)));
+    assertThat(notifications.get(3).getEvent().getError().get().getCause(), is(exception));
+  }
+
+  private CoreEvent process(Processor... processors) throws Exception {
+    return process(Optional.empty(), processors);
+  }
+
+  private CoreEvent process(Optional<ProcessingStrategy> processingStrategy, Processor... processors) throws Exception {
+    MessageProcessorChain chain = newChain(processingStrategy, processors);
+    initialiseIfNeeded(chain, muleContext);
+    startIfNeeded(chain);
+    try {
+      return chain.process(CoreEvent.builder(testEvent()).message(of("0")).build());
+    } finally {
+      stopIfNeeded(chain);
+      disposeIfNeeded(chain, getLogger(getClass()));
+    }
+  }
+
+  private class AppendingProcessor extends AbstractComponent implements Processor {
+
+    private final String appendString;
+
+    private AppendingProcessor(String appendString) {
+      this.appendString = appendString;
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      invocations.add(appendString);
+      return CoreEvent.builder(event).message(of(event.getMessage().getPayload().getValue() + appendString)).build();
+    }
+
+    @Override
+    public ComponentLocation getLocation() {
+      return mock(ComponentLocation.class);
+    }
+  }
+
+  private static class CpuIntensiveProcessor implements Processor {
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      return CoreEvent.builder(event).message(of(event.getMessage().getPayload().getValue() + "-")).build();
+    }
+
+    @Override
+    public ProcessingType getProcessingType() {
+      return ProcessingType.CPU_INTENSIVE;
+    }
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.privileged.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mule.runtime.core.privileged.util.TemplateParser.createAntStyleParser;
 import static org.mule.runtime.core.privileged.util.TemplateParser.createMuleStyleParser;
@@ -455,6 +456,54 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertEquals(expectedResult, result);
   }
 
+  @Test
+  public void antParserDoesNotReplaceTokensInValues() {
+    TemplateParser tp = createAntStyleParser();
+
+    Map<String, Object> map = buildMap();
+    map.put("prop3", "${prop1}");
+    String template = "${prop3} and ${prop1}";
+
+    String result = tp.parse(map, template);
+    assertEquals("${prop1} and value1", result);
+  }
+
+  @Test
+  public void compiledTemplatesAreCached() {
+    TemplateParser tp = createMuleStyleParser();
+    String template = "Hello #[name]!";
+
+    assertSame(tp.compile(template), tp.compile(template));
+    assertEquals("Hello muleman!", tp.compile(template).render(token -> "muleman"));
+  }
+
+  @Test
+  public void compiledTemplateRendersIntoBuilder() {
+    TemplateParser tp = createMuleStyleParser();
+    TemplateParser.CompiledTemplate template = tp.compile("#[first] and #[second]");
+
+    StringBuilder builder = new StringBuilder();
+    template.render(token -> token.toUpperCase(), builder);
+    assertEquals("FIRST and SECOND", builder.toString());
+
+    builder.setLength(0);
+    template.render(token -> null, builder);
+    assertEquals("null and null", builder.toString());
+  }
+
+  @Test
+  public void compiledTemplateWithPlaceHolders() {
+    TemplateParser tp = createAntStyleParser();
+    TemplateParser.CompiledTemplate template = tp.compile("Some String with ${PROP1} and ${unknown} in it");
+
+    assertEquals("Some String with value1 and ${unknown} in it", template.render(buildMap()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void compileInvalidMuleTemplate() {
+    createMuleStyleParser().compile("#[unclosed");
+  }
+
   private Map<String, Object> buildMap() {
     Map<String, Object> props = new HashMap<String, Object>();
     props.put("prop1", "value1");
@@ -152,6 +152,13 @@ public class MuleProperties {
   public static final String OBJECT_PROCESSING_TIME_WATCHER = "_muleProcessingTimeWatcher";
   public static final String OBJECT_POLLING_CONTROLLER = "_mulePollingController";
   public static final String OBJECT_CLUSTER_CONFIGURATION = "_muleClusterConfiguration";
+
+  /**
+   * Registry key for the generator of the ids of the events, overriding the default one.
+   *
+   * @since 4.4.0
+   */
+  public static final String OBJECT_EVENT_ID_GENERATOR = "_muleEventIdGenerator";
   public static final String OBJECT_EXTENSION_MANAGER = "_muleExtensionManager";
 
   /**
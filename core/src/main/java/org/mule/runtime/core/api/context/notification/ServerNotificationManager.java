@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.api.annotation.NoExtend;
@@ -52,12 +54,14 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.internal.context.notification.Configuration;
+import org.mule.runtime.core.internal.context.notification.NotificationDeliveryQueue;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -95,7 +99,18 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  /**
+   * When this system property is set to {@code true}, asynchronous notifications are enqueued into a bounded queue per listener
+   * which is drained in batches, instead of submitting a task per listener and notification. Notifications that don't fit in the
+   * queue of a slow listener are dropped.
+   *
+   * @since 4.4.0
+   */
+  public static final String BATCHED_NOTIFICATIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.batched";
+
   private boolean dynamic = false;
+  private boolean batched = getBoolean(BATCHED_NOTIFICATIONS_PROPERTY);
+  private final Map<NotificationListener, NotificationDeliveryQueue> deliveryQueues = new ConcurrentHashMap<>();
   private Configuration configuration = new Configuration();
   private final AtomicInteger activeFires = new AtomicInteger();
   private final AtomicBoolean disposed = new AtomicBoolean(false);
@@ -118,6 +133,22 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     this.dynamic = dynamic;
   }
 
+  /**
+   * @param batched whether asynchronous notifications are delivered in batches through a bounded queue per listener
+   * @since 4.4.0
+   */
+  public void setNotificationBatched(boolean batched) {
+    this.batched = batched;
+  }
+
+  /**
+   * @return whether asynchronous notifications are delivered in batches through a bounded queue per listener
+   * @since 4.4.0
+   */
+  public boolean isNotificationBatched() {
+    return batched;
+  }
+
   /**
    * Do not make this object {@link org.mule.runtime.api.lifecycle.Initialisable}. It needs to be initialised before every other
    * object to send notifications.
@@ -155,6 +186,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    deliveryQueues.remove(listener);
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -194,6 +226,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (batched) {
+        notifyListeners(notification, (listener, nfn) -> getDeliveryQueue(listener).offer(nfn));
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -210,6 +244,40 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private NotificationDeliveryQueue getDeliveryQueue(NotificationListener listener) {
+    NotificationDeliveryQueue queue = deliveryQueues.get(listener);
+    if (queue == null) {
+      queue = deliveryQueues.computeIfAbsent(listener, l -> new NotificationDeliveryQueue(l, l.isBlocking()
+          ? notificationsIoScheduler
+          : notificationsLiteScheduler));
+    }
+    return queue;
+  }
+
+  /**
+   * @return the amount of asynchronous notifications that were dropped because the delivery queue of their listener was full.
+   *         Only notifications delivered in batches may be dropped.
+   * @since 4.4.0
+   */
+  public long getDroppedNotificationsCount() {
+    long dropped = 0;
+    for (NotificationDeliveryQueue queue : deliveryQueues.values()) {
+      dropped += queue.getDroppedCount();
+    }
+    return dropped;
+  }
+
+  /**
+   * @param listener a registered listener
+   * @return the amount of asynchronous notifications to the given listener that were dropped because its delivery queue was
+   *         full.
+   * @since 4.4.0
+   */
+  public long getDroppedNotificationsCount(NotificationListener listener) {
+    NotificationDeliveryQueue queue = deliveryQueues.get(listener);
+    return queue == null ? 0 : queue.getDroppedCount();
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -251,6 +319,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       notificationsIoScheduler = null;
     }
 
+    deliveryQueues.clear();
     configuration = null;
   }
 
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.event;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
+
+/**
+ * Generates the ids of the events processed by an artifact, as returned by {@link MuleContext#getUniqueIdString()}.
+ * <p>
+ * The default implementation generates short ids made of the cluster node id, the current time and a sequence number. A
+ * different one may be provided by registering it under the {@link MuleProperties#OBJECT_EVENT_ID_GENERATOR} key.
+ * <p>
+ * Implementations must be thread safe, and the generated ids must be unique across all the nodes of the cluster the runtime is
+ * part of, if any.
+ *
+ * @since 4.4.0
+ */
+public interface EventIdGenerator {
+
+  /**
+   * @return a new unique id.
+   */
+  String generateId();
+}
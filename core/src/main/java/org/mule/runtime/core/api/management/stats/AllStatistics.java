@@ -10,8 +10,8 @@ import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.internal.management.stats.ApplicationStatistics;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <code>AllStatistics</code> TODO
@@ -19,10 +19,10 @@ import java.util.Map;
 @NoExtend
 public class AllStatistics {
 
-  private boolean isStatisticsEnabled;
-  private long startTime;
+  private volatile boolean isStatisticsEnabled;
+  private volatile long startTime;
   private ApplicationStatistics appStats;
-  private Map<String, FlowConstructStatistics> flowConstructStats = new HashMap<String, FlowConstructStatistics>();
+  private Map<String, FlowConstructStatistics> flowConstructStats = new ConcurrentHashMap<>();
 
   /**
    * 
@@ -34,7 +34,7 @@ public class AllStatistics {
     add(appStats);
   }
 
-  public synchronized void clear() {
+  public void clear() {
     for (FlowConstructStatistics statistics : getServiceStatistics()) {
       statistics.clear();
     }
@@ -59,27 +59,27 @@ public class AllStatistics {
     }
   }
 
-  public synchronized long getStartTime() {
+  public long getStartTime() {
     return startTime;
   }
 
-  public synchronized void setStartTime(long startTime) {
+  public void setStartTime(long startTime) {
     this.startTime = startTime;
   }
 
-  public synchronized void add(FlowConstructStatistics stat) {
+  public void add(FlowConstructStatistics stat) {
     if (stat != null) {
       flowConstructStats.put(stat.getName(), stat);
     }
   }
 
-  public synchronized void remove(FlowConstructStatistics stat) {
+  public void remove(FlowConstructStatistics stat) {
     if (stat != null) {
       flowConstructStats.remove(stat.getName());
     }
   }
 
-  public synchronized Collection<FlowConstructStatistics> getServiceStatistics() {
+  public Collection<FlowConstructStatistics> getServiceStatistics() {
     return flowConstructStats.values();
   }
 
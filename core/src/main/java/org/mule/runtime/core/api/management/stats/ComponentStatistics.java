@@ -9,12 +9,16 @@ package org.mule.runtime.core.api.management.stats;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Measurements are recorded without
+ * locking, so that they can be collected on busy flows. Each value is updated atomically but the values are not updated
+ * together - occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +30,13 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong(0);
+  private final AtomicLong maxExecutionTime = new AtomicLong(0);
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private final AtomicLong currentIntervalStartTime = new AtomicLong(0);
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +68,10 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
   }
 
   /**
@@ -102,7 +104,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +113,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -121,7 +123,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +135,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,34 +145,21 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    checkStatInterval();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
+    if (executedEvent.sum() > 0) {
+      totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
       long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+      updateMax(effectiveTotal, effectiveTotal);
     }
   }
 
@@ -181,12 +170,10 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime, effectiveTime);
     }
   }
 
@@ -197,31 +184,50 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    checkStatInterval();
+
+    executedEvent.increment();
+
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+
+    updateMin(effectiveTime, time);
+    updateMax(effectiveTime, time);
+  }
+
+  private void checkStatInterval() {
     if (statIntervalTimeEnabled) {
       long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
+      currentIntervalStartTime.compareAndSet(0, currentTime);
 
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
+      long intervalStartTime = currentIntervalStartTime.get();
+      // only the thread that starts the new interval clears the stats
+      if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
         clear();
-        currentIntervalStartTime = currentTime;
       }
     }
+  }
 
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
+  private void updateMin(long effectiveTime, long time) {
+    long current;
+    do {
+      current = minExecutionTime.get();
+      if (current != 0 && effectiveTime >= current) {
+        return;
+      }
+    } while (!minExecutionTime.compareAndSet(current, time));
+  }
 
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
-    }
-    averageExecutionTime = totalExecTime / executedEvent;
+  private void updateMax(long effectiveTime, long time) {
+    long current;
+    do {
+      current = maxExecutionTime.get();
+      if (current != 0 && effectiveTime <= current) {
+        return;
+      }
+    } while (!maxExecutionTime.compareAndSet(current, time));
   }
 
   /**
@@ -230,7 +236,8 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
   }
 
 }
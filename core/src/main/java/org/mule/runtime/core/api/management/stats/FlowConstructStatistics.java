@@ -59,6 +59,16 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getMinProcessingTime();
 
+  /**
+   * Returns the processing time below which the given percentage of the finalized events were processed, for instance 50, 99
+   * or 99.9. The value has a relative error of less than 2%.
+   *
+   * @param percentile a percentage, between 0 and 100
+   * @return the processing time at the given percentile, or 0 if no event was finalized
+   * @since 4.4.0
+   */
+  long getProcessingTimePercentile(double percentile);
+
   /**
    * @return the time consumed to process all the current finalized events
    */
@@ -8,11 +8,11 @@ package org.mule.runtime.core.api.management.stats;
 
 import org.mule.api.annotation.NoExtend;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <code>RouterStatistics</code> TODO
@@ -31,19 +31,19 @@ public class RouterStatistics implements Statistics {
   public static final int TYPE_RESPONSE = 3;
   public static final int TYPE_BINDING = 4;
 
-  private boolean enabled;
-  private long notRouted;
-  private long caughtInCatchAll;
-  private long totalRouted;
-  private long totalReceived;
-  private Map routed;
+  private volatile boolean enabled;
+  private final LongAdder notRouted = new LongAdder();
+  private final LongAdder caughtInCatchAll = new LongAdder();
+  private final LongAdder totalRouted = new LongAdder();
+  private final LongAdder totalReceived = new LongAdder();
+  private final Map<String, LongAdder> routed = new ConcurrentHashMap<>();
   private int type;
 
-  public synchronized void clear() {
-    notRouted = 0;
-    totalRouted = 0;
-    totalReceived = 0;
-    caughtInCatchAll = 0;
+  public void clear() {
+    notRouted.reset();
+    totalRouted.reset();
+    totalReceived.reset();
+    caughtInCatchAll.reset();
     routed.clear();
   }
 
@@ -55,7 +55,7 @@ public class RouterStatistics implements Statistics {
     return enabled;
   }
 
-  public synchronized void setEnabled(boolean b) {
+  public void setEnabled(boolean b) {
     enabled = b;
   }
 
@@ -65,7 +65,6 @@ public class RouterStatistics implements Statistics {
   public RouterStatistics(int type) {
     super();
     this.type = type;
-    routed = new HashMap();
   }
 
   /**
@@ -77,11 +76,8 @@ public class RouterStatistics implements Statistics {
     if (endpoints == null || endpoints.isEmpty()) {
       return;
     }
-    List list = new ArrayList(endpoints);
-    synchronized (list) {
-      for (int i = 0; i < list.size(); i++) {
-        incrementRoutedMessage(list.get(i));
-      }
+    for (Object endpoint : endpoints) {
+      incrementRoutedMessage(endpoint);
     }
   }
 
@@ -90,89 +86,79 @@ public class RouterStatistics implements Statistics {
    *
    * @param endpoint The endpoint
    */
-  public synchronized void incrementRoutedMessage(Object endpoint) {
+  public void incrementRoutedMessage(Object endpoint) {
     if (endpoint == null) {
       return;
     }
 
-    String name = endpoint.toString();
+    routed.computeIfAbsent(endpoint.toString(), name -> new LongAdder()).increment();
 
-    Long cpt = (Long) routed.get(name);
-    long count = 0;
-
-    if (cpt != null) {
-      count = cpt.longValue();
-    }
-
-    // TODO we should probably use a MutableLong here,
-    // but that might be problematic for remote MBean access (serialization)
-    routed.put(name, new Long(++count));
-
-    totalRouted++;
-    totalReceived++;
+    totalRouted.increment();
+    totalReceived.increment();
   }
 
   /**
    * Increment no routed message
    */
-  public synchronized void incrementNoRoutedMessage() {
-    notRouted++;
-    totalReceived++;
+  public void incrementNoRoutedMessage() {
+    notRouted.increment();
+    totalReceived.increment();
   }
 
   /**
    * Increment no routed message
    */
-  public synchronized void incrementCaughtMessage() {
-    caughtInCatchAll++;
+  public void incrementCaughtMessage() {
+    caughtInCatchAll.increment();
   }
 
   /**
    * @return Returns the notRouted.
    */
   public final long getCaughtMessages() {
-    return caughtInCatchAll;
+    return caughtInCatchAll.sum();
   }
 
   /**
    * @return Returns the notRouted.
    */
   public final long getNotRouted() {
-    return notRouted;
+    return notRouted.sum();
   }
 
   /**
    * @return Returns the totalReceived.
    */
   public final long getTotalReceived() {
-    return totalReceived;
+    return totalReceived.sum();
   }
 
   /**
    * @return Returns the totalRouted.
    */
   public final long getTotalRouted() {
-    return totalRouted;
+    return totalRouted.sum();
   }
 
   /**
    * @return Returns the totalRouted.
    */
   public final long getRouted(String endpointName) {
-    Long l = (Long) routed.get(endpointName);
-
-    if (l == null) {
-      return 0;
-    } else {
-      return l.longValue();
-    }
+    LongAdder count = routed.get(endpointName);
+    return count == null ? 0 : count.sum();
   }
 
   public boolean isInbound() {
     return type == TYPE_INBOUND;
   }
 
+  /**
+   * @return a snapshot of the amount of messages routed to each endpoint, keyed by the endpoint name.
+   */
   public Map getRouted() {
-    return routed;
+    // copied into plain values for remote MBean access (serialization)
+    Map<String, Long> snapshot = new HashMap<>();
+    routed.forEach((name, count) -> snapshot.put(name, count.sum()));
+    return snapshot;
   }
 }
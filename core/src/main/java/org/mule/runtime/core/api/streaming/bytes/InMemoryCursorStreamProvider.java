@@ -6,10 +6,14 @@
  */
 package org.mule.runtime.core.api.streaming.bytes;
 
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.USE_SEGMENTED_BUFFER;
+
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.core.internal.streaming.bytes.AbstractInputStreamBuffer;
 import org.mule.runtime.core.internal.streaming.bytes.BufferedCursorStream;
 import org.mule.runtime.core.internal.streaming.bytes.InMemoryStreamBuffer;
+import org.mule.runtime.core.internal.streaming.bytes.SegmentedInMemoryStreamBuffer;
 
 import java.io.InputStream;
 
@@ -21,7 +25,7 @@ import java.io.InputStream;
  */
 public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider {
 
-  private final InMemoryStreamBuffer buffer;
+  private final AbstractInputStreamBuffer buffer;
 
   /**
    * Creates a new instance
@@ -40,7 +44,9 @@ public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProv
                                       ComponentLocation originatingLocation,
                                       boolean trackCursorProviderClose) {
     super(wrappedStream, originatingLocation, trackCursorProviderClose);
-    buffer = new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
+    buffer = USE_SEGMENTED_BUFFER
+        ? new SegmentedInMemoryStreamBuffer(wrappedStream, config, bufferManager)
+        : new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
   }
 
   /**
@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.internal.management.stats.LatencyHistogram;
+
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link org.apache.commons.pool.ObjectPool} of connections which never locks when borrowing or returning a connection.
+ * <p>
+ * Every pooled connection has an atomic state, and is borrowed by switching it from idle to in use. A thread first tries to
+ * borrow the connection it returned last, which is usually idle and not contended, and then scans the shared list of pooled
+ * connections. When the pool is exhausted, waiting threads are directly handed off the connections being returned.
+ * <p>
+ * Idle connections are evicted and validated by a background task in an IO {@link Scheduler} of the pool, so that neither
+ * borrowing nor returning a connection pays for it. The task runs with the context class loader of the thread that created
+ * the pool.
+ * <p>
+ * It follows the semantics of the {@link PoolingProfile} it is created with, as the {@code GenericObjectPool} it replaces
+ * does, and keeps track of the time spent waiting for a connection and of the utilization of the pool. These metrics are
+ * logged at debug level each time the background task runs and when the pool is closed.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.4.0
+ */
+final class ConcurrentConnectionPool<C> extends BaseObjectPool<C> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentConnectionPool.class);
+
+  // handed off to waiting threads to signal that a connection may be created
+  private final PooledConnection<C> capacitySignal = new PooledConnection<>(null);
+
+  private final PoolableObjectFactory<C> factory;
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWaitNanos;
+  private final int exhaustedAction;
+  private final long minEvictionNanos;
+
+  private final CopyOnWriteArrayList<PooledConnection<C>> connections = new CopyOnWriteArrayList<>();
+  // weakly referenced, so that the threads that used the pool do not retain its connections once they are destroyed
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final SynchronousQueue<PooledConnection<C>> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger total = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+  private final Scheduler housekeepingScheduler;
+  private final ScheduledFuture<?> housekeepingTask;
+
+  private final LatencyHistogram waitTimes = new LatencyHistogram();
+  private final LongAdder borrowed = new LongAdder();
+  private final LongAdder exhausted = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory          the factory used to create, validate and destroy the connections
+   * @param poolingProfile   the {@link PoolingProfile} which configures the pool
+   * @param schedulerService the {@link SchedulerService} which provides the scheduler of the background task
+   * @param schedulerConfig  the base {@link SchedulerConfig} of the scheduler of the background task
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile,
+                           SchedulerService schedulerService, SchedulerConfig schedulerConfig) {
+    this.factory = factory;
+    this.maxActive = poolingProfile.getMaxActive();
+    this.maxIdle = poolingProfile.getMaxIdle();
+    this.maxWaitNanos = MILLISECONDS.toNanos(poolingProfile.getMaxWait());
+    this.exhaustedAction = poolingProfile.getExhaustedAction();
+    this.minEvictionNanos = MILLISECONDS.toNanos(poolingProfile.getMinEvictionMillis());
+
+    final long evictionCheckInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionCheckInterval > 0) {
+      // validating the connections may block, so it is done in an IO scheduler
+      housekeepingScheduler = schedulerService.ioScheduler(schedulerConfig.withName("connection-pool-housekeeping"));
+      housekeepingTask = housekeepingScheduler.scheduleWithFixedDelay(this::housekeep, evictionCheckInterval,
+                                                                      evictionCheckInterval, MILLISECONDS);
+    } else {
+      housekeepingScheduler = null;
+      housekeepingTask = null;
+    }
+  }
+
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    final long start = nanoTime();
+
+    PooledConnection<C> pooled = claimIdle();
+    if (pooled == null) {
+      pooled = reserveCapacity() ? create() : whenExhausted(start);
+    }
+
+    try {
+      factory.activateObject(pooled.connection);
+    } catch (Exception e) {
+      destroy(pooled);
+      throw e;
+    }
+
+    waitTimes.record(NANOSECONDS.toMicros(nanoTime() - start));
+    borrowed.increment();
+    return pooled.connection;
+  }
+
+  private PooledConnection<C> whenExhausted(long start) throws Exception {
+    if (exhaustedAction == WHEN_EXHAUSTED_GROW) {
+      total.incrementAndGet();
+      return create();
+    }
+
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      exhausted.increment();
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    PooledConnection<C> pooled = await(start);
+    return pooled != null ? pooled : create();
+  }
+
+  /**
+   * Waits for a connection to be returned or for capacity to create a new one.
+   *
+   * @return the connection handed off to this thread, or {@code null} if capacity for a new connection was reserved.
+   */
+  private PooledConnection<C> await(long start) throws Exception {
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        assertOpen();
+
+        PooledConnection<C> pooled = claimIdle();
+        if (pooled != null) {
+          return pooled;
+        }
+        if (reserveCapacity()) {
+          return null;
+        }
+
+        final long timeout = maxWaitNanos > 0 ? maxWaitNanos - (nanoTime() - start) : Long.MAX_VALUE;
+        if (timeout <= 0) {
+          exhausted.increment();
+          throw new NoSuchElementException("Timeout waiting for idle object");
+        }
+
+        pooled = handoffQueue.poll(timeout, NANOSECONDS);
+        if (pooled != null && pooled != capacitySignal && pooled.claim()) {
+          idle.decrementAndGet();
+          return pooled;
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private PooledConnection<C> claimIdle() {
+    WeakReference<PooledConnection<C>> lastReturnedReference = lastReturned.get();
+    PooledConnection<C> pooled = lastReturnedReference != null ? lastReturnedReference.get() : null;
+    if (pooled != null && pooled.claim()) {
+      idle.decrementAndGet();
+      return pooled;
+    }
+
+    for (PooledConnection<C> candidate : connections) {
+      if (candidate.claim()) {
+        idle.decrementAndGet();
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private boolean reserveCapacity() {
+    if (maxActive < 0) {
+      total.incrementAndGet();
+      return true;
+    }
+
+    int current;
+    do {
+      current = total.get();
+      if (current >= maxActive) {
+        return false;
+      }
+    } while (!total.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private PooledConnection<C> create() throws Exception {
+    try {
+      PooledConnection<C> pooled = new PooledConnection<>(factory.makeObject());
+      connections.add(pooled);
+      return pooled;
+    } catch (Exception e) {
+      total.decrementAndGet();
+      signalCapacity();
+      throw e;
+    }
+  }
+
+  @Override
+  public void returnObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    if (pooled == null || !pooled.isInUse()) {
+      throw new IllegalStateException("Returned object not currently part of this pool");
+    }
+
+    try {
+      factory.passivateObject(connection);
+    } catch (Exception e) {
+      destroy(pooled);
+      throw e;
+    }
+
+    if (isClosed() || !reserveIdle()) {
+      destroy(pooled);
+      return;
+    }
+
+    pooled.lastReturned = nanoTime();
+    pooled.release();
+    lastReturned.set(pooled.reference);
+    handOff(pooled);
+  }
+
+  private boolean reserveIdle() {
+    if (maxIdle < 0) {
+      idle.incrementAndGet();
+      return true;
+    }
+
+    int current;
+    do {
+      current = idle.get();
+      if (current >= maxIdle) {
+        return false;
+      }
+    } while (!idle.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Hands off the given idle connection to a waiting thread, until either a waiting thread or any other takes it.
+   */
+  private void handOff(PooledConnection<C> pooled) {
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (!pooled.isIdle() || handoffQueue.offer(pooled)) {
+        return;
+      }
+      backOff(i);
+    }
+  }
+
+  private void signalCapacity() {
+    for (int i = 0; waiters.get() > 0; i++) {
+      if ((!isClosed() && maxActive >= 0 && total.get() >= maxActive) || handoffQueue.offer(capacitySignal)) {
+        return;
+      }
+      backOff(i);
+    }
+  }
+
+  private void backOff(int attempt) {
+    if ((attempt & 0xff) == 0xff) {
+      parkNanos(MICROSECONDS.toNanos(10));
+    } else {
+      Thread.yield();
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    if (pooled != null) {
+      if (pooled.claim()) {
+        // the connection was idle
+        idle.decrementAndGet();
+      }
+      destroy(pooled);
+    } else {
+      factory.destroyObject(connection);
+    }
+  }
+
+  private PooledConnection<C> find(C connection) {
+    // pools are small, so a scan is cheaper than keeping an identity map up to date
+    for (PooledConnection<C> pooled : connections) {
+      if (pooled.connection == connection) {
+        return pooled;
+      }
+    }
+    return null;
+  }
+
+  private void destroy(PooledConnection<C> pooled) {
+    if (!pooled.remove()) {
+      return;
+    }
+    connections.remove(pooled);
+    total.decrementAndGet();
+
+    try {
+      factory.destroyObject(pooled.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + pooled.connection.getClass().getName(), e);
+    } finally {
+      signalCapacity();
+    }
+  }
+
+  private void housekeep() {
+    withContextClassLoader(contextClassLoader, () -> {
+      evict();
+      logMetrics();
+    });
+  }
+
+  /**
+   * Destroys the idle connections which are idle for longer than the configured min eviction time, or which are not valid
+   * anymore.
+   */
+  private void evict() {
+    final long now = nanoTime();
+    for (PooledConnection<C> pooled : connections) {
+      if (!pooled.claim()) {
+        continue;
+      }
+      idle.decrementAndGet();
+
+      final boolean expired = minEvictionNanos > 0 && now - pooled.lastReturned >= minEvictionNanos;
+
+      if (expired || isClosed() || !validate(pooled)) {
+        destroy(pooled);
+      } else {
+        // keeps the time it was last returned at, so that it is still evicted when due
+        idle.incrementAndGet();
+        pooled.release();
+        handOff(pooled);
+      }
+    }
+  }
+
+  private void logMetrics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Connection pool of {}: {} active, {} idle, utilization {}, borrowed {}, exhausted {}, "
+          + "wait time p50 {}us, p99 {}us, max {}us", factory, getNumActive(), getNumIdle(), getUtilization(),
+                   getBorrowedCount(), getExhaustedCount(), getWaitTimePercentile(50), getWaitTimePercentile(99),
+                   getWaitTimePercentile(100));
+    }
+  }
+
+  private boolean validate(PooledConnection<C> pooled) {
+    try {
+      return factory.validateObject(pooled.connection);
+    } catch (Exception e) {
+      LOGGER.debug("Connection validation failed, it will be destroyed", e);
+      return false;
+    }
+  }
+
+  /**
+   * Destroys the idle connections
+   */
+  @Override
+  public void clear() {
+    for (PooledConnection<C> pooled : connections) {
+      if (pooled.claim()) {
+        idle.decrementAndGet();
+        destroy(pooled);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying the idle connections. Connections which are in use are destroyed when returned.
+   */
+  @Override
+  public void close() throws Exception {
+    if (isClosed()) {
+      return;
+    }
+    super.close();
+    if (housekeepingTask != null) {
+      housekeepingTask.cancel(false);
+      housekeepingScheduler.stop();
+    }
+    lastReturned.remove();
+    clear();
+    // wakes up the waiting threads so that they fail
+    signalCapacity();
+    logMetrics();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return max(0, total.get() - idle.get());
+  }
+
+  /**
+   * @return the fraction of the max active connections which are currently in use, or of the pooled ones if the pool has no
+   *         max active connections.
+   */
+  public double getUtilization() {
+    final int capacity = maxActive > 0 ? max(maxActive, total.get()) : total.get();
+    return capacity == 0 ? 0 : (double) getNumActive() / capacity;
+  }
+
+  /**
+   * @param percentile a percentage, between 0 and 100
+   * @return the time in microseconds below which the given percentage of the borrowed connections were obtained
+   */
+  public long getWaitTimePercentile(double percentile) {
+    return waitTimes.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the amount of connections borrowed from the pool
+   */
+  public long getBorrowedCount() {
+    return borrowed.sum();
+  }
+
+  /**
+   * @return the amount of times a connection could not be borrowed because the pool was exhausted
+   */
+  public long getExhaustedCount() {
+    return exhausted.sum();
+  }
+
+  private static final class PooledConnection<C> {
+
+    private static final int IDLE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    private final C connection;
+    private final WeakReference<PooledConnection<C>> reference = new WeakReference<>(this);
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private volatile long lastReturned;
+
+    private PooledConnection(C connection) {
+      this.connection = connection;
+    }
+
+    private boolean claim() {
+      return state.get() == IDLE && state.compareAndSet(IDLE, IN_USE);
+    }
+
+    private void release() {
+      state.set(IDLE);
+    }
+
+    private boolean remove() {
+      return state.getAndSet(REMOVED) != REMOVED;
+    }
+
+    private boolean isIdle() {
+      return state.get() == IDLE;
+    }
+
+    private boolean isInUse() {
+      return state.get() == IN_USE;
+    }
+  }
+}
@@ -6,11 +6,14 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
@@ -30,6 +33,12 @@ import org.apache.commons.pool.impl.GenericObjectPool;
  */
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
+  /**
+   * When set, connections are pooled in a {@link ConcurrentConnectionPool} instead of a {@link GenericObjectPool}, which
+   * scales better when many threads borrow connections concurrently.
+   */
+  public static final String CONCURRENT_POOL_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.concurrentPool";
+
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
@@ -97,6 +106,11 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private ObjectPool<C> createPool() {
+    if (getBoolean(CONCURRENT_POOL_PROPERTY)) {
+      return new ConcurrentConnectionPool<>(new ObjectFactoryAdapter(), poolingProfile, muleContext.getSchedulerService(),
+                                            muleContext.getSchedulerBaseConfig());
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -125,9 +139,14 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
       connectionProvider.disconnect(connection);
     }
 
+    /**
+     * Only invoked by the {@link ConcurrentConnectionPool}, to validate idle connections in the background. The
+     * {@link GenericObjectPool} is not configured to test its connections.
+     */
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
     }
 
     @Override
@@ -15,6 +15,7 @@ import static org.mule.runtime.core.api.config.MuleProperties.LOCAL_OBJECT_STORE
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CLUSTER_CONFIGURATION;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_COMPONENT_INITIAL_STATE_MANAGER;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONVERTER_RESOLVER;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_EVENT_ID_GENERATOR;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_EXPRESSION_MANAGER;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_LOCK_FACTORY;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_MULE_STREAM_CLOSER_SERVICE;
@@ -41,7 +42,6 @@ import static org.mule.runtime.core.api.context.notification.MuleContextNotifica
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
-import static org.mule.runtime.core.api.util.UUID.getClusterUUID;
 import static org.mule.runtime.core.internal.logging.LogUtil.log;
 import static org.mule.runtime.core.internal.util.FunctionalUtils.safely;
 import static org.mule.runtime.core.internal.util.JdkVersionUtils.getSupportedJdks;
@@ -87,6 +87,7 @@ import org.mule.runtime.core.api.context.notification.MuleContextNotification;
 import org.mule.runtime.core.api.context.notification.ServerNotificationManager;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.EventContextService;
+import org.mule.runtime.core.api.event.EventIdGenerator;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.exception.RollbackSourceCallback;
 import org.mule.runtime.core.api.exception.SystemExceptionHandler;
@@ -106,6 +107,7 @@ import org.mule.runtime.core.internal.config.DefaultCustomizationService;
 import org.mule.runtime.core.internal.config.NullClusterConfiguration;
 import org.mule.runtime.core.internal.connector.DefaultSchedulerController;
 import org.mule.runtime.core.internal.connector.SchedulerController;
+import org.mule.runtime.core.internal.event.CompactEventIdGenerator;
 import org.mule.runtime.core.internal.exception.ErrorHandler;
 import org.mule.runtime.core.internal.exception.ErrorHandlerFactory;
 import org.mule.runtime.core.internal.exception.GlobalErrorHandler;
@@ -208,6 +210,7 @@ public class DefaultMuleContext implements MuleContextWithRegistry, PrivilegedMu
 
   private ClusterConfiguration clusterConfiguration = new NullClusterConfiguration();
   private String clusterNodeIdPrefix = "";
+  private EventIdGenerator eventIdGenerator = new CompactEventIdGenerator(clusterNodeIdPrefix);
 
   private final SingleResourceTransactionFactoryManager singleResourceTransactionFactoryManager =
       new SingleResourceTransactionFactoryManager();
@@ -337,6 +340,7 @@ public class DefaultMuleContext implements MuleContextWithRegistry, PrivilegedMu
 
       overridePollingController();
       overrideClusterConfiguration();
+      overrideEventIdGenerator();
       startMessageSources();
     }
   }
@@ -865,7 +869,7 @@ public class DefaultMuleContext implements MuleContextWithRegistry, PrivilegedMu
 
   @Override
   public String getUniqueIdString() {
-    return getClusterUUID(clusterNodeIdPrefix);
+    return eventIdGenerator.generateId();
   }
 
   @Override
@@ -965,6 +969,14 @@ public class DefaultMuleContext implements MuleContextWithRegistry, PrivilegedMu
     if (overriddenClusterConfiguration != null) {
       this.clusterConfiguration = overriddenClusterConfiguration;
       this.clusterNodeIdPrefix = overriddenClusterConfiguration.getClusterNodeId() + "-";
+      this.eventIdGenerator = new CompactEventIdGenerator(clusterNodeIdPrefix);
+    }
+  }
+
+  private void overrideEventIdGenerator() {
+    EventIdGenerator overriddenEventIdGenerator = getRegistry().get(OBJECT_EVENT_ID_GENERATOR);
+    if (overriddenEventIdGenerator != null) {
+      this.eventIdGenerator = overriddenEventIdGenerator;
     }
   }
 
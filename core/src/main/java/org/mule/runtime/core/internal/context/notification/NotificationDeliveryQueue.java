@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to a single {@link NotificationListener} in batches.
+ * <p>
+ * Notifications are enqueued in a bounded ring buffer which any thread may write to, and which is drained by a single task at a
+ * time. A drain task is only submitted to the executor when the queue goes from idle to non-empty, so a burst of notifications
+ * costs a single task submission instead of one per notification. When the buffer is full the notification is dropped and
+ * accounted for in {@link #getDroppedCount()}, so that a slow listener never blocks or slows down the flows firing the
+ * notifications.
+ *
+ * @since 4.4.0
+ */
+public final class NotificationDeliveryQueue {
+
+  private static final Logger LOGGER = getLogger(NotificationDeliveryQueue.class);
+
+  /**
+   * The amount of notifications that may be pending delivery for each listener before new ones are dropped. Rounded up to a
+   * power of two.
+   */
+  public static final String NOTIFICATION_BUFFER_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.bufferSize";
+
+  private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+  private static final int MAX_BATCH_SIZE = 256;
+
+  private final NotificationListener listener;
+  private final Executor executor;
+
+  private final int mask;
+  private final AtomicReferenceArray<Notification> buffer;
+  private final AtomicLongArray sequences;
+  private final AtomicLong producerIndex = new AtomicLong();
+  // only accessed by the drain task holding the scheduled flag
+  private long consumerIndex = 0;
+
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  public NotificationDeliveryQueue(NotificationListener listener, Executor executor) {
+    this(listener, executor, getInteger(NOTIFICATION_BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+  }
+
+  NotificationDeliveryQueue(NotificationListener listener, Executor executor, int bufferSize) {
+    this.listener = listener;
+    this.executor = executor;
+
+    int capacity = highestOneBit(max(2, bufferSize - 1)) << 1;
+    this.mask = capacity - 1;
+    this.buffer = new AtomicReferenceArray<>(capacity);
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Enqueues the given notification for delivery, scheduling a drain of the queue if there isn't one already.
+   *
+   * @param notification the notification to deliver
+   * @return {@code true} if the notification was enqueued, {@code false} if it was dropped because the queue is full.
+   */
+  public boolean offer(Notification notification) {
+    if (!enqueue(notification)) {
+      dropped.increment();
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Notification dropped because the delivery queue of listener {} is full: {}", listener, notification);
+      }
+      return false;
+    }
+
+    scheduleDrain();
+    return true;
+  }
+
+  private boolean enqueue(Notification notification) {
+    while (true) {
+      final long index = producerIndex.get();
+      final int slot = (int) index & mask;
+      final long sequence = sequences.get(slot);
+
+      if (sequence == index) {
+        if (producerIndex.compareAndSet(index, index + 1)) {
+          buffer.set(slot, notification);
+          // publishes the slot to the consumer
+          sequences.set(slot, index + 1);
+          return true;
+        }
+      } else if (sequence < index) {
+        // the consumer has not yet freed the slot, so the buffer is full
+        return false;
+      }
+    }
+  }
+
+  private Notification poll() {
+    final int slot = (int) consumerIndex & mask;
+    if (sequences.get(slot) != consumerIndex + 1) {
+      return null;
+    }
+
+    Notification notification = buffer.get(slot);
+    buffer.set(slot, null);
+    sequences.set(slot, consumerIndex + mask + 1);
+    consumerIndex++;
+    return notification;
+  }
+
+  private boolean isEmpty() {
+    return sequences.get((int) consumerIndex & mask) != consumerIndex + 1;
+  }
+
+  private void scheduleDrain() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        LOGGER.warn("Could not schedule the delivery of notifications to listener {}: {}", listener, e.getMessage());
+      }
+    }
+  }
+
+  private void drain() {
+    for (int i = 0; i < MAX_BATCH_SIZE; ++i) {
+      Notification notification = poll();
+      if (notification == null) {
+        break;
+      }
+
+      try {
+        listener.onNotification(notification);
+      } catch (Exception e) {
+        LOGGER.error("Listener {} failed to process notification {}", listener, notification, e);
+      }
+      delivered.increment();
+    }
+
+    scheduled.set(false);
+    // notifications enqueued while draining, or beyond the batch, are delivered in a new task
+    if (!isEmpty()) {
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * @return the listener notifications are delivered to
+   */
+  public NotificationListener getListener() {
+    return listener;
+  }
+
+  /**
+   * @return the amount of notifications that were delivered to the listener
+   */
+  public long getDeliveredCount() {
+    return delivered.sum();
+  }
+
+  /**
+   * @return the amount of notifications that were dropped because the queue was full
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+}
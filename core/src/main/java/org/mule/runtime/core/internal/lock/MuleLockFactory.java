@@ -41,7 +41,7 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
 
   @Override
   public void initialise() throws InitialisationException {
-    lockGroup = new InstanceLockGroup(lockProvider);
+    lockGroup = new StripedLockGroup(lockProvider);
   }
 
   @Inject
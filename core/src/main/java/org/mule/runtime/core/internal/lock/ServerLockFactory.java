@@ -21,7 +21,7 @@ import java.util.concurrent.locks.Lock;
  */
 public class ServerLockFactory implements LockFactory, Disposable {
 
-  private LockGroup lockGroup = new InstanceLockGroup(new SingleServerLockProvider());
+  private LockGroup lockGroup = new StripedLockGroup(new SingleServerLockProvider());
 
   @Override
   public synchronized Lock createLock(String lockId) {
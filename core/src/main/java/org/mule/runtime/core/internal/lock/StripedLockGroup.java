@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.lang.System.nanoTime;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * As opposed to {@link InstanceLockGroup}, the locks are not created and reference counted under a single monitor but atomically
+ * per key on a {@link ConcurrentHashMap}, so that locking unrelated keys from many threads does not contend.
+ * <p>
+ * It also keeps statistics of the time spent waiting for each lock, while the lock is referenced.
+ *
+ * @since 4.4.0
+ */
+public class StripedLockGroup implements LockGroup {
+
+  private final ConcurrentMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final LockProvider lockProvider;
+
+  public StripedLockGroup(LockProvider lockProvider) {
+    this.lockProvider = lockProvider;
+  }
+
+  @Override
+  public void lock(String lockId) {
+    LockEntry lockEntry = reference(lockId);
+    Lock lock = lockEntry.getLock();
+    boolean acquired = false;
+    try {
+      if (tryLockWithoutWaiting(lock)) {
+        lockEntry.acquired();
+      } else {
+        long start = nanoTime();
+        lock.lock();
+        lockEntry.waited(nanoTime() - start, true);
+      }
+      acquired = true;
+    } catch (InterruptedException e) {
+      // lock() does not react to interruptions, so the interruption is kept for the caller
+      lock.lock();
+      Thread.currentThread().interrupt();
+      lockEntry.acquired();
+      acquired = true;
+    } finally {
+      if (!acquired) {
+        release(lockId, lockEntry);
+      }
+    }
+  }
+
+  @Override
+  public void unlock(String lockId) {
+    LockEntry lockEntry = locks.get(lockId);
+    if (lockEntry != null) {
+      lockEntry.getLock().unlock();
+      release(lockId, lockEntry);
+    }
+  }
+
+  @Override
+  public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
+    LockEntry lockEntry = reference(lockId);
+    Lock lock = lockEntry.getLock();
+    boolean acquired = false;
+    try {
+      if (tryLockWithoutWaiting(lock)) {
+        lockEntry.acquired();
+        acquired = true;
+      } else {
+        long start = nanoTime();
+        acquired = lock.tryLock(timeout, timeUnit);
+        lockEntry.waited(nanoTime() - start, acquired);
+      }
+      return acquired;
+    } finally {
+      if (!acquired) {
+        release(lockId, lockEntry);
+      }
+    }
+  }
+
+  @Override
+  public boolean tryLock(String lockId) {
+    LockEntry lockEntry = reference(lockId);
+    boolean acquired = false;
+    try {
+      acquired = lockEntry.getLock().tryLock();
+      if (acquired) {
+        lockEntry.acquired();
+      }
+      return acquired;
+    } finally {
+      if (!acquired) {
+        release(lockId, lockEntry);
+      }
+    }
+  }
+
+  @Override
+  public void lockInterruptibly(String lockId) throws InterruptedException {
+    LockEntry lockEntry = reference(lockId);
+    Lock lock = lockEntry.getLock();
+    boolean acquired = false;
+    try {
+      if (tryLockWithoutWaiting(lock)) {
+        lockEntry.acquired();
+      } else {
+        long start = nanoTime();
+        try {
+          lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+          lockEntry.waited(nanoTime() - start, false);
+          throw e;
+        }
+        lockEntry.waited(nanoTime() - start, true);
+      }
+      acquired = true;
+    } finally {
+      if (!acquired) {
+        release(lockId, lockEntry);
+      }
+    }
+  }
+
+  private boolean tryLockWithoutWaiting(Lock lock) throws InterruptedException {
+    // a timed tryLock honors the fairness of the lock, unlike tryLock()
+    return lock.tryLock(0, NANOSECONDS);
+  }
+
+  /**
+   * @param lockId the id of a lock
+   * @return the statistics of the time spent waiting for the given lock, if it is currently referenced. The statistics of a lock
+   *         are discarded once it is no longer held or waited for.
+   */
+  public Optional<LockStatistics> getStatistics(String lockId) {
+    return ofNullable(locks.get(lockId));
+  }
+
+  private LockEntry reference(String lockId) {
+    return locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
+      }
+      lockEntry.references++;
+      return lockEntry;
+    });
+  }
+
+  private void release(String lockId, LockEntry lockEntry) {
+    locks.computeIfPresent(lockId, (id, current) -> {
+      if (current != lockEntry) {
+        return current;
+      }
+      return --current.references == 0 ? null : current;
+    });
+  }
+
+  @Override
+  public void dispose() {
+    locks.clear();
+  }
+
+  /**
+   * Statistics of the acquisitions of a lock of a {@link StripedLockGroup}.
+   */
+  public interface LockStatistics {
+
+    /**
+     * @return the amount of times the lock was acquired.
+     */
+    long getAcquisitions();
+
+    /**
+     * @return the amount of times the lock was acquired after waiting for another thread to release it.
+     */
+    long getContendedAcquisitions();
+
+    /**
+     * @param unit the unit of the returned value
+     * @return the total time spent waiting for the lock.
+     */
+    long getWaitTime(TimeUnit unit);
+  }
+
+  private static final class LockEntry implements LockStatistics {
+
+    private final Lock lock;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    // only accessed while computing the entry of the lock in the map, which is done atomically
+    private int references;
+
+    private LockEntry(Lock lock) {
+      this.lock = lock;
+    }
+
+    private Lock getLock() {
+      return lock;
+    }
+
+    private void acquired() {
+      acquisitions.increment();
+    }
+
+    private void waited(long nanos, boolean acquired) {
+      waitNanos.add(nanos);
+      if (acquired) {
+        acquisitions.increment();
+        contendedAcquisitions.increment();
+      }
+    }
+
+    @Override
+    public long getAcquisitions() {
+      return acquisitions.sum();
+    }
+
+    @Override
+    public long getContendedAcquisitions() {
+      return contendedAcquisitions.sum();
+    }
+
+    @Override
+    public long getWaitTime(TimeUnit unit) {
+      return unit.convert(waitNanos.sum(), NANOSECONDS);
+    }
+  }
+}
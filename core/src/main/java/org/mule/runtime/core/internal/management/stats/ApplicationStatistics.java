@@ -86,6 +86,17 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (stats instanceof DefaultFlowConstructStatistics && !(stats instanceof ApplicationStatistics)) {
+        histogram.add(((DefaultFlowConstructStatistics) stats).getProcessingTimeHistogram());
+      }
+    }
+    return histogram.getValueAtPercentile(percentile);
+  }
+
   @Override
   public long getExecutionErrors() {
     long total = 0;
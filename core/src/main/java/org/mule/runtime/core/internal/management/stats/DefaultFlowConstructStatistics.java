@@ -6,16 +6,19 @@
  */
 package org.mule.runtime.core.internal.management.stats;
 
+import static org.mule.runtime.core.api.management.stats.ProcessingTime.getEffectiveTime;
+
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatistics {
 
   private static final long serialVersionUID = 5337576392583767442L;
-  private final AtomicLong executionError = new AtomicLong(0);
-  private final AtomicLong fatalError = new AtomicLong(0);
+  private final LongAdder executionError = new LongAdder();
+  private final LongAdder fatalError = new LongAdder();
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
+  protected final LatencyHistogram processingTimeHistogram = new LatencyHistogram();
 
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
     super(flowConstructType, name);
@@ -35,12 +38,12 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
 
   @Override
   public void incExecutionError() {
-    executionError.addAndGet(1);
+    executionError.increment();
   }
 
   @Override
   public void incFatalError() {
-    fatalError.addAndGet(1);
+    fatalError.increment();
   }
 
   /**
@@ -56,16 +59,20 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
   public synchronized void clear() {
     super.clear();
 
-    executionError.set(0);
-    fatalError.set(0);
+    executionError.reset();
+    fatalError.reset();
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
+    if (processingTimeHistogram != null) {
+      processingTimeHistogram.reset();
+    }
   }
 
   @Override
   public void addCompleteFlowExecutionTime(long time) {
     flowStatistics.addCompleteExecutionTime(time);
+    processingTimeHistogram.record(getEffectiveTime(time));
   }
 
   @Override
@@ -98,14 +105,26 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return processingTimeHistogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the histogram of the complete processing time of the events
+   */
+  public LatencyHistogram getProcessingTimeHistogram() {
+    return processingTimeHistogram;
+  }
+
   @Override
   public long getExecutionErrors() {
-    return executionError.get();
+    return executionError.sum();
   }
 
   @Override
   public long getFatalErrors() {
-    return fatalError.get();
+    return fatalError.sum();
   }
 
 }
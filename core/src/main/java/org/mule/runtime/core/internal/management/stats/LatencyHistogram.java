@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent histogram of latencies with a bounded relative error, in the spirit of HdrHistogram.
+ * <p>
+ * Values are counted in log-linear buckets: values below {@value #SUB_BUCKET_COUNT} have a bucket each, and every following
+ * power of two range is split into {@code SUB_BUCKET_COUNT / 2} buckets of the same width, so the value reported for a
+ * percentile is never more than 1/64th away from the recorded one. Values above {@value #MAX_TRACKABLE_VALUE} are counted
+ * in the last bucket.
+ * <p>
+ * Recording a value is a single atomic increment of a preallocated counter, so it neither blocks nor allocates.
+ * Reading a percentile walks the buckets and may observe values being recorded concurrently, which is acceptable for
+ * statistics.
+ *
+ * @since 4.4.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -2360526311446281468L;
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+  /**
+   * The highest value that is tracked with the histogram precision, about 12 days when recording milliseconds.
+   */
+  public static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+
+  private static final int BUCKETS_COUNT = indexFor(MAX_TRACKABLE_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS_COUNT);
+
+  /**
+   * Counts an occurrence of the given value. Negative values are counted as zero.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    counts.incrementAndGet(indexFor(min(max(value, 0), MAX_TRACKABLE_VALUE)));
+  }
+
+  /**
+   * Adds the values recorded in the given histogram to this one.
+   *
+   * @param other the histogram to add
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      long count = other.counts.get(i);
+      if (count != 0) {
+        counts.addAndGet(i, count);
+      }
+    }
+  }
+
+  /**
+   * @return the amount of values recorded since the last {@link #reset()}
+   */
+  public long getTotalCount() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall.
+   *
+   * @param percentile a percentage, between 0 and 100
+   * @return the highest value equivalent to the one at the given percentile, or 0 if nothing was recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+    final long totalCount = getTotalCount();
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    final long countAtPercentile = max(1, (long) ceil(percentile / 100 * totalCount));
+    long count = 0;
+    int lastNonEmpty = 0;
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      long bucketCount = counts.get(i);
+      if (bucketCount != 0) {
+        lastNonEmpty = i;
+        count += bucketCount;
+        if (count >= countAtPercentile) {
+          return highestValueFor(i);
+        }
+      }
+    }
+
+    // values were concurrently reset while iterating
+    return highestValueFor(lastNonEmpty);
+  }
+
+  /**
+   * Discards all the recorded values.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      counts.set(i, 0);
+    }
+  }
+
+  private static int indexFor(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int shift = 64 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+  }
+
+  private static long highestValueFor(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+    final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
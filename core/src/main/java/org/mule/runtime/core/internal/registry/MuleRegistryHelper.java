@@ -215,15 +215,16 @@ public class MuleRegistryHelper implements MuleRegistry {
           results.add(transformer);
         }
       }
+
+      // cached while holding the lock, so that a list computed before a change is not cached after the change clears the cache
+      List<Transformer> concurrentlyAddedTransformers = transformerListCache.putIfAbsent(dataTypePairHash, results);
+      if (concurrentlyAddedTransformers != null) {
+        return concurrentlyAddedTransformers;
+      }
     } finally {
       readLock.unlock();
     }
 
-    List<Transformer> concurrentlyAddedTransformers = transformerListCache.putIfAbsent(dataTypePairHash, results);
-    if (concurrentlyAddedTransformers != null) {
-      return concurrentlyAddedTransformers;
-    }
-
     return results;
   }
 
@@ -258,20 +259,8 @@ public class MuleRegistryHelper implements MuleRegistry {
 
   public void notifyTransformerResolvers(Transformer t, TransformerResolver.RegistryAction action) {
     if (t instanceof Converter) {
-      Lock transformerResolversReadLock = transformerResolversLock.readLock();
-      transformerResolversReadLock.lock();
-      try {
-
-        for (TransformerResolver resolver : transformerResolvers) {
-          resolver.transformerChange(t, action);
-        }
-      } finally {
-        transformerResolversReadLock.unlock();
-      }
-
-      transformerListCache.clear();
-      exactTransformerCache.clear();
-
+      // the transformers are updated before notifying the resolvers, so that a resolution cached while the change is in progress
+      // is always invalidated afterwards
       Lock transformersWriteLock = transformersLock.writeLock();
       transformersWriteLock.lock();
       try {
@@ -280,9 +269,22 @@ public class MuleRegistryHelper implements MuleRegistry {
         } else {
           transformers.remove(t);
         }
+        transformerListCache.clear();
+        exactTransformerCache.clear();
       } finally {
         transformersWriteLock.unlock();
       }
+
+      Lock transformerResolversReadLock = transformerResolversLock.readLock();
+      transformerResolversReadLock.lock();
+      try {
+
+        for (TransformerResolver resolver : transformerResolvers) {
+          resolver.transformerChange(t, action);
+        }
+      } finally {
+        transformerResolversReadLock.unlock();
+      }
     }
   }
 
@@ -20,6 +20,7 @@ import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerResolutionCache;
 import org.mule.runtime.core.internal.transformer.graph.GraphTransformerResolver;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToByteArray;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToString;
@@ -33,8 +34,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.function.BiPredicate;
 
 /**
  * Will discover transformers based on type information only. It looks for transformers that support the source and result types
@@ -53,7 +54,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   private MuleContext muleContext;
 
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap/* <String, Transformer> */(8);
+  private final TransformerResolutionCache resolutionCache = new TransformerResolutionCache();
 
   protected TransformerResolver graphTransformerResolver = new GraphTransformerResolver();
 
@@ -78,11 +79,18 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
   }
 
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    Transformer transformer = exactTransformerCache.get(source.toString() + result.toString());
-    if (transformer != null) {
-      return transformer;
+    Optional<Transformer> cached = resolutionCache.get(source, result);
+    if (cached != null) {
+      return cached.orElse(null);
     }
 
+    final long cacheVersion = resolutionCache.getVersion();
+    Transformer transformer = doResolve(source, result);
+    resolutionCache.put(source, result, transformer, cacheVersion);
+    return transformer;
+  }
+
+  private Transformer doResolve(DataType source, DataType result) throws ResolverException {
     MuleRegistry registry = ((MuleContextWithRegistry) muleContext).getRegistry();
     List<Transformer> trans = registry.lookupTransformers(source, result);
 
@@ -93,7 +101,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       trans.add(compositeTransformer);
     }
 
-    transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
+    Transformer transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
     // If an exact mach is not found, we have a 'second pass' transformer that can be used to converting to String or
     // byte[]
     Transformer secondPass;
@@ -121,9 +129,6 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       }
     }
 
-    if (transformer != null) {
-      exactTransformerCache.put(source.toString() + result.toString(), transformer);
-    }
     return transformer;
   }
 
@@ -170,14 +175,33 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   @Override
   public void dispose() {
-    exactTransformerCache.clear();
+    resolutionCache.invalidateAll();
   }
 
   @Override
   public void transformerChange(Transformer transformer, RegistryAction registryAction) {
     if (transformer instanceof Converter) {
-      graphTransformerResolver.transformerChange(transformer, registryAction);
-      exactTransformerCache.clear();
+      if (graphTransformerResolver instanceof GraphTransformerResolver) {
+        GraphTransformerResolver graphResolver = (GraphTransformerResolver) graphTransformerResolver;
+        BiPredicate<DataType, DataType> affectedResolutions = null;
+        if (registryAction == RegistryAction.REMOVED) {
+          affectedResolutions = graphResolver.affectedResolutions((Converter) transformer);
+        }
+        graphTransformerResolver.transformerChange(transformer, registryAction);
+        if (affectedResolutions == null) {
+          affectedResolutions = graphResolver.affectedResolutions((Converter) transformer);
+        }
+
+        // resolutions to String or byte[] may be done through any converter to Object
+        resolutionCache.invalidate(affectedResolutions.or((source, result) -> isSecondPassResult(result)));
+      } else {
+        graphTransformerResolver.transformerChange(transformer, registryAction);
+        resolutionCache.invalidateAll();
+      }
     }
   }
+
+  private boolean isSecondPassResult(DataType result) {
+    return String.class.equals(result.getType()) || byte[].class.equals(result.getType());
+  }
 }
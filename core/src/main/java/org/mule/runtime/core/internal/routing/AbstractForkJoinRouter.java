@@ -30,6 +30,7 @@ import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
@@ -60,6 +61,9 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   @Inject
   private ErrorTypeRepository errorTypeRepository;
 
+  @Inject
+  private TimerService timerService;
+
   private ForkJoinStrategyFactory forkJoinStrategyFactory;
   private ForkJoinStrategy forkJoinStrategy;
   private long timeout = Long.MAX_VALUE;
@@ -114,7 +118,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     if (targetValue != null) {
       targetValueExpression = compile(targetValue, expressionManager);
     }
-    timeoutScheduler = schedulerService.cpuLightScheduler();
+    timeoutScheduler = timerService.withTimer(schedulerService.cpuLightScheduler());
     timeoutErrorType = errorTypeRepository.getErrorType(TIMEOUT).get();
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
@@ -21,6 +21,7 @@ import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.routing.UntilSuccessfulRouter.RetryContextInitializationException;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
@@ -43,6 +44,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Inject
   private SchedulerService schedulerService;
 
+  @Inject
+  private TimerService timerService;
+
   @Inject
   private ExtendedExpressionManager expressionManager;
 
@@ -64,7 +68,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
     super.initialise();
 
-    timer = schedulerService.cpuLightScheduler();
+    timer = timerService.withTimer(schedulerService.cpuLightScheduler());
     shouldRetry = event -> event.getError().isPresent();
   }
 
@@ -7,17 +7,13 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
-import static java.time.Duration.ofMillis;
-import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
-import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
-import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContextDontComplete;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.addSequence;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.isOriginalError;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.processRoutePair;
 import static reactor.core.Exceptions.propagate;
 import static reactor.core.publisher.Flux.from;
-import static reactor.core.publisher.Mono.defer;
-import static reactor.core.publisher.Mono.error;
-import static reactor.core.publisher.Mono.just;
 
 import org.mule.runtime.api.message.Error;
 import org.mule.runtime.api.message.ErrorType;
@@ -28,11 +24,7 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.core.api.event.CoreEvent;
-import org.mule.runtime.core.api.message.GroupCorrelation;
-import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
-import org.mule.runtime.core.internal.exception.MessagingException;
-import org.mule.runtime.core.internal.message.ErrorBuilder;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
@@ -45,14 +37,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-import org.reactivestreams.Publisher;
-
-import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 /**
@@ -110,10 +98,6 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private boolean isOriginalError(Error newError, Optional<Error> originalError) {
-    return originalError.map(error -> error.equals(newError)).orElse(false);
-  }
-
   private CoreEvent removeOriginalError(CoreEvent event, Optional<Error> originalError) {
     return event.getError().map(err -> isOriginalError(err, originalError) ? CoreEvent.builder(event).error(null).build() : event)
         .orElse(event);
@@ -130,67 +114,6 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
-    return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
-        .build(), pair.getRoute());
-  }
-
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
-
-    return pair -> {
-      ReactiveProcessor route = publisher -> from(publisher)
-          .transform(pair.getRoute());
-      return from(processWithChildContextDontComplete(pair.getEvent(),
-                                                      applyProcessingStrategy(processingStrategy, route, maxConcurrency),
-                                                      empty()))
-                                                          .timeout(ofMillis(timeout),
-                                                                   onTimeout(processingStrategy, delayErrors, timeoutErrorType,
-                                                                             pair),
-                                                                   timeoutScheduler)
-                                                          .onErrorResume(MessagingException.class,
-                                                                         me -> delayErrors ? just(me.getEvent()) : error(me))
-
-      ;
-    };
-  }
-
-  private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
-                                    RoutingPair pair) {
-    return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
-        : error(new TimeoutException(buildDetailedDescription(pair))))
-            .transform(processingStrategy.onPipeline(p -> p));
-  }
-
-  private ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
-                                                    int maxConcurrency) {
-    if (maxConcurrency > 1) {
-      return processingStrategy.onPipeline(processor);
-    } else {
-      return processor;
-    }
-  }
-
-  private CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
-    final String detailedDescription = buildDetailedDescription(pair);
-
-    return builder(pair.getEvent()).message(Message.of(null))
-        .error(ErrorBuilder.builder().errorType(timeoutErrorType)
-            .exception(new TimeoutException(detailedDescription))
-            .description(TIMEOUT_EXCEPTION_DESCRIPTION)
-            .detailedDescription(detailedDescription)
-            .build())
-        .build();
-  }
-
-  private String buildDetailedDescription(RoutingPair pair) {
-    return TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX + " '"
-        + pair.getEvent().getGroupCorrelation().get().getSequence() + "'";
-  }
-
   private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
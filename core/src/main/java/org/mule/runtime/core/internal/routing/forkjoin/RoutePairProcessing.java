@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Optional.empty;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.TIMEOUT_EXCEPTION_DESCRIPTION;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContextDontComplete;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.just;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.message.ErrorBuilder;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Processing of the {@link RoutingPair}s of a fork-join router, shared by the fork-join strategies which collect the results of
+ * the routes and the ones which stream them.
+ *
+ * @since 4.4.0
+ */
+final class RoutePairProcessing {
+
+  private RoutePairProcessing() {
+    // Nothing to do
+  }
+
+  /**
+   * @param newError      an error of the result of a route
+   * @param originalError the error of the event that was routed, if any
+   * @return whether the error of the route is the one the event already had before being routed
+   */
+  static boolean isOriginalError(Error newError, Optional<Error> originalError) {
+    return originalError.map(error -> error.equals(newError)).orElse(false);
+  }
+
+  /**
+   * @param count the counter of the routes of an event
+   * @return a function that sets the sequence of each route into the {@link GroupCorrelation} of its event
+   */
+  static Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+    return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
+        .build(), pair.getRoute());
+  }
+
+  /**
+   * Creates the function that processes each route, applying the timeout and the error handling behavior to it.
+   *
+   * @return a function that processes a route and provides its result event
+   */
+  static Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
+                                                                              int maxConcurrency,
+                                                                              boolean delayErrors, long timeout,
+                                                                              reactor.core.scheduler.Scheduler timeoutScheduler,
+                                                                              ErrorType timeoutErrorType) {
+
+    return pair -> {
+      ReactiveProcessor route = publisher -> from(publisher)
+          .transform(pair.getRoute());
+      return from(processWithChildContextDontComplete(pair.getEvent(),
+                                                      applyProcessingStrategy(processingStrategy, route, maxConcurrency),
+                                                      empty()))
+                                                          .timeout(ofMillis(timeout),
+                                                                   onTimeout(processingStrategy, delayErrors, timeoutErrorType,
+                                                                             pair),
+                                                                   timeoutScheduler)
+                                                          .onErrorResume(MessagingException.class,
+                                                                         me -> delayErrors ? just(me.getEvent()) : error(me))
+
+      ;
+    };
+  }
+
+  private static Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors,
+                                           ErrorType timeoutErrorType, RoutingPair pair) {
+    return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
+        : error(new TimeoutException(buildDetailedDescription(pair))))
+            .transform(processingStrategy.onPipeline(p -> p));
+  }
+
+  private static ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
+                                                           int maxConcurrency) {
+    if (maxConcurrency > 1) {
+      return processingStrategy.onPipeline(processor);
+    } else {
+      return processor;
+    }
+  }
+
+  private static CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
+    final String detailedDescription = buildDetailedDescription(pair);
+
+    return builder(pair.getEvent()).message(Message.of(null))
+        .error(ErrorBuilder.builder().errorType(timeoutErrorType)
+            .exception(new TimeoutException(detailedDescription))
+            .description(TIMEOUT_EXCEPTION_DESCRIPTION)
+            .detailedDescription(detailedDescription)
+            .build())
+        .build();
+  }
+
+  private static String buildDetailedDescription(RoutingPair pair) {
+    return TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX + " '"
+        + pair.getEvent().getGroupCorrelation().get().getSequence() + "'";
+  }
+}
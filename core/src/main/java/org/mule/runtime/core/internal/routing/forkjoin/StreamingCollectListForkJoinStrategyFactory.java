@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.addSequence;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.isOriginalError;
+import static org.mule.runtime.core.internal.routing.forkjoin.RoutePairProcessing.processRoutePair;
+import static org.mule.runtime.core.privileged.util.EventUtils.getRoot;
+import static reactor.core.publisher.Flux.defer;
+import static reactor.core.publisher.Flux.empty;
+import static reactor.core.publisher.Flux.error;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.just;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}.
+ * <li>Emits the result {@link CoreEvent} right away, without waiting for the routes to complete.
+ * <li>Streams the results of the routes into the result {@link CoreEvent} as a repeatable {@link CursorIteratorProvider} of
+ * {@link Message}s, in the order the routes complete.
+ * <li>Does not merge variables, since the result event is emitted before the routes complete.
+ * <li>Starts processing the routes when the result event is created, whether its payload is consumed or not, buffering at most
+ * {@code maxConcurrency} results not yet consumed. The remaining routes are processed as those results are consumed.
+ * <li>Fails the iteration when a route fails, or at its end with a composite exception with the errors of all the failed
+ * routes if errors are delayed.
+ * </ul>
+ * A component consuming the results blocks its thread until the result of the next route is available, for up to the timeout of
+ * the router. The results should therefore not be consumed in a {@code CPU_LITE} thread, as routes may need one of those
+ * threads to make progress.
+ *
+ * @since 4.4.0
+ */
+public class StreamingCollectListForkJoinStrategyFactory implements ForkJoinStrategyFactory {
+
+  private static final DataType RESULT_DATA_TYPE = DataType.builder().streamType(Iterator.class).itemType(Message.class).build();
+
+  // bounds the results buffered when routes are processed with unbounded concurrency
+  private static final int MAX_PREFETCH = 256;
+
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+
+  /**
+   * Creates a new instance
+   *
+   * @param cursorProviderFactory the factory of the repeatable iterators with the results, for instance the default one of the
+   *                              {@link org.mule.runtime.core.api.streaming.StreamingManager}.
+   */
+  public StreamingCollectListForkJoinStrategyFactory(CursorIteratorProviderFactory cursorProviderFactory) {
+    this.cursorProviderFactory = cursorProviderFactory;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    final int prefetch = max(1, min(maxConcurrency, MAX_PREFETCH));
+    return (original, routingPairs) -> {
+      final AtomicInteger count = new AtomicInteger();
+      final Map<String, Error> failures = new LinkedHashMap<>();
+      final Publisher<Message> results = from(routingPairs)
+          .map(addSequence(count))
+          .flatMap(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                                    timeoutErrorType),
+                   maxConcurrency)
+          .filter(event -> {
+            // Failures are only reported once all the routes are completed, as the results of other routes are still streamed
+            if (event.getError().map(err -> !isOriginalError(err, original.getError())).orElse(false)) {
+              failures.put(Integer.toString(event.getGroupCorrelation().get().getSequence()), event.getError().get());
+              return false;
+            }
+            return true;
+          })
+          .map(CoreEvent::getMessage)
+          .concatWith(defer(() -> failuresOf(failures)));
+
+      return Mono.defer(() -> {
+        RouteResultsIterator resultsIterator = new RouteResultsIterator(prefetch, timeout);
+        // the routes are processed even if the payload is never consumed, their results are kept until it is
+        results.subscribe(resultsIterator);
+        Object payload = cursorProviderFactory.of(getRoot(original.getContext()), resultsIterator);
+        return just(builder(original).message(Message.builder().payload(new TypedValue<>(payload, RESULT_DATA_TYPE)).build())
+            .build());
+      });
+    };
+  }
+
+  private Publisher<Message> failuresOf(Map<String, Error> failures) {
+    return failures.isEmpty() ? empty() : error(new CompositeRoutingException(new RoutingResult(emptyMap(), failures)));
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return RESULT_DATA_TYPE;
+  }
+
+  /**
+   * Blocking {@link Iterator} over the results of the routes, which requests a new result each time one is consumed. Waiting
+   * for a result fails once the timeout of the router elapses.
+   */
+  private static final class RouteResultsIterator implements Iterator<Message>, Subscriber<Message>, Closeable {
+
+    private static final Object COMPLETE = new Object();
+
+    private final int prefetch;
+    private final long timeoutNanos;
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+    private volatile Subscription subscription;
+    private volatile boolean closed;
+    private Object next;
+
+    private RouteResultsIterator(int prefetch, long timeout) {
+      this.prefetch = prefetch;
+      this.timeoutNanos = MILLISECONDS.toNanos(timeout);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed) {
+        return false;
+      }
+      if (next == null) {
+        next = awaitNext();
+      }
+
+      if (next == COMPLETE) {
+        return false;
+      } else if (next instanceof Throwable) {
+        Throwable error = (Throwable) next;
+        // the error is not cleared, so that it is thrown again if the iterator is used further
+        throw error instanceof RuntimeException ? (RuntimeException) error : new MuleRuntimeException(error);
+      }
+      return true;
+    }
+
+    private Object awaitNext() {
+      Object signal;
+      try {
+        signal = signals.poll(timeoutNanos, NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting for the result of a route"), e);
+      }
+
+      if (signal == null) {
+        // the routes still being processed are not awaited any more, but the iterator is left open to report the timeout again
+        cancelSubscription();
+        return new MuleRuntimeException(createStaticMessage("Timeout while waiting for the result of a route"),
+                                        new TimeoutException());
+      }
+      return signal;
+    }
+
+    @Override
+    public Message next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Message message = (Message) next;
+      next = null;
+      subscription.request(1);
+      return message;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      if (closed) {
+        subscription.cancel();
+      } else {
+        subscription.request(prefetch);
+      }
+    }
+
+    @Override
+    public void onNext(Message message) {
+      signals.offer(message);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      signals.offer(error);
+    }
+
+    @Override
+    public void onComplete() {
+      signals.offer(COMPLETE);
+    }
+
+    @Override
+    public void close() {
+      // the routes not yet started are not processed if the results are no longer needed
+      closed = true;
+      cancelSubscription();
+      signals.clear();
+    }
+
+    private void cancelSubscription() {
+      Subscription currentSubscription = subscription;
+      if (currentSubscription != null) {
+        currentSubscription.cancel();
+      }
+    }
+  }
+}
@@ -6,11 +6,15 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.LOG_STRUCTURED_PARTITIONS_PROPERTY;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
 import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.component.InternalComponent;
@@ -18,6 +22,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -83,11 +88,41 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
 
   private void createPartition(String partitionName) throws ObjectStoreException {
     PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+        newPartition(partitionName, getNewPartitionDirectory(partitionName));
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
 
+  /**
+   * Creates a new partition.
+   *
+   * @param partitionName      the name of the partition
+   * @param partitionDirectory the directory in which the partition stores its data
+   * @return a new {@link PersistentObjectStorePartition}
+   * @since 4.4.0
+   */
+  protected PersistentObjectStorePartition newPartition(String partitionName, File partitionDirectory) {
+    if (getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY)) {
+      return new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory);
+    }
+    return new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
+  /**
+   * Creates a partition from the data previously stored in the given directory.
+   *
+   * @param partitionDirectory the directory in which the partition stored its data
+   * @return a {@link PersistentObjectStorePartition} that can read the data in the directory
+   * @throws ObjectStoreNotAvailableException if the partition descriptor could not be read
+   * @since 4.4.0
+   */
+  protected PersistentObjectStorePartition restorePartition(File partitionDirectory) throws ObjectStoreNotAvailableException {
+    if (isLogStructuredPartition(partitionDirectory)) {
+      return new LogStructuredObjectStorePartition(muleContext, partitionDirectory);
+    }
+    return new PersistentObjectStorePartition(muleContext, partitionDirectory);
+  }
+
   private File getNewPartitionDirectory(String partitionName) {
     return new File(storeDirectory, getPartitionDirectoryName(partitionName));
   }
@@ -191,8 +226,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        PersistentObjectStorePartition persistentObjectStorePartition = restorePartition(partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
@@ -79,6 +79,15 @@ public class SharedPartitionedPersistentObjectStore<T extends Serializable> exte
     return new PersistentObjectStorePartition<>(muleContext, partitionName, partitionObjectStore.getPartitionDirectory());
   }
 
+  /**
+   * Partitions of this store are always created with one file per entry, since they are reopened by each
+   * {@link org.mule.runtime.core.api.MuleContext} that accesses them.
+   */
+  @Override
+  protected PersistentObjectStorePartition newPartition(String partitionName, File partitionDirectory) {
+    return new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
   @Override
   public void open() throws ObjectStoreException {
     lock.lock();
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.component.InternalComponent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory {@link PartitionableExpirableObjectStore} optimized for stores with high write rates which are
+ * concurrently expired.
+ * <p>
+ * Each partition keeps its entries in a concurrent map, so that lookups never block. Entries are also linked in insertion
+ * order into one of several stripes, chosen by the hash of their key. Each stripe has its own lock, which is only
+ * acquired to link or unlink an entry, so removals take constant time and writes on different stripes never contend.
+ * <p>
+ * Expiration walks each stripe from its oldest entry, releasing the stripe lock every few entries, so producers are never
+ * stalled for long. Entries are expired by TTL in insertion order. When the partition exceeds its max entries, the oldest
+ * entries of each stripe are evicted, giving a second chance to the ones which were retrieved since the last expiration
+ * (an approximation of LRU).
+ *
+ * @param <T> the serializable entity to be stored
+ * @since 4.4.0
+ */
+public class StripedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, InternalComponent {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StripedInMemoryObjectStore.class);
+
+  private static final int EXPIRATION_BATCH_SIZE = 256;
+  private static final int EVICTION_CANDIDATES = 8;
+
+  private final int stripesCount = highestOneBit(max(1, getRuntime().availableProcessors())) * 4;
+  private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean isPersistent() {
+    return false;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.get(partitionName);
+    return partition != null && partition.entries.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    Partition partition = getPartition(partitionName);
+    Entry<T> entry = new Entry<>(key, value, getCurrentNanoTime());
+    if (partition.entries.putIfAbsent(key, entry) != null) {
+      throw new ObjectAlreadyExistsException();
+    }
+    partition.stripeFor(key).link(entry);
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    Entry<T> entry = getPartition(partitionName).entries.get(key);
+    if (entry == null) {
+      throw new ObjectDoesNotExistException();
+    }
+
+    // avoid writing into a shared cache line when not needed
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    return entry.value;
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    Partition partition = getPartition(partitionName);
+    Entry<T> entry = partition.entries.remove(key);
+    if (entry == null) {
+      throw new ObjectDoesNotExistException();
+    }
+    partition.stripeFor(key).unlink(entry);
+
+    return entry.value;
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return new ArrayList<>(getPartition(partitionName).entries.keySet());
+  }
+
+  @Override
+  public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
+    Map<String, Entry<T>> entries = getPartition(partitionName).entries;
+    Map<String, T> values = new LinkedHashMap<>(entries.size());
+    entries.forEach((key, entry) -> values.put(key, entry.value));
+    return values;
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.get(partitionName);
+    if (partition != null) {
+      for (Stripe stripe : partition.stripes) {
+        stripe.clear(partition.entries);
+      }
+    }
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    return new ArrayList<>(partitions.keySet());
+  }
+
+  private Partition getPartition(String partitionName) {
+    return partitions.computeIfAbsent(partitionName, name -> new Partition());
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    // Nothing to do
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {
+    disposePartition(partitionName);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.get(partitionName);
+    if (partition == null) {
+      return;
+    }
+
+    int expiredEntries = 0;
+    if (maxEntries != UNBOUNDED) {
+      final int total = partition.entries.size();
+      final int excess = total - maxEntries;
+      if (excess > 0) {
+        expiredEntries += evict(partition, excess, total);
+      }
+    }
+
+    if (entryTTL != UNBOUNDED) {
+      final long expirationTime = getCurrentNanoTime() - MILLISECONDS.toNanos(entryTTL);
+      for (Stripe stripe : partition.stripes) {
+        expiredEntries += stripe.expire(expirationTime, partition.entries);
+      }
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired " + expiredEntries + " entries");
+    }
+  }
+
+  private int evict(Partition partition, int excess, int total) {
+    // each stripe gives up a share of the excess proportional to its size
+    int evicted = 0;
+    for (Stripe stripe : partition.stripes) {
+      evicted += stripe.evict((int) ((long) excess * stripe.size / total), partition.entries);
+    }
+
+    // the rounding leftovers are taken from the stripes which hold the oldest eviction candidates
+    while (evicted < excess) {
+      Stripe oldest = null;
+      long oldestCreationTime = Long.MAX_VALUE;
+      for (Stripe stripe : partition.stripes) {
+        long creationTime = stripe.victimCreationTime();
+        if (creationTime < oldestCreationTime) {
+          oldest = stripe;
+          oldestCreationTime = creationTime;
+        }
+      }
+
+      if (oldest == null || oldest.evict(1, partition.entries) == 0) {
+        break;
+      }
+      evicted++;
+    }
+
+    return evicted;
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.remove(partitionName);
+    if (partition != null) {
+      for (Stripe stripe : partition.stripes) {
+        stripe.clear(partition.entries);
+      }
+    }
+  }
+
+  protected long getCurrentNanoTime() {
+    return System.nanoTime();
+  }
+
+  private class Partition {
+
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Stripe[] stripes = new StripedInMemoryObjectStore.Stripe[stripesCount];
+
+    private Partition() {
+      for (int i = 0; i < stripesCount; i++) {
+        stripes[i] = new Stripe();
+      }
+    }
+
+    private Stripe stripeFor(String key) {
+      int hash = key.hashCode();
+      return stripes[(hash ^ (hash >>> 16)) & (stripesCount - 1)];
+    }
+  }
+
+  /**
+   * A list of entries in insertion order, guarded by its own lock
+   */
+  private class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Entry<T> head;
+    private Entry<T> tail;
+    private volatile int size;
+
+    private void link(Entry<T> entry) {
+      lock.lock();
+      try {
+        // the entry may have been removed before getting here
+        if (entry.removed) {
+          return;
+        }
+
+        entry.previous = tail;
+        if (tail == null) {
+          head = entry;
+        } else {
+          tail.next = entry;
+        }
+        tail = entry;
+        entry.linked = true;
+        size++;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void unlink(Entry<T> entry) {
+      lock.lock();
+      try {
+        doUnlink(entry);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void doUnlink(Entry<T> entry) {
+      entry.removed = true;
+      if (!entry.linked) {
+        return;
+      }
+
+      if (entry.previous == null) {
+        head = entry.next;
+      } else {
+        entry.previous.next = entry.next;
+      }
+      if (entry.next == null) {
+        tail = entry.previous;
+      } else {
+        entry.next.previous = entry.previous;
+      }
+      entry.previous = null;
+      entry.next = null;
+      entry.linked = false;
+      size--;
+    }
+
+    /**
+     * Removes the entries created before the given time
+     */
+    private int expire(long expirationTime, ConcurrentMap<String, Entry<T>> entries) {
+      int expired = 0;
+      boolean done = false;
+      while (!done) {
+        lock.lock();
+        try {
+          for (int i = 0; i < EXPIRATION_BATCH_SIZE; i++) {
+            if (head == null || head.creationTime > expirationTime) {
+              done = true;
+              break;
+            }
+            remove(head, entries);
+            expired++;
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+
+      return expired;
+    }
+
+    /**
+     * Removes up to the given amount of entries, starting from the oldest ones. Within a small window of the oldest
+     * entries, the ones which were not retrieved since the last eviction are removed first.
+     */
+    private int evict(int count, ConcurrentMap<String, Entry<T>> entries) {
+      int evicted = 0;
+      while (evicted < count) {
+        lock.lock();
+        try {
+          for (int i = 0; i < EXPIRATION_BATCH_SIZE && evicted < count && head != null; i++) {
+            Entry<T> victim = head;
+            Entry<T> candidate = head;
+            for (int j = 0; j < EVICTION_CANDIDATES && candidate != null; j++) {
+              if (!candidate.referenced) {
+                victim = candidate;
+                break;
+              }
+              candidate.referenced = false;
+              candidate = candidate.next;
+            }
+
+            remove(victim, entries);
+            evicted++;
+          }
+
+          if (head == null) {
+            break;
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+
+      return evicted;
+    }
+
+    /**
+     * @return the creation time of the entry that would be evicted next from this stripe, {@code Long.MAX_VALUE - 1} if
+     *         all its eviction candidates were retrieved or {@link Long#MAX_VALUE} if the stripe is empty
+     */
+    private long victimCreationTime() {
+      lock.lock();
+      try {
+        if (head == null) {
+          return Long.MAX_VALUE;
+        }
+
+        Entry<T> candidate = head;
+        for (int j = 0; j < EVICTION_CANDIDATES && candidate != null; j++) {
+          if (!candidate.referenced) {
+            return candidate.creationTime;
+          }
+          candidate = candidate.next;
+        }
+        // all the candidates were recently retrieved, so this stripe is the last one to evict from
+        return Long.MAX_VALUE - 1;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(Entry<T> entry, ConcurrentMap<String, Entry<T>> entries) {
+      doUnlink(entry);
+      entries.remove(entry.key, entry);
+    }
+
+    private void clear(ConcurrentMap<String, Entry<T>> entries) {
+      lock.lock();
+      try {
+        while (head != null) {
+          remove(head, entries);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private static class Entry<T> {
+
+    private final String key;
+    private final T value;
+    private final long creationTime;
+    private volatile boolean referenced = false;
+
+    // guarded by the lock of the stripe
+    private Entry<T> previous;
+    private Entry<T> next;
+    private boolean linked = false;
+    private boolean removed = false;
+
+    private Entry(String key, T value, long creationTime) {
+      this.key = key;
+      this.value = value;
+      this.creationTime = creationTime;
+    }
+  }
+}
@@ -8,7 +8,9 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.interrupted;
+import static java.lang.Math.min;
 import static org.mule.runtime.api.util.Preconditions.checkState;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
@@ -30,11 +32,13 @@ import org.slf4j.Logger;
 public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer implements InputStreamBuffer {
 
   private static final Logger LOGGER = getLogger(AbstractInputStreamBuffer.class);
+  private static final int TRANSFER_BUFFER_SIZE = DEFAULT_BUFFER_BUCKET_SIZE;
 
   protected final InputStream stream;
   protected final ByteBufferManager bufferManager;
 
   protected boolean streamFullyConsumed = false;
+  private ByteBuffer transferBuffer;
 
   /**
    * Creates a new instance
@@ -96,6 +100,10 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract ByteBuffer doGet(long position, int length);
 
   protected int consumeStream(ByteBuffer buffer) throws IOException {
+    if (!buffer.hasArray()) {
+      return consumeStreamIntoDirectBuffer(buffer);
+    }
+
     final byte[] dest = buffer.array();
 
     int totalRead = 0;
@@ -150,5 +158,36 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
     return totalRead;
   }
 
+  /**
+   * Consumes the stream into a {@link ByteBuffer} which is not backed by an accessible array, such as a direct buffer.
+   * The data is transferred through an intermediate heap array, which is reused by all the invocations on this buffer.
+   */
+  private int consumeStreamIntoDirectBuffer(ByteBuffer buffer) throws IOException {
+    if (transferBuffer == null) {
+      transferBuffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+    }
+
+    int totalRead = 0;
+    while (buffer.hasRemaining()) {
+      transferBuffer.clear();
+      transferBuffer.limit(min(buffer.remaining(), TRANSFER_BUFFER_SIZE));
+
+      final int read = consumeStream(transferBuffer);
+      if (read == -1) {
+        return totalRead == 0 ? -1 : totalRead;
+      }
+
+      transferBuffer.flip();
+      buffer.put(transferBuffer);
+      totalRead += read;
+
+      if (read == 0 || streamFullyConsumed || stream.available() < 1) {
+        break;
+      }
+    }
+
+    return totalRead;
+  }
+
   protected abstract ByteBuffer copy(long position, int length);
 }
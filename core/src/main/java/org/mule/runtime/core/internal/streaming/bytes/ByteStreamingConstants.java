@@ -6,12 +6,14 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
 import static org.mule.runtime.api.util.DataUnit.KB;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_BUCKET_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_BUFFER_POOL_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_HEAP_PERCENTAGE;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 
 /**
  * Constants around byte streaming
@@ -39,6 +41,35 @@ public final class ByteStreamingConstants {
    */
   public static final int DEFAULT_BUFFER_POOL_SIZE = getInteger(MULE_STREAMING_MAX_BUFFER_POOL_SIZE, 2048);
 
+  /**
+   * System property to make in memory repeatable streams use a {@link SegmentedInMemoryStreamBuffer} instead of a
+   * {@link InMemoryStreamBuffer}
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_STREAMING_SEGMENTED_BUFFER = SYSTEM_PROPERTY_PREFIX + "streaming.segmentedBuffer";
+
+  /**
+   * Whether in memory repeatable streams should use a {@link SegmentedInMemoryStreamBuffer}
+   *
+   * @since 4.4.0
+   */
+  public static final boolean USE_SEGMENTED_BUFFER = getBoolean(MULE_STREAMING_SEGMENTED_BUFFER);
+
+  /**
+   * The amount of buffers that each thread keeps cached when using a {@link ThreadCachingByteBufferManager}
+   *
+   * @since 4.4.0
+   */
+  public static final int DEFAULT_BUFFER_MAGAZINE_SIZE = getInteger(SYSTEM_PROPERTY_PREFIX + "streaming.bufferMagazineSize", 8);
+
+  /**
+   * System property to make the {@link ThreadCachingByteBufferManager} allocate direct buffers instead of heap ones
+   *
+   * @since 4.4.0
+   */
+  public static final String MULE_STREAMING_DIRECT_BUFFERS = SYSTEM_PROPERTY_PREFIX + "streaming.directBuffers";
+
   private static double getMaxStreamingMemoryPercentage() {
     String v = getProperty(MULE_STREAMING_MAX_HEAP_PERCENTAGE);
     return v != null ? Double.valueOf(v) : 0.7;
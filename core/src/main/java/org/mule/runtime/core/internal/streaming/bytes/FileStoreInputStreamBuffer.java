@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which keeps a bounded amount of data in memory and spills
+ * the rest of the stream into a temporal file.
+ * <p>
+ * The first {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes of the stream are kept in fixed size
+ * buckets obtained from the {@link ByteBufferManager}. Because buckets are never expanded nor relocated, the data
+ * they hold is handed to the cursors without copying it.
+ * <p>
+ * Any data beyond that threshold is written into a temporal file which is memory mapped in fixed size segments.
+ * Reads on that region are served as slices of the mapped segments, so they don't consume heap memory nor
+ * require copying the data. The file is only created if the stream actually exceeds the in memory threshold, and it
+ * is deleted when this buffer is closed.
+ *
+ * @since 4.4.0
+ */
+public class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final Logger LOGGER = getLogger(FileStoreInputStreamBuffer.class);
+  private static final int MAX_FILE_SEGMENT_SIZE = MB.toBytes(16);
+
+  private final int bucketSize;
+  private final long maxInMemorySize;
+  private final int fileSegmentSize;
+  private final List<ManagedByteBufferWrapper> memoryBuckets;
+  private final List<MappedByteBuffer> fileSegments = new ArrayList<>();
+
+  private ManagedByteBufferWrapper spillBuffer;
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all the in memory buckets
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    bucketSize = config.getBucketSize();
+    maxInMemorySize = config.getMaxInMemorySize().toBytes();
+    fileSegmentSize = bucketSize * max(1, MAX_FILE_SEGMENT_SIZE / bucketSize);
+    memoryBuckets = new ArrayList<>(config.getBucketsCount());
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      readLock.unlock();
+      writeLock.lock();
+
+      try {
+        ByteBuffer refetch = getFromCurrentData(position, length);
+        if (refetch != null) {
+          return refetch;
+        }
+
+        final long requiredUpperBound = position + length;
+        while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+          if (consumeForwardData() > 0) {
+            refetch = getFromCurrentData(position, length);
+            if (refetch != null) {
+              return refetch;
+            }
+          }
+        }
+
+        return getFromCurrentData(position, length);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+      } finally {
+        // classic lock downgrade
+        readLock.lock();
+        writeLock.unlock();
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    return copy(position, (int) min(length, bufferTip - position));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is written into the in memory buckets until the configured threshold is reached. From then on, it is
+   * written into the buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    return bufferTip < maxInMemorySize ? consumeIntoMemory() : consumeIntoFile();
+  }
+
+  private int consumeIntoMemory() throws IOException {
+    final int bucketIndex = toIntExact(bufferTip / bucketSize);
+    final ManagedByteBufferWrapper bucket;
+    if (bucketIndex < memoryBuckets.size()) {
+      bucket = memoryBuckets.get(bucketIndex);
+    } else {
+      bucket = bufferManager.allocateManaged(bucketSize);
+      memoryBuckets.add(bucket);
+    }
+
+    ByteBuffer buffer = bucket.getDelegate();
+    buffer.limit(bucketSize);
+    buffer.position(toIntExact(bufferTip % bucketSize));
+
+    final int read = consumeStream(buffer);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private int consumeIntoFile() throws IOException {
+    final long fileOffset = bufferTip - maxInMemorySize;
+    final MappedByteBuffer segment = getFileSegment(toIntExact(fileOffset / fileSegmentSize));
+    final int segmentOffset = toIntExact(fileOffset % fileSegmentSize);
+
+    if (spillBuffer == null) {
+      spillBuffer = bufferManager.allocateManaged(bucketSize);
+    }
+
+    ByteBuffer buffer = spillBuffer.getDelegate();
+    buffer.clear();
+    buffer.limit(min(bucketSize, fileSegmentSize - segmentOffset));
+
+    final int read = consumeStream(buffer);
+    if (read > 0) {
+      buffer.flip();
+      ByteBuffer target = segment.duplicate();
+      target.position(segmentOffset);
+      target.put(buffer);
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private MappedByteBuffer getFileSegment(int segmentIndex) throws IOException {
+    if (segmentIndex < fileSegments.size()) {
+      return fileSegments.get(segmentIndex);
+    }
+
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream");
+      randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+      fileChannel = randomAccessFile.getChannel();
+    }
+
+    MappedByteBuffer segment = fileChannel.map(READ_WRITE, (long) segmentIndex * fileSegmentSize, fileSegmentSize);
+    fileSegments.add(segment);
+
+    return segment;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer is a read only view over the buffered data. Its content never changes since buffered
+   * data is immutable, so there's no need to copy it.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < maxInMemorySize) {
+      final int offset = toIntExact(position % bucketSize);
+      return slice(memoryBuckets.get(toIntExact(position / bucketSize)).getDelegate(), offset,
+                   min(length, bucketSize - offset));
+    }
+
+    final long fileOffset = position - maxInMemorySize;
+    final int offset = toIntExact(fileOffset % fileSegmentSize);
+    return slice(fileSegments.get(toIntExact(fileOffset / fileSegmentSize)), offset, min(length, fileSegmentSize - offset));
+  }
+
+  private ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer view = buffer.asReadOnlyBuffer();
+    view.limit(offset + length);
+    view.position(offset);
+
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    memoryBuckets.forEach(ManagedByteBufferWrapper::release);
+    memoryBuckets.clear();
+
+    if (spillBuffer != null) {
+      spillBuffer.release();
+      spillBuffer = null;
+    }
+
+    fileSegments.clear();
+    if (fileChannel != null) {
+      try {
+        randomAccessFile.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close buffer file " + bufferFile.getAbsolutePath(), e);
+      } finally {
+        fileChannel = null;
+        if (!deleteQuietly(bufferFile)) {
+          bufferFile.deleteOnExit();
+        }
+      }
+    }
+  }
+}
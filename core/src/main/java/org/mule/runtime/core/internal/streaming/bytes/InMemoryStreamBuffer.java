@@ -204,7 +204,16 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private ByteBuffer softCopy(long position, int length) {
     final int offset = toIntExact(position);
-    return wrap(actingBuffer.array(), offset, min(length, actingBuffer.limit() - offset)).slice();
+    length = min(length, actingBuffer.limit() - offset);
+
+    if (actingBuffer.hasArray()) {
+      return wrap(actingBuffer.array(), offset, length).slice();
+    }
+
+    ByteBuffer view = actingBuffer.duplicate();
+    view.position(offset);
+    view.limit(offset + length);
+    return view.slice();
   }
 
   protected ByteBuffer hardCopy(long position, int length) {
@@ -212,7 +221,13 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
     length = min(length, actingBuffer.limit() - offset);
 
     byte[] b = new byte[length];
-    arraycopy(actingBuffer.array(), offset, b, 0, length);
+    if (actingBuffer.hasArray()) {
+      arraycopy(actingBuffer.array(), offset, b, 0, length);
+    } else {
+      ByteBuffer view = actingBuffer.duplicate();
+      view.position(offset);
+      view.get(b);
+    }
     return wrap(b);
   }
 
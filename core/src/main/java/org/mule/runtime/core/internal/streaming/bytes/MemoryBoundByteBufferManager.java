@@ -68,11 +68,10 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
    * @throws MaxStreamingMemoryExceededException if the memory cap is exceeded by this operation
    */
   protected final ByteBuffer allocateIfFits(int capacity) {
-    if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
-      return ByteBuffer.allocate(capacity);
+    if (tryReserveMemory(capacity)) {
+      return createBuffer(capacity);
     }
 
-    streamingMemory.addAndGet(-capacity);
     throw new MaxStreamingMemoryExceededException(createStaticMessage(
                                                                       format("Max streaming memory limit of %d bytes was exceeded",
                                                                              maxStreamingMemory)));
@@ -112,6 +111,37 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
     streamingMemory.addAndGet(-byteBuffer.capacity());
   }
 
+  /**
+   * Tries to account for {@code capacity} more bytes of streaming memory. The counter is only updated if the reservation fits,
+   * so that concurrent reservations never exceed the memory cap, not even transiently.
+   *
+   * @param capacity the amount of bytes to reserve
+   * @return {@code true} if the reservation fits into the memory cap. {@code false} otherwise, in which case nothing
+   *         is reserved
+   */
+  private boolean tryReserveMemory(int capacity) {
+    long current;
+    do {
+      current = streamingMemory.get();
+      if (current + capacity > maxStreamingMemory) {
+        return false;
+      }
+    } while (!streamingMemory.compareAndSet(current, current + capacity));
+
+    return true;
+  }
+
+  /**
+   * Creates the actual {@link ByteBuffer} once its memory has been reserved. Heap buffers are created by default.
+   *
+   * @param capacity the buffer's capacity
+   * @return a new {@link ByteBuffer}
+   * @since 4.4.0
+   */
+  protected ByteBuffer createBuffer(int capacity) {
+    return ByteBuffer.allocate(capacity);
+  }
+
   private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
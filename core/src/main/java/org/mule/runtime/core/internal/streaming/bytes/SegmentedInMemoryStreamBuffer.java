@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the buffered information in memory, using
+ * fixed size segments.
+ * <p>
+ * Unlike {@link InMemoryStreamBuffer}, this buffer never expands nor copies the data it already holds. The first
+ * segment has a capacity of {@link InMemoryCursorStreamConfig#getInitialBufferSize()} and each following one
+ * has a capacity of {@link InMemoryCursorStreamConfig#getBufferSizeIncrement()}. Segments are leased from the
+ * {@link ByteBufferManager} as the stream is consumed, up to {@link InMemoryCursorStreamConfig#getMaxBufferSize()}
+ * bytes. Once that threshold is reached, a {@link StreamingBufferSizeExceededException} is thrown.
+ * <p>
+ * Because data that was already buffered never changes, reads on that region are served without any locking and
+ * without copying. The amount of buffered data is published through a volatile high-water mark, which is only
+ * updated after the segment containing the new data has been made visible. Only reads which go beyond that mark
+ * need to acquire the write lock in order to consume more data from the stream.
+ *
+ * @since 4.4.0
+ */
+public class SegmentedInMemoryStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int STREAM_FINISHED_PROBE = 10;
+  private static final int INITIAL_SEGMENTS_COUNT = 8;
+
+  private final int initialSegmentSize;
+  private final int segmentSizeIncrement;
+  private final long maxBufferSize;
+
+  private volatile Segment[] segments = new Segment[INITIAL_SEGMENTS_COUNT];
+  private volatile long bufferTip = 0;
+  private int segmentsCount = 0;
+  private long capacity = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public SegmentedInMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    initialSegmentSize = config.getInitialBufferSize().toBytes();
+    segmentSizeIncrement = config.getBufferSizeIncrement() != null ? config.getBufferSizeIncrement().toBytes() : 0;
+    maxBufferSize = config.getMaxBufferSize().toBytes();
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    ByteBuffer presentRead = getFromCurrentData(position, length);
+    if (presentRead != null) {
+      return presentRead;
+    }
+
+    writeLock.lock();
+    try {
+      presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      final long requiredUpperBound = position + length;
+      while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+        if (consumeForwardData() > 0) {
+          presentRead = getFromCurrentData(position, length);
+          if (presentRead != null) {
+            return presentRead;
+          }
+        }
+      }
+
+      return getFromCurrentData(position, length);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    final long tip = bufferTip;
+    if (position >= tip) {
+      return null;
+    }
+
+    return copy(position, (int) min(length, tip - position));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Should only be invoked while holding the write lock.
+   *
+   * @throws StreamingBufferSizeExceededException if the stream has more data but a new segment cannot be added
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (bufferTip == capacity) {
+      final int newSegmentSize = segmentsCount == 0 ? initialSegmentSize : segmentSizeIncrement;
+      if (newSegmentSize <= 0 || (maxBufferSize > 0 && capacity + newSegmentSize > maxBufferSize)) {
+        return probeStreamFinished();
+      }
+
+      addSegment(newSegmentSize);
+    }
+
+    final Segment segment = segments[segmentsCount - 1];
+    final ByteBuffer buffer = segment.buffer.getDelegate();
+    buffer.limit(segment.size);
+    buffer.position(toIntExact(bufferTip - segment.start));
+
+    final int read = consumeStream(buffer);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private int probeStreamFinished() throws IOException {
+    ManagedByteBufferWrapper probe = bufferManager.allocateManaged(STREAM_FINISHED_PROBE);
+    try {
+      if (consumeStream(probe.getDelegate()) > 0) {
+        throw new StreamingBufferSizeExceededException(toIntExact(maxBufferSize));
+      }
+      return -1;
+    } finally {
+      probe.release();
+    }
+  }
+
+  private void addSegment(int size) {
+    Segment[] current = segments;
+    if (segmentsCount == current.length) {
+      // only the references are copied. Readers holding the old array still see the same segments
+      current = copyOf(current, current.length * 2);
+    }
+
+    current[segmentsCount++] = new Segment(bufferManager.allocateManaged(size), capacity, size);
+    segments = current;
+    capacity += size;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer is a view over the buffered data, which never changes. No data is copied.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    final Segment segment = segments[segmentIndexFor(position)];
+    final int offset = toIntExact(position - segment.start);
+
+    ByteBuffer view = segment.view.duplicate();
+    view.limit(offset + min(length, segment.size - offset));
+    view.position(offset);
+
+    return view.slice();
+  }
+
+  private int segmentIndexFor(long position) {
+    if (position < initialSegmentSize) {
+      return 0;
+    }
+
+    return toIntExact((position - initialSegmentSize) / segmentSizeIncrement) + 1;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    final Segment[] current = segments;
+    for (int i = 0; i < segmentsCount; i++) {
+      current[i].buffer.release();
+    }
+  }
+
+  private static class Segment {
+
+    private final ManagedByteBufferWrapper buffer;
+
+    /**
+     * A view over {@link #buffer} which is never moved, so that readers can safely duplicate it while the writer
+     * modifies the position of the actual buffer
+     */
+    private final ByteBuffer view;
+    private final long start;
+    private final int size;
+
+    private Segment(ManagedByteBufferWrapper buffer, long start, int size) {
+      this.buffer = buffer;
+      view = buffer.getDelegate().duplicate();
+      view.clear();
+      this.start = start;
+      this.size = size;
+    }
+  }
+}
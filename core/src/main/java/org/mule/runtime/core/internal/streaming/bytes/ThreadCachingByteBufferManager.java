@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_MAGAZINE_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_POOL_SIZE;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+/**
+ * {@link MemoryBoundByteBufferManager} implementation optimized for highly concurrent environments.
+ * <p>
+ * Buffers of the default bucket size are first looked up in a small magazine owned by the current thread, which
+ * requires no locking. Only when that magazine is empty (or full, when returning a buffer) the thread
+ * goes to a shared pool. Shared pools are split into stripes, and each thread always hits the same stripe, which
+ * reduces contention and keeps buffers close to the threads that use them. Buffers of other capacities skip the
+ * magazine and go straight to their own striped pool. Idle capacity pools are automatically expired.
+ * <p>
+ * The magazines live in threads which may outlive this manager, so they are tracked and drained when this manager is
+ * disposed, releasing the memory reserved for their buffers. The magazines of threads which are gone are drained as well,
+ * when a new thread creates its magazine.
+ * <p>
+ * Optionally, this manager can produce direct buffers instead of heap ones.
+ *
+ * @since 4.4.0
+ */
+public class ThreadCachingByteBufferManager extends MemoryBoundByteBufferManager implements Disposable {
+
+  private final int bufferSize;
+  private final int magazineSize;
+  private final int stripesCount;
+  private final int stripeSize;
+  private final boolean direct;
+
+  private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(this::newMagazine);
+  private final Set<Magazine> allMagazines = ConcurrentHashMap.newKeySet();
+  private final StripedBufferPool defaultSizePool;
+  private final LoadingCache<Integer, StripedBufferPool> customSizePools = Caffeine.newBuilder()
+      .expireAfterAccess(5, MINUTES)
+      .removalListener((RemovalListener<Integer, StripedBufferPool>) (key, value, cause) -> value.close())
+      .build(this::newBufferPool);
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance with default settings, which produces heap buffers
+   */
+  public ThreadCachingByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_BUFFER_POOL_SIZE, DEFAULT_BUFFER_BUCKET_SIZE, DEFAULT_BUFFER_MAGAZINE_SIZE,
+         false);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @param size          the maximum amount of buffers to be pooled for each capacity, across all stripes
+   * @param bufferSize    the capacity of the buffers which are cached on each thread
+   * @param magazineSize  the maximum amount of buffers to be cached on each thread
+   * @param direct        whether to produce direct buffers
+   */
+  public ThreadCachingByteBufferManager(MemoryManager memoryManager, int size, int bufferSize, int magazineSize,
+                                        boolean direct) {
+    super(memoryManager);
+    this.bufferSize = bufferSize;
+    this.magazineSize = magazineSize;
+    this.direct = direct;
+    stripesCount = highestOneBit(max(1, getRuntime().availableProcessors()));
+    stripeSize = max(1, size / stripesCount);
+    defaultSizePool = newBufferPool(bufferSize);
+  }
+
+  @Override
+  public ManagedByteBufferWrapper allocateManaged(int capacity) {
+    if (capacity == bufferSize) {
+      ManagedByteBufferWrapper buffer = magazines.get().pop();
+      return buffer != null ? buffer : defaultSizePool.take();
+    }
+
+    return customSizePools.get(capacity).take();
+  }
+
+  private void release(ManagedByteBufferWrapper buffer, StripedBufferPool pool) {
+    buffer.getDelegate().clear();
+    if (disposed) {
+      doDeallocate(buffer.getDelegate());
+    } else if (pool != defaultSizePool) {
+      pool.restore(buffer);
+    } else {
+      Magazine magazine = magazines.get();
+      if (!magazine.push(buffer)) {
+        pool.restore(buffer);
+      } else if (disposed) {
+        // disposed concurrently, the buffer may have been pushed after the magazine was drained
+        magazine.drain(this);
+      }
+    }
+  }
+
+  private void deallocate(ManagedByteBufferWrapper buffer) {
+    doDeallocate(buffer.getDelegate());
+  }
+
+  @Override
+  protected ByteBuffer createBuffer(int capacity) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    for (Magazine magazine : allMagazines) {
+      magazine.drain(this);
+    }
+    allMagazines.clear();
+    defaultSizePool.close();
+    customSizePools.invalidateAll();
+  }
+
+  private Magazine newMagazine() {
+    allMagazines.removeIf(magazine -> {
+      if (magazine.isOwnerAlive()) {
+        return false;
+      }
+      magazine.drain(this);
+      return true;
+    });
+
+    Magazine magazine = new Magazine(magazineSize);
+    allMagazines.add(magazine);
+    return magazine;
+  }
+
+  private StripedBufferPool newBufferPool(Integer capacity) {
+    return new StripedBufferPool(capacity);
+  }
+
+  /**
+   * A small stack of buffers which is only used by the thread that owns it.
+   * <p>
+   * Other threads may only {@link #drain(ThreadCachingByteBufferManager) drain} it. The slots are swapped atomically, so that
+   * each buffer is either taken by its owner or deallocated by the drain, but never both.
+   */
+  private static class Magazine {
+
+    private final WeakReference<Thread> owner = new WeakReference<>(currentThread());
+    private final AtomicReferenceArray<ManagedByteBufferWrapper> buffers;
+    // only accessed by the owner thread
+    private int count = 0;
+
+    private Magazine(int size) {
+      buffers = new AtomicReferenceArray<>(size);
+    }
+
+    private ManagedByteBufferWrapper pop() {
+      if (count == 0) {
+        return null;
+      }
+
+      // null if the magazine was drained
+      return buffers.getAndSet(--count, null);
+    }
+
+    private boolean push(ManagedByteBufferWrapper buffer) {
+      if (count == buffers.length()) {
+        return false;
+      }
+
+      buffers.set(count++, buffer);
+      return true;
+    }
+
+    private boolean isOwnerAlive() {
+      Thread thread = owner.get();
+      return thread != null && thread.isAlive();
+    }
+
+    private void drain(ThreadCachingByteBufferManager manager) {
+      for (int i = 0; i < buffers.length(); i++) {
+        ManagedByteBufferWrapper buffer = buffers.getAndSet(i, null);
+        if (buffer != null) {
+          manager.deallocate(buffer);
+        }
+      }
+    }
+  }
+
+  /**
+   * A pool of buffers of a given capacity, split into stripes. Each thread always goes to the same stripe.
+   * <p>
+   * If the stripe is exhausted a new buffer is created. If it's full when a buffer is returned, the buffer is
+   * deallocated.
+   */
+  private class StripedBufferPool {
+
+    private final int capacity;
+    private final ArrayBlockingQueue<ManagedByteBufferWrapper>[] stripes;
+    private volatile boolean closed = false;
+
+    private StripedBufferPool(int capacity) {
+      this.capacity = capacity;
+      stripes = new ArrayBlockingQueue[stripesCount];
+      for (int i = 0; i < stripesCount; i++) {
+        stripes[i] = new ArrayBlockingQueue<>(stripeSize);
+      }
+    }
+
+    private ManagedByteBufferWrapper take() {
+      ManagedByteBufferWrapper buffer = homeStripe().poll();
+      if (buffer == null) {
+        buffer = new ManagedByteBufferWrapper(allocateIfFits(capacity), b -> release(b, this));
+      }
+
+      return buffer;
+    }
+
+    private void restore(ManagedByteBufferWrapper buffer) {
+      if (closed || !homeStripe().offer(buffer)) {
+        doDeallocate(buffer.getDelegate());
+      }
+    }
+
+    private ArrayBlockingQueue<ManagedByteBufferWrapper> homeStripe() {
+      return stripes[(int) (currentThread().getId() & (stripesCount - 1))];
+    }
+
+    private void close() {
+      closed = true;
+      for (ArrayBlockingQueue<ManagedByteBufferWrapper> stripe : stripes) {
+        ManagedByteBufferWrapper buffer;
+        while ((buffer = stripe.poll()) != null) {
+          doDeallocate(buffer.getDelegate());
+        }
+      }
+    }
+  }
+}
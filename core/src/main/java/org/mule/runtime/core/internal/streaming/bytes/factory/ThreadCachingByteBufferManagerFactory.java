@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes.factory;
+
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_MAGAZINE_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_POOL_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MULE_STREAMING_DIRECT_BUFFERS;
+
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManagerFactory;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.bytes.ThreadCachingByteBufferManager;
+
+/**
+ * {@link ByteBufferManagerFactory} which creates instances of {@link ThreadCachingByteBufferManager}.
+ * <p>
+ * Direct buffers are produced if the {@link org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants#MULE_STREAMING_DIRECT_BUFFERS}
+ * system property is set.
+ *
+ * @since 4.4.0
+ */
+public class ThreadCachingByteBufferManagerFactory implements ByteBufferManagerFactory {
+
+  @Override
+  public ByteBufferManager create() {
+    return new ThreadCachingByteBufferManager(new DefaultMemoryManager(), DEFAULT_BUFFER_POOL_SIZE, DEFAULT_BUFFER_BUCKET_SIZE,
+                                              DEFAULT_BUFFER_MAGAZINE_SIZE, getBoolean(MULE_STREAMING_DIRECT_BUFFERS));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_SIZE;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE;
+
+/**
+ * Configuration for a {@link ObjectStreamBuffer} which uses a local file for buffering
+ *
+ * @since 4.4.0
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  private final int maxInMemoryInstances;
+  private final int bucketSize;
+  private final int bucketsCount;
+
+  /**
+   * @return A new instance configured with default settings
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxInMemoryInstances the maximum amount of instances to be held in memory
+   * @throws IllegalArgumentException if {@code maxInMemoryInstances} is not greater than zero
+   */
+  public FileStoreCursorIteratorConfig(int maxInMemoryInstances) {
+    checkArgument(maxInMemoryInstances > 0, "maxInMemoryInstances must be greater than zero");
+
+    bucketSize = min(DEFAULT_OBJECT_STREAMING_BUFFER_SIZE, maxInMemoryInstances);
+    bucketsCount = max(1, maxInMemoryInstances / bucketSize);
+    this.maxInMemoryInstances = bucketsCount * bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of instances to be held in memory
+   */
+  public int getMaxInMemoryInstances() {
+    return maxInMemoryInstances;
+  }
+
+  /**
+   * @return The amount of instances in each bucket
+   */
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of buckets to be held in memory
+   */
+  public int getBucketsCount() {
+    return bucketsCount;
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.ByteBuffer.wrap;
+import static java.util.Arrays.copyOf;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which spills the items in the stream to a local segment file.
+ * <p>
+ * Items are grouped into fixed size buckets. The bucket which is currently being filled is always kept in memory.
+ * Once it overflows, it is serialized through the {@link ObjectSerializer} and appended to a temporal file, from
+ * which it can later be read back when a cursor requests a position it contains.
+ * <p>
+ * To avoid hitting the disk each time a cursor moves across buckets, the most recently accessed buckets are kept in a
+ * bounded in memory cache, up to {@link FileStoreCursorIteratorConfig#getBucketsCount()} buckets. The file is only
+ * created if the stream actually overflows its first bucket, and it is deleted when this buffer is closed.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.4.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private static final Logger LOGGER = getLogger(FileStoreObjectStreamBuffer.class);
+  private static final int INITIAL_INDEX_SIZE = 16;
+
+  private final FileStoreCursorIteratorConfig config;
+  private final ObjectSerializer objectSerializer;
+  private final Cache<Integer, Bucket<T>> hotBuckets;
+
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+  private long fileTip = 0;
+  private long[] bucketOffsets = new long[INITIAL_INDEX_SIZE];
+  private int[] bucketLengths = new int[INITIAL_INDEX_SIZE];
+  private int spilledBucketsCount = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream           the stream to be buffered
+   * @param config           this buffer's configuration
+   * @param objectSerializer the {@link ObjectSerializer} used to write and read the buckets from the buffer file
+   */
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config,
+                                     ObjectSerializer objectSerializer) {
+    super(stream);
+    this.config = config;
+    this.objectSerializer = objectSerializer;
+    hotBuckets = Caffeine.newBuilder().maximumSize(config.getBucketsCount()).build();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    final int bucketSize = config.getBucketSize();
+    return new Position(toIntExact(position / bucketSize), toIntExact(position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(Position position) {
+    final Bucket<T> currentBucket = getCurrentBucket();
+    final int bucketIndex = position.getBucketIndex();
+
+    if (bucketIndex == currentBucket.getIndex()) {
+      return currentBucket;
+    } else if (bucketIndex < spilledBucketsCount) {
+      return hotBuckets.get(bucketIndex, this::readBucket);
+    }
+
+    return null;
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    writeBucket(overflownBucket);
+    hotBuckets.put(overflownBucket.getIndex(), overflownBucket);
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  /**
+   * This buffer is not bounded by memory, so this method does nothing
+   */
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {}
+
+  private void writeBucket(Bucket<T> bucket) {
+    final byte[] serialized = objectSerializer.getInternalProtocol().serialize(bucket);
+    final int index = bucket.getIndex();
+
+    try {
+      if (fileChannel == null) {
+        bufferFile = createBufferFile("objects");
+        randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+        fileChannel = randomAccessFile.getChannel();
+      }
+
+      ByteBuffer buffer = wrap(serialized);
+      long position = fileTip;
+      while (buffer.hasRemaining()) {
+        position += fileChannel.write(buffer, position);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write objects into buffer file"), e);
+    }
+
+    if (index >= bucketOffsets.length) {
+      bucketOffsets = copyOf(bucketOffsets, bucketOffsets.length * 2);
+      bucketLengths = copyOf(bucketLengths, bucketLengths.length * 2);
+    }
+
+    bucketOffsets[index] = fileTip;
+    bucketLengths[index] = serialized.length;
+    fileTip += serialized.length;
+    spilledBucketsCount = index + 1;
+  }
+
+  private Bucket<T> readBucket(int index) {
+    ByteBuffer buffer = allocate(bucketLengths[index]);
+    long position = bucketOffsets[index];
+
+    try {
+      while (buffer.hasRemaining()) {
+        int read = fileChannel.read(buffer, position);
+        if (read == -1) {
+          throw new EOFException("Unexpected end of buffer file " + bufferFile.getAbsolutePath());
+        }
+        position += read;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read objects from buffer file"), e);
+    }
+
+    return objectSerializer.getInternalProtocol().deserialize(buffer.array());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    hotBuckets.invalidateAll();
+
+    if (fileChannel != null) {
+      try {
+        randomAccessFile.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close buffer file " + bufferFile.getAbsolutePath(), e);
+      } finally {
+        fileChannel = null;
+        deleteQuietly(bufferFile);
+      }
+    }
+  }
+}
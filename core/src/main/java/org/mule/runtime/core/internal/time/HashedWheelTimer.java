@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Timer that keeps its pending tasks in a hashed wheel, so that scheduling and cancelling a task takes constant time regardless
+ * of the amount of pending tasks, as opposed to the heap of a {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * <p>
+ * Time is divided in ticks and a single thread advances the wheel one bucket per tick, running the tasks whose deadline was
+ * reached. So, tasks run up to a tick later than requested, and they must be short, typically handing off the actual work to
+ * another executor.
+ * <p>
+ * The thread of the timer is started when the first task is scheduled.
+ *
+ * @since 4.4.0
+ */
+public final class HashedWheelTimer {
+
+  private static final Logger LOGGER = getLogger(HashedWheelTimer.class);
+
+  private static final int INIT = 0;
+  private static final int STARTED = 1;
+  private static final int STOPPED = 2;
+
+  private static final int PENDING = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+
+  private final String name;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+
+  private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger state = new AtomicInteger(INIT);
+
+  private volatile long startTime;
+  private Thread workerThread;
+  // only accessed by the worker thread
+  private long tick;
+
+  /**
+   * Creates a new instance
+   *
+   * @param name         the name of the thread of the timer
+   * @param tickDuration the duration of each tick of the wheel
+   * @param unit         the unit of {@code tickDuration}
+   * @param ticksPerWheel the amount of buckets of the wheel, rounded up to a power of 2
+   */
+  public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+    if (tickDuration <= 0) {
+      throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+    }
+    if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+      throw new IllegalArgumentException("ticksPerWheel must be between 1 and 2^30: " + ticksPerWheel);
+    }
+
+    this.name = name;
+    this.tickNanos = max(unit.toNanos(tickDuration), MILLISECONDS.toNanos(1));
+    int wheelSize = highestOneBit(ticksPerWheel);
+    if (wheelSize < ticksPerWheel) {
+      wheelSize <<= 1;
+    }
+    this.wheel = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; ++i) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheelSize - 1;
+  }
+
+  /**
+   * Schedules the given task to run once after the given delay.
+   *
+   * @param task  the task to run in the thread of the timer. It must not block.
+   * @param delay the delay after which the task is run
+   * @param unit  the unit of {@code delay}
+   * @return a handle to cancel the task
+   * @throws IllegalStateException if this timer was stopped
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    start();
+
+    long delayNanos = unit.toNanos(max(delay, 0));
+    long deadline = nanoTime() - startTime + delayNanos;
+    if (deadline < 0) {
+      // the delay is so long that the deadline overflowed, as with a timeout of Long.MAX_VALUE
+      deadline = Long.MAX_VALUE;
+    }
+    WheelTimeout timeout = new WheelTimeout(task, deadline);
+    pendingTimeouts.add(timeout);
+    return timeout;
+  }
+
+  private void start() {
+    switch (state.get()) {
+      case INIT:
+        synchronized (this) {
+          if (state.get() == INIT) {
+            startTime = nanoTime();
+            workerThread = new Thread(this::work, name);
+            workerThread.setDaemon(true);
+            // the timer may be shared by several artifacts, so it must not hold the class loader of the one that started it
+            workerThread.setContextClassLoader(HashedWheelTimer.class.getClassLoader());
+            workerThread.start();
+            state.set(STARTED);
+          }
+        }
+        break;
+      case STARTED:
+        break;
+      default:
+        throw new IllegalStateException("Timer '" + name + "' was stopped");
+    }
+  }
+
+  /**
+   * Stops the thread of this timer. The tasks not yet run are discarded.
+   */
+  public void stop() {
+    synchronized (this) {
+      if (state.getAndSet(STOPPED) == STARTED) {
+        workerThread.interrupt();
+      }
+    }
+  }
+
+  private void work() {
+    while (state.get() == STARTED) {
+      if (!waitForNextTick()) {
+        continue;
+      }
+
+      removeCancelledTimeouts();
+      transferPendingTimeouts();
+      wheel[(int) (tick & mask)].expireTimeouts();
+      ++tick;
+    }
+  }
+
+  /**
+   * @return {@code false} if the timer was stopped while waiting.
+   */
+  private boolean waitForNextTick() {
+    long deadline = tickNanos * (tick + 1);
+    while (true) {
+      long currentTime = nanoTime() - startTime;
+      long sleepMillis = NANOSECONDS.toMillis(deadline - currentTime + 999999);
+      if (sleepMillis <= 0) {
+        return true;
+      }
+
+      try {
+        Thread.sleep(sleepMillis);
+      } catch (InterruptedException e) {
+        if (state.get() == STOPPED) {
+          return false;
+        }
+      }
+    }
+  }
+
+  private void removeCancelledTimeouts() {
+    WheelTimeout timeout;
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void transferPendingTimeouts() {
+    // bounds the work of a tick, in case tasks are scheduled faster than transferred
+    for (int i = 0; i < 100000; ++i) {
+      WheelTimeout timeout = pendingTimeouts.poll();
+      if (timeout == null) {
+        break;
+      }
+      if (timeout.state.get() == CANCELLED) {
+        continue;
+      }
+
+      long ticks = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (ticks - tick) / wheel.length;
+      // a timeout whose deadline already passed is run in the current tick
+      wheel[(int) (max(ticks, tick) & mask)].add(timeout);
+    }
+  }
+
+  /**
+   * Handle to a task scheduled in a {@link HashedWheelTimer}.
+   */
+  public interface Timeout {
+
+    /**
+     * Cancels the task, if it was not run yet.
+     *
+     * @return {@code true} if the task was cancelled, {@code false} if it was already run or cancelled.
+     */
+    boolean cancel();
+
+    /**
+     * @return whether the task was cancelled.
+     */
+    boolean isCancelled();
+  }
+
+  private final class WheelTimeout implements Timeout {
+
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    // only accessed by the worker thread
+    private long remainingRounds;
+    private Bucket bucket;
+    private WheelTimeout next;
+    private WheelTimeout prev;
+
+    private WheelTimeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!state.compareAndSet(PENDING, CANCELLED)) {
+        return false;
+      }
+      // the worker thread removes it from its bucket, so that the buckets are not accessed concurrently
+      cancelledTimeouts.add(this);
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(PENDING, EXPIRED)) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.warn("Task scheduled in timer '{}' failed", name, t);
+      }
+    }
+  }
+
+  /**
+   * Doubly linked list of the timeouts of a bucket, only accessed by the worker thread.
+   */
+  private static final class Bucket {
+
+    private WheelTimeout head;
+    private WheelTimeout tail;
+
+    private void add(WheelTimeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    private void expireTimeouts() {
+      WheelTimeout timeout = head;
+      while (timeout != null) {
+        WheelTimeout next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          // the deadline is within the current tick, which has already ended
+          remove(timeout);
+          timeout.expire();
+        } else if (timeout.isCancelled()) {
+          remove(timeout);
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    private void remove(WheelTimeout timeout) {
+      if (timeout.bucket != this) {
+        return;
+      }
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.internal.time.HashedWheelTimer.Timeout;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link Scheduler} that keeps the delayed tasks in a {@link HashedWheelTimer} until they are due, and then runs them in the
+ * wrapped {@link Scheduler}.
+ * <p>
+ * Periodic tasks and every other operation are delegated to the wrapped {@link Scheduler}. The delayed tasks still waiting in the
+ * timer are cancelled when this {@link Scheduler} is stopped or shut down, so that the timer shared by all the artifacts does not
+ * retain them.
+ *
+ * @since 4.4.0
+ */
+final class TimerScheduler implements Scheduler {
+
+  private static final Logger LOGGER = getLogger(TimerScheduler.class);
+
+  private final HashedWheelTimer timer;
+  private final Scheduler delegate;
+  private final Set<TimerFuture<?>> waitingFutures = ConcurrentHashMap.newKeySet();
+
+  TimerScheduler(HashedWheelTimer timer, Scheduler delegate) {
+    this.timer = timer;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(new TimerFuture<>(command, null, delay, unit), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return schedule(new TimerFuture<>(callable, delay, unit), delay, unit);
+  }
+
+  private <V> ScheduledFuture<V> schedule(TimerFuture<V> future, long delay, TimeUnit unit) {
+    if (delay <= 0) {
+      delegate.execute(future);
+      return future;
+    }
+
+    waitingFutures.add(future);
+    try {
+      future.timeout = timer.newTimeout(() -> dispatch(future), delay, unit);
+      return future;
+    } catch (IllegalStateException e) {
+      // the timer was stopped while the artifact is being disposed
+      waitingFutures.remove(future);
+      delegate.schedule((Runnable) future, delay, unit);
+      return future;
+    }
+  }
+
+  private void dispatch(TimerFuture<?> future) {
+    waitingFutures.remove(future);
+    if (future.isCancelled()) {
+      return;
+    }
+    try {
+      delegate.execute(future);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Scheduler '{}' rejected a delayed task", delegate.getName(), e);
+      future.reject(e);
+    }
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+    return delegate.scheduleWithCronExpression(command, cronExpression);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+    return delegate.scheduleWithCronExpression(command, cronExpression, timeZone);
+  }
+
+  @Override
+  public void stop() {
+    cancelWaitingFutures();
+    delegate.stop();
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public void shutdown() {
+    cancelWaitingFutures();
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    cancelWaitingFutures();
+    return delegate.shutdownNow();
+  }
+
+  private void cancelWaitingFutures() {
+    for (TimerFuture<?> future : waitingFutures) {
+      future.cancel(false);
+    }
+    waitingFutures.clear();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return delegate.submit(task);
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return delegate.submit(task, result);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return delegate.submit(task);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return delegate.invokeAll(tasks);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return delegate.invokeAll(tasks, timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return delegate.invokeAny(tasks);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return delegate.invokeAny(tasks, timeout, unit);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(command);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  private final class TimerFuture<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+    // the deadline is kept as a start and a delay, as adding them overflows for very long delays
+    private final long startTime = nanoTime();
+    private final long delayNanos;
+    private volatile Timeout timeout;
+
+    private TimerFuture(Runnable runnable, V result, long delay, TimeUnit unit) {
+      super(runnable, result);
+      this.delayNanos = unit.toNanos(delay);
+    }
+
+    private TimerFuture(Callable<V> callable, long delay, TimeUnit unit) {
+      super(callable);
+      this.delayNanos = unit.toNanos(delay);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      Timeout currentTimeout = timeout;
+      if (cancelled) {
+        if (currentTimeout != null) {
+          currentTimeout.cancel();
+        }
+        waitingFutures.remove(this);
+      }
+      return cancelled;
+    }
+
+    private void reject(RejectedExecutionException e) {
+      setException(e);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(delayNanos - (nanoTime() - startTime), NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      if (other == this) {
+        return 0;
+      }
+      return Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+    }
+  }
+}
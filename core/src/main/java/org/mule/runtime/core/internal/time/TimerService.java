@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+/**
+ * Provides the components of an artifact with a {@link HashedWheelTimer} for their timeouts and delays, instead of having each
+ * delayed task queued in the delay queue of a {@link Scheduler}.
+ * <p>
+ * A single timer is shared by all the deployed artifacts. Its thread is stopped once every artifact using it is disposed.
+ *
+ * @since 4.4.0
+ */
+public class TimerService implements Disposable {
+
+  public static final String REGISTRY_KEY = "_muleTimerService";
+
+  private static final long TICK_DURATION_MILLIS = 10;
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private static final Object TIMER_LOCK = new Object();
+  private static HashedWheelTimer sharedTimer;
+  private static int sharedTimerUsers;
+
+  private HashedWheelTimer timer;
+
+  /**
+   * Decorates the given {@link Scheduler} so that its delayed tasks wait in the timer until they are due, and are then run by the
+   * given {@link Scheduler}. The delayed tasks run up to 10 milliseconds later than requested.
+   * <p>
+   * The returned {@link Scheduler} is stopped along with the given one.
+   *
+   * @param scheduler the {@link Scheduler} that runs the tasks
+   * @return the decorated {@link Scheduler}
+   */
+  public Scheduler withTimer(Scheduler scheduler) {
+    return new TimerScheduler(getTimer(), scheduler);
+  }
+
+  private HashedWheelTimer getTimer() {
+    synchronized (TIMER_LOCK) {
+      if (timer == null) {
+        if (sharedTimerUsers++ == 0) {
+          sharedTimer = new HashedWheelTimer("[MuleRuntime].timer", TICK_DURATION_MILLIS, MILLISECONDS, TICKS_PER_WHEEL);
+        }
+        timer = sharedTimer;
+      }
+      return timer;
+    }
+  }
+
+  @Override
+  public void dispose() {
+    synchronized (TIMER_LOCK) {
+      if (timer != null) {
+        timer = null;
+        if (--sharedTimerUsers == 0) {
+          sharedTimer.stop();
+          sharedTimer = null;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Transformer;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * A bounded cache of transformer resolutions, keyed by the pair of source and result {@link DataType}s.
+ * <p>
+ * Resolutions are kept in a map of results to a map of sources, so that looking up a pair neither locks nor allocates a key.
+ * Resolutions which found no transformer are cached as well, as an empty {@link Optional}.
+ * <p>
+ * The cache may be invalidated partially through {@link #invalidate(BiPredicate)}. In order to avoid caching a resolution that
+ * was computed before an invalidation, callers get a {@link #getVersion() version} before resolving and pass it to
+ * {@link #put(DataType, DataType, Transformer, long)}.
+ *
+ * @since 4.4.0
+ */
+public final class TransformerResolutionCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  private final ConcurrentMap<DataType, ConcurrentMap<DataType, Optional<Transformer>>> resolutions =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicLong version = new AtomicLong();
+  private final int maxEntries;
+
+  public TransformerResolutionCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  public TransformerResolutionCache(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * @param source the source data type
+   * @param result the result data type
+   * @return {@code null} if the resolution is not cached, an empty {@link Optional} if it is cached that there is no transformer
+   *         for the given data types, or the cached transformer.
+   */
+  public Optional<Transformer> get(DataType source, DataType result) {
+    ConcurrentMap<DataType, Optional<Transformer>> sources = resolutions.get(result);
+    return sources == null ? null : sources.get(source);
+  }
+
+  /**
+   * @return the current version of the cache, to be passed to {@link #put(DataType, DataType, Transformer, long)} once the
+   *         resolution is done.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Caches the resolution of the given data types, unless the cache was invalidated after the given version was obtained.
+   *
+   * @param source      the source data type
+   * @param result      the result data type
+   * @param transformer the resolved transformer, or {@code null} if none was found
+   * @param version     the {@link #getVersion() version} of the cache when the resolution started
+   */
+  public void put(DataType source, DataType result, Transformer transformer, long version) {
+    if (this.version.get() != version) {
+      return;
+    }
+
+    if (size.get() >= maxEntries) {
+      evict();
+    }
+
+    ConcurrentMap<DataType, Optional<Transformer>> sources = resolutions.computeIfAbsent(result, r -> new ConcurrentHashMap<>());
+    Optional<Transformer> resolution = transformer == null ? empty() : of(transformer);
+    if (sources.put(source, resolution) == null) {
+      size.incrementAndGet();
+    }
+
+    // an invalidation may have run concurrently without seeing the new entry
+    if (this.version.get() != version && sources.remove(source, resolution)) {
+      size.decrementAndGet();
+    }
+  }
+
+  /**
+   * Discards the cached resolutions for which the given predicate holds.
+   *
+   * @param affected a predicate on the source and result data types of a resolution
+   */
+  public void invalidate(BiPredicate<DataType, DataType> affected) {
+    version.incrementAndGet();
+
+    for (Entry<DataType, ConcurrentMap<DataType, Optional<Transformer>>> resultEntry : resolutions.entrySet()) {
+      Iterator<DataType> sources = resultEntry.getValue().keySet().iterator();
+      while (sources.hasNext()) {
+        if (affected.test(sources.next(), resultEntry.getKey())) {
+          sources.remove();
+        }
+      }
+    }
+    recountSize();
+  }
+
+  /**
+   * Discards all the cached resolutions.
+   */
+  public void invalidateAll() {
+    version.incrementAndGet();
+    resolutions.clear();
+    size.set(0);
+  }
+
+  /**
+   * @return the amount of cached resolutions
+   */
+  public int size() {
+    return size.get();
+  }
+
+  private void evict() {
+    // drops the resolutions of an arbitrary result data type, which is cheap and good enough to keep the cache bounded
+    Iterator<ConcurrentMap<DataType, Optional<Transformer>>> results = resolutions.values().iterator();
+    if (results.hasNext()) {
+      results.next();
+      results.remove();
+    }
+    recountSize();
+  }
+
+  private void recountSize() {
+    // recounting also fixes any drift caused by entries put concurrently into an evicted map
+    int count = 0;
+    for (ConcurrentMap<DataType, Optional<Transformer>> sources : resolutions.values()) {
+      count += sources.size();
+    }
+    size.set(count);
+  }
+}
@@ -11,45 +11,40 @@ import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.registry.TransformerResolver;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerResolutionCache;
 import org.mule.runtime.core.api.config.i18n.CoreMessages;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
-import org.apache.commons.collections.map.LRUMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
 
 public class GraphTransformerResolver implements TransformerResolver {
 
-  private ReentrantReadWriteLock readWriteLock;
   private SynchronizedTransformationGraph graph;
   private CompositeConverterFilter converterFilter;
-  private LRUMap cache;
+  private TransformerResolutionCache cache;
   private TransformationGraphLookupStrategy lookupStrategyTransformation;
 
   public GraphTransformerResolver() {
-    this.readWriteLock = new ReentrantReadWriteLock();
     this.graph = new SynchronizedTransformationGraph();
     lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
     converterFilter = new CompositeConverterFilter(new TypeMatchingVertexesFilter(),
                                                    new TransformationLengthConverterFilter(),
                                                    new PriorityWeightingConverterFilter(),
                                                    new NameConverterFilter());
-    cache = new LRUMap();
+    cache = new TransformerResolutionCache();
   }
 
   @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    String cacheKey = getDataTypeSourceResultPairHash(source, result);
-
-    readWriteLock.readLock().lock();
-    try {
-      if (cache.containsKey(cacheKey)) {
-        return (Converter) cache.get(cacheKey);
-      }
-    } finally {
-      readWriteLock.readLock().unlock();
+    Optional<Transformer> cached = cache.get(source, result);
+    if (cached != null) {
+      return cached.orElse(null);
     }
 
+    final long cacheVersion = cache.getVersion();
     List<Converter> converters =
         converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
 
@@ -59,46 +54,59 @@ public class GraphTransformerResolver implements TransformerResolver {
 
     Transformer converter = (converters.size() == 0) ? null : converters.get(0);
 
-
-    readWriteLock.writeLock().lock();
-    try {
-      cache.put(cacheKey, converter);
-    } finally {
-      readWriteLock.writeLock().unlock();
-    }
+    cache.put(source, result, converter, cacheVersion);
 
     return converter;
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(source.getClass().getName());
-    builder.append(source.hashCode());
-    builder.append(":");
-    builder.append(result.getClass().getName());
-    builder.append(result.hashCode());
+  @Override
+  public void transformerChange(Transformer transformer, RegistryAction registryAction) {
+    if (!(transformer instanceof Converter)) {
+      return;
+    }
 
-    return builder.toString();
+    Converter converter = (Converter) transformer;
+    if (registryAction == RegistryAction.ADDED) {
+      graph.addConverter(converter);
+      cache.invalidate(affectedResolutions(converter));
+    } else if (registryAction == RegistryAction.REMOVED) {
+      BiPredicate<DataType, DataType> affectedResolutions = affectedResolutions(converter);
+      graph.removeConverter(converter);
+      cache.invalidate(affectedResolutions);
+    }
   }
 
-  @Override
-  public void transformerChange(Transformer transformer, RegistryAction registryAction) {
-    readWriteLock.writeLock().lock();
+  /**
+   * Determines which resolutions may change when the given converter is added to or removed from the graph. Must be called while
+   * the converter is part of the graph, that is, after adding it or before removing it.
+   * <p>
+   * A resolution is affected when its source or result is one of the data types of the converter, as the vertexes which match
+   * them may change, or when its result is related to a data type that can be reached through the converter.
+   *
+   * @param converter the added or removed converter
+   * @return a predicate on the source and result data types of a resolution
+   */
+  public BiPredicate<DataType, DataType> affectedResolutions(Converter converter) {
+    Set<DataType> converterDataTypes = new HashSet<>(converter.getSourceDataTypes());
+    converterDataTypes.add(converter.getReturnDataType());
+
+    Set<Class<?>> reachableTypes = new HashSet<>();
+    reachableTypes.add(converter.getReturnDataType().getType());
+    for (DataType reachable : graph.getReachableVertexes(converter.getReturnDataType())) {
+      reachableTypes.add(reachable.getType());
+    }
 
-    try {
-      if (!(transformer instanceof Converter)) {
-        return;
+    return (source, result) -> {
+      if (converterDataTypes.contains(source) || converterDataTypes.contains(result)) {
+        return true;
       }
 
-      cache.clear();
-
-      if (registryAction == RegistryAction.ADDED) {
-        graph.addConverter((Converter) transformer);
-      } else if (registryAction == RegistryAction.REMOVED) {
-        graph.removeConverter((Converter) transformer);
+      for (Class<?> reachableType : reachableTypes) {
+        if (reachableType.isAssignableFrom(result.getType()) || result.getType().isAssignableFrom(reachableType)) {
+          return true;
+        }
       }
-    } finally {
-      readWriteLock.writeLock().unlock();
-    }
+      return false;
+    };
   }
 }
@@ -11,6 +11,9 @@ import com.google.common.collect.ImmutableSet;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Converter;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,6 +64,35 @@ public class SynchronizedTransformationGraph {
     }
   }
 
+  /**
+   * @param vertex a data type
+   * @return the data types that can be reached from the given one through any amount of conversions, including itself.
+   */
+  public Set<DataType> getReachableVertexes(DataType vertex) {
+    readWriteLock.readLock().lock();
+    try {
+      Set<DataType> reachable = new HashSet<>();
+      if (!transformationGraph.containsVertex(vertex)) {
+        return reachable;
+      }
+
+      Deque<DataType> pending = new ArrayDeque<>();
+      reachable.add(vertex);
+      pending.add(vertex);
+      while (!pending.isEmpty()) {
+        for (TransformationEdge edge : transformationGraph.outgoingEdgesOf(pending.poll())) {
+          DataType target = transformationGraph.getEdgeTarget(edge);
+          if (reachable.add(target)) {
+            pending.add(target);
+          }
+        }
+      }
+      return reachable;
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
   public boolean containsVertex(DataType dataType) {
     readWriteLock.readLock().lock();
     try {
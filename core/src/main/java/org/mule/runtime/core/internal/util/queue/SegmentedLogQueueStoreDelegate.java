@@ -0,0 +1,680 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Long.getLong;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in an append-only log, split into
+ * rolling segment files.
+ * <p/>
+ * Entries are always appended at the end of the newest segment, and a new segment is started once it reaches
+ * {@link #SEGMENT_SIZE_PROPERTY_KEY} bytes. Consuming an entry doesn't touch the log at all, it just moves the consumer
+ * position forward. That position is persisted in a separate checkpoint file, and segments which are entirely behind
+ * it are deleted in the background. Only the positions of the entries returned through {@link #untake(Serializable)}
+ * are kept in memory, so the heap used by this store does not depend on the amount of queued entries.
+ * <p/>
+ * Writes are not synced to the disk one by one. Instead, a background task syncs the log and the checkpoint every
+ * {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds in an IO scheduler of the {@link MuleContext}, so that many writes share
+ * the same fsync. Setting that interval to
+ * {@code 0} syncs each operation before returning, and {@link #addAll(Collection)} always syncs the whole batch at once.
+ * After a crash, entries consumed after the last checkpoint may be delivered again.
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate
+    implements TransactionalQueueStoreDelegate {
+
+  public static final String SEGMENTED_LOG_PROPERTY_KEY = "mule.queue.segmentedLog";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.syncInterval";
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String QUEUE_LOG_SUFFIX = "-log";
+  private static final String SEGMENT_FILE_EXTENSION = ".segment";
+  private static final String CHECKPOINT_FILE_NAME = "checkpoint";
+  private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final long SYNC_INTERVAL = getLong(SYNC_INTERVAL_PROPERTY_KEY, 10);
+
+  private static final byte REMOVED = 0;
+  private static final byte ENTRY = 1;
+  private static final byte HEAD_ENTRY = 2;
+  private static final int HEADER_SIZE = 9;
+  private static final int CHECKPOINT_SIZE = 24;
+  private static final long CHECKPOINT_MAGIC = 0x6d756c65716c6f67L;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final ObjectSerializer serializer;
+  private final File queueDirectory;
+  private final RandomAccessFile checkpointFile;
+  private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+  private final Deque<Long> headEntries = new ArrayDeque<>();
+  private final long segmentSize = getLong(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+  private final Scheduler syncScheduler;
+  private final ScheduledFuture<?> syncTask;
+
+  private Segment writeSegment;
+  private long tailPosition;
+  private long consumerPosition;
+  private int sequentialCount = 0;
+  private long cachedPosition = -1;
+  private byte[] cachedData;
+  private boolean dirty = false;
+  private long lastCheckpointConsumer = -1;
+  private long lastCheckpointLowWater = -1;
+  private volatile boolean closed = false;
+
+  public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    super(capacity);
+    serializer = muleContext.getObjectSerializer();
+    queueDirectory = getQueueDirectory(queueName, workingDirectory);
+    if (!queueDirectory.exists()) {
+      Preconditions.checkState(queueDirectory.mkdirs(),
+                               "Could not create queue store directory " + queueDirectory.getAbsolutePath());
+    }
+
+    try {
+      checkpointFile = new RandomAccessFile(new File(queueDirectory, CHECKPOINT_FILE_NAME), "rw");
+      recover();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (SYNC_INTERVAL > 0) {
+      syncScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName("queue-store-sync-" + queueName));
+      syncTask = syncScheduler.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL, SYNC_INTERVAL, MILLISECONDS);
+    } else {
+      syncScheduler = null;
+      syncTask = null;
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  private static File getQueueDirectory(String queueName, String workingDirectory) {
+    File queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    String directoryName = queueName.matches("[\\w.\\-]+") ? queueName : toHex(queueName);
+    return new File(queuesDirectory, directoryName + QUEUE_LOG_SUFFIX);
+  }
+
+  private static String toHex(String name) {
+    return new BigInteger(1, name.getBytes(UTF_8)).toString(16);
+  }
+
+  @Override
+  protected synchronized void add(Serializable item) {
+    append(ENTRY, serializer.getInternalProtocol().serialize(item));
+    sequentialCount++;
+    afterWrite();
+  }
+
+  @Override
+  protected synchronized void addFirst(Serializable item) throws InterruptedException {
+    headEntries.addFirst(append(HEAD_ENTRY, serializer.getInternalProtocol().serialize(item)));
+    afterWrite();
+  }
+
+  @Override
+  protected synchronized boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      append(ENTRY, serializer.getInternalProtocol().serialize(item));
+      sequentialCount++;
+    }
+    // the whole batch is committed with a single sync
+    sync();
+    return true;
+  }
+
+  @Override
+  protected synchronized Serializable getFirst() throws InterruptedException {
+    if (isEmpty()) {
+      return null;
+    }
+
+    return deserialize(read(firstPosition()));
+  }
+
+  @Override
+  protected synchronized Serializable removeFirst() throws InterruptedException {
+    if (isEmpty()) {
+      return null;
+    }
+
+    final long position = firstPosition();
+    final byte[] data = read(position);
+    if (!headEntries.isEmpty()) {
+      headEntries.removeFirst();
+      markRemoved(position);
+    } else {
+      consumerPosition = position + HEADER_SIZE + data.length;
+      sequentialCount--;
+    }
+    afterWrite();
+
+    return deserialize(data);
+  }
+
+  @Override
+  protected synchronized int size() {
+    return headEntries.size() + sequentialCount;
+  }
+
+  @Override
+  protected synchronized boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  protected synchronized void doClear() {
+    headEntries.clear();
+    sequentialCount = 0;
+    cachedPosition = -1;
+    cachedData = null;
+    segments.values().forEach(segment -> segment.close(true));
+    segments.clear();
+
+    try {
+      writeSegment = openSegment(tailPosition);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    consumerPosition = tailPosition;
+    sync();
+  }
+
+  @Override
+  public synchronized void remove(Serializable value) {
+    Iterator<Long> headIterator = headEntries.iterator();
+    while (headIterator.hasNext()) {
+      long position = headIterator.next();
+      if (deserialize(read(position)).equals(value)) {
+        headIterator.remove();
+        markRemoved(position);
+        afterWrite();
+        return;
+      }
+    }
+
+    long position = find(createDataSelector(value));
+    if (position >= 0) {
+      markRemoved(position);
+      sequentialCount--;
+      afterWrite();
+    }
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    for (long position : headEntries) {
+      if (deserialize(read(position)).equals(value)) {
+        return true;
+      }
+    }
+
+    return find(createDataSelector(value)) >= 0;
+  }
+
+  private RawDataSelector createDataSelector(final Serializable value) {
+    return data -> deserialize(data).equals(value);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+
+      if (syncTask != null) {
+        syncTask.cancel(false);
+      }
+      sync();
+      closed = true;
+      segments.values().forEach(segment -> segment.close(false));
+      synchronized (checkpointFile) {
+        try {
+          checkpointFile.close();
+        } catch (IOException e) {
+          logger.warn("Error closing queue checkpoint file: " + e.getMessage());
+        }
+      }
+    }
+
+    // stopped without holding the lock of this store, which a running sync may be waiting for
+    if (syncScheduler != null) {
+      syncScheduler.stop();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    close();
+    synchronized (this) {
+      segments.values().forEach(segment -> deleteQuietly(segment.file));
+      segments.clear();
+      deleteQuietly(queueDirectory);
+    }
+  }
+
+  private long append(byte type, byte[] data) {
+    if (writeSegment.size > 0 && writeSegment.size + HEADER_SIZE + data.length > segmentSize) {
+      rollSegment();
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(data);
+
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + data.length);
+    record.put(type);
+    record.putInt(data.length);
+    record.putInt((int) crc.getValue());
+    record.put(data);
+    record.flip();
+
+    final long position = tailPosition;
+    try {
+      writeFully(writeSegment.channel, record, writeSegment.size);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    writeSegment.size += record.limit();
+    tailPosition += record.limit();
+    dirty = true;
+
+    return position;
+  }
+
+  private void rollSegment() {
+    try {
+      // segments other than the current one are never touched by the background sync, so sync it before moving on
+      writeSegment.channel.force(false);
+      writeSegment = openSegment(tailPosition);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void markRemoved(long position) {
+    if (position == cachedPosition) {
+      cachedPosition = -1;
+      cachedData = null;
+    }
+
+    FileChannel channel = segmentFor(position).channel;
+    try {
+      writeFully(channel, ByteBuffer.wrap(new byte[] {REMOVED}), offsetOf(position));
+      if (channel != writeSegment.channel) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    dirty = true;
+  }
+
+  private void afterWrite() {
+    if (syncTask == null) {
+      sync();
+    }
+  }
+
+  /**
+   * @return the position of the first entry in the queue. Must only be called if the queue is not empty.
+   */
+  private long firstPosition() {
+    if (!headEntries.isEmpty()) {
+      return headEntries.peekFirst();
+    }
+
+    try {
+      // skips over removed entries and entries which were returned to the head of the queue
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      while (true) {
+        readHeader(consumerPosition, header);
+        if (header.get(0) == ENTRY) {
+          return consumerPosition;
+        }
+        consumerPosition += HEADER_SIZE + header.getInt(1);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private long find(RawDataSelector selector) {
+    if (sequentialCount == 0) {
+      return -1;
+    }
+
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      long position = consumerPosition;
+      while (position < tailPosition) {
+        readHeader(position, header);
+        if (header.get(0) == ENTRY && selector.isSelectedData(read(position))) {
+          return position;
+        }
+        position += HEADER_SIZE + header.getInt(1);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    return -1;
+  }
+
+  private byte[] read(long position) {
+    if (position == cachedPosition) {
+      return cachedData;
+    }
+
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      readHeader(position, header);
+      ByteBuffer data = ByteBuffer.allocate(header.getInt(1));
+      readFully(segmentFor(position).channel, data, offsetOf(position) + HEADER_SIZE);
+
+      cachedPosition = position;
+      cachedData = data.array();
+      return cachedData;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void readHeader(long position, ByteBuffer header) throws IOException {
+    header.clear();
+    readFully(segmentFor(position).channel, header, offsetOf(position));
+  }
+
+  private Segment segmentFor(long position) {
+    // segments are contiguous, so a position which is at the end of a segment is the start of the next one
+    return segments.floorEntry(position).getValue();
+  }
+
+  private long offsetOf(long position) {
+    return position - segments.floorKey(position);
+  }
+
+  private Serializable deserialize(byte[] data) {
+    return serializer.getInternalProtocol().deserialize(data);
+  }
+
+  /**
+   * Syncs the log and the checkpoint to the disk, and deletes the segments which are no longer needed.
+   * <p/>
+   * The log is synced without holding the lock of this store, so that producers and consumers are not blocked. Since
+   * concurrent syncs may then write their checkpoints in any order, a checkpoint is only written if it moves forward.
+   */
+  private void sync() {
+    final Segment segment;
+    final boolean syncLog;
+    final long consumer;
+    final long lowWater;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      segment = writeSegment;
+      syncLog = dirty;
+      dirty = false;
+      consumer = consumerPosition;
+      lowWater = lowWaterPosition();
+    }
+
+    try {
+      if (syncLog) {
+        segment.channel.force(false);
+      }
+
+      // the checkpoint is written after the log it refers to has been synced
+      writeCheckpoint(consumer, lowWater);
+    } catch (ClosedChannelException e) {
+      // the store was cleared or closed concurrently
+      return;
+    } catch (IOException e) {
+      logger.warn("Error syncing queue store: " + e.getMessage());
+      return;
+    }
+
+    deleteSegmentsBefore(lowWater);
+  }
+
+  private long lowWaterPosition() {
+    long lowWater = consumerPosition;
+    for (long position : headEntries) {
+      lowWater = Math.min(lowWater, position);
+    }
+    return lowWater;
+  }
+
+  private void writeCheckpoint(long consumer, long lowWater) throws IOException {
+    synchronized (checkpointFile) {
+      // both positions only move forward, so a checkpoint behind the last one was taken by an older sync, and the
+      // segments it refers to may already have been deleted
+      if (consumer <= lastCheckpointConsumer && lowWater <= lastCheckpointLowWater) {
+        return;
+      }
+
+      ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+      checkpoint.putLong(consumer);
+      checkpoint.putLong(lowWater);
+      checkpoint.putLong(consumer ^ lowWater ^ CHECKPOINT_MAGIC);
+      checkpoint.flip();
+      writeFully(checkpointFile.getChannel(), checkpoint, 0);
+      checkpointFile.getChannel().force(false);
+      lastCheckpointConsumer = consumer;
+      lastCheckpointLowWater = lowWater;
+    }
+  }
+
+  private void deleteSegmentsBefore(long lowWater) {
+    List<Segment> obsolete = new ArrayList<>();
+    synchronized (this) {
+      Iterator<Segment> iterator = segments.values().iterator();
+      while (iterator.hasNext()) {
+        Segment segment = iterator.next();
+        if (segment == writeSegment || segment.base + segment.size > lowWater) {
+          break;
+        }
+        iterator.remove();
+        obsolete.add(segment);
+      }
+    }
+
+    obsolete.forEach(segment -> segment.close(true));
+  }
+
+  private void recover() throws IOException {
+    File[] segmentFiles = queueDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (segmentFiles != null) {
+      for (File segmentFile : segmentFiles) {
+        String name = segmentFile.getName();
+        long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+        segments.put(base, new Segment(segmentFile, base));
+      }
+    }
+
+    if (segments.isEmpty()) {
+      openSegment(0);
+    }
+
+    final long firstBase = segments.firstKey();
+    long lowWater = firstBase;
+    consumerPosition = firstBase;
+    if (checkpointFile.length() >= CHECKPOINT_SIZE) {
+      ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+      readFully(checkpointFile.getChannel(), checkpoint, 0);
+      long consumer = checkpoint.getLong(0);
+      long checkpointLowWater = checkpoint.getLong(8);
+      if (checkpoint.getLong(16) == (consumer ^ checkpointLowWater ^ CHECKPOINT_MAGIC)
+          && firstBase <= checkpointLowWater && checkpointLowWater <= consumer) {
+        lowWater = checkpointLowWater;
+        consumerPosition = consumer;
+      } else {
+        logger.warn("Queue checkpoint file in " + queueDirectory.getAbsolutePath()
+            + " is corrupted. Entries may be delivered more than once");
+      }
+    }
+
+    scan(lowWater);
+    consumerPosition = Math.min(consumerPosition, tailPosition);
+    writeSegment = segments.lastEntry().getValue();
+  }
+
+  /**
+   * Rebuilds the in memory state by scanning the log from the given position. A torn or corrupted record found
+   * during the scan marks the end of the log, so it is truncated at that point.
+   */
+  private void scan(long from) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    tailPosition = from;
+
+    Iterator<Map.Entry<Long, Segment>> iterator = segments.tailMap(segments.floorKey(from), true).entrySet().iterator();
+    boolean truncated = false;
+    while (iterator.hasNext()) {
+      Segment segment = iterator.next().getValue();
+      if (truncated || segment.base != tailPosition && segment.base > from) {
+        // segments after a truncation point, or not contiguous with the previous one, are not part of the log
+        iterator.remove();
+        segment.close(true);
+        truncated = true;
+        continue;
+      }
+
+      final long length = segment.channel.size();
+      long offset = Math.min(Math.max(0, from - segment.base), length);
+      while (offset < length) {
+        header.clear();
+        if (length - offset < HEADER_SIZE || !isValidRecord(segment, offset, length, header)) {
+          truncated = true;
+          break;
+        }
+
+        long position = segment.base + offset;
+        byte type = header.get(0);
+        if (type == ENTRY && position >= consumerPosition) {
+          sequentialCount++;
+        } else if (type == HEAD_ENTRY) {
+          // entries returned to the head of the queue later are closer to the head
+          headEntries.addFirst(position);
+        }
+        offset += HEADER_SIZE + header.getInt(1);
+      }
+
+      segment.size = offset;
+      segment.channel.truncate(offset);
+      tailPosition = segment.base + offset;
+    }
+  }
+
+  private boolean isValidRecord(Segment segment, long offset, long length, ByteBuffer header) throws IOException {
+    readFully(segment.channel, header, offset);
+    byte type = header.get(0);
+    int dataLength = header.getInt(1);
+    if (type < REMOVED || type > HEAD_ENTRY || dataLength < 0 || offset + HEADER_SIZE + dataLength > length) {
+      return false;
+    }
+
+    ByteBuffer data = ByteBuffer.allocate(dataLength);
+    readFully(segment.channel, data, offset + HEADER_SIZE);
+    CRC32 crc = new CRC32();
+    crc.update(data.array());
+    return (int) crc.getValue() == header.getInt(5);
+  }
+
+  private Segment openSegment(long base) throws IOException {
+    Segment segment = new Segment(new File(queueDirectory, format("%020d%s", base, SEGMENT_FILE_EXTENSION)), base);
+    segments.put(base, segment);
+    return segment;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read == -1) {
+        throw new EOFException("Unexpected end of queue segment");
+      }
+      position += read;
+    }
+  }
+
+  /**
+   * A file of the log, which holds the entries starting at {@link #base}
+   */
+  private class Segment {
+
+    private final File file;
+    private final long base;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long size;
+
+    private Segment(File file, long base) throws IOException {
+      this.file = file;
+      this.base = base;
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      channel = randomAccessFile.getChannel();
+      size = channel.size();
+    }
+
+    private void close(boolean delete) {
+      try {
+        randomAccessFile.close();
+      } catch (IOException e) {
+        logger.warn("Error closing queue segment " + file.getAbsolutePath() + ": " + e.getMessage());
+      }
+      if (delete) {
+        deleteQuietly(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,703 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link PersistentObjectStorePartition} which keeps all its entries in a single append-only data file, instead of
+ * using one file per entry.
+ * <p>
+ * Each store or removal appends a record to the data file. An in memory index maps each key to the position of its
+ * latest record, so lookups take constant time and only one read is needed to retrieve a value. Loading the partition
+ * only requires a sequential scan of the file which reads the keys, without deserializing any value.
+ * <p>
+ * Retrieving values doesn't block other readers. Writes are synced to the disk before returning, but concurrent writers
+ * share the same sync, so that the cost of each fsync is amortized. Once the records which are no longer referenced by
+ * the index take more than half of the file, the file is compacted in the background.
+ *
+ * @param <T> the serializable entity to be persisted by this partition
+ * @since 4.4.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  public static final String DATA_FILE_NAME = "partition-data.log";
+  private static final String COMPACTION_FILE_NAME = "partition-data.compacting";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredObjectStorePartition.class);
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final int HEADER_SIZE = 21;
+  private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+  private final MuleContext muleContext;
+  private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object syncLock = new Object();
+
+  private volatile boolean loaded = false;
+  private volatile boolean compacting = false;
+  private boolean closed = false;
+  // changes whenever the data file is discarded, so that a compaction in progress doesn't replace it with stale records
+  private long generation = 0;
+  private Scheduler compactionScheduler;
+  private RandomAccessFile dataFile;
+  private FileChannel dataChannel;
+  private long tailPosition = 0;
+  private long liveBytes = 0;
+  private long writeSequence = 0;
+  private volatile long syncedSequence = 0;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    super(muleContext, partitionName, partitionDirectory);
+    this.muleContext = muleContext;
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+    this.muleContext = muleContext;
+  }
+
+  /**
+   * @param partitionDirectory a partition directory
+   * @return whether the given directory holds a partition created by this class
+   */
+  public static boolean isLogStructuredPartition(File partitionDirectory) {
+    return new File(partitionDirectory, DATA_FILE_NAME).exists();
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    super.open();
+
+    lock.writeLock().lock();
+    try {
+      if (dataFile == null) {
+        dataFile = new RandomAccessFile(new File(getPartitionDirectory(), DATA_FILE_NAME), "rw");
+        dataChannel = dataFile.getChannel();
+        closed = false;
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    try {
+      lock.writeLock().lock();
+      try {
+        closed = true;
+        generation++;
+        closeDataFile();
+        index.clear();
+        loaded = false;
+        tailPosition = 0;
+        liveBytes = 0;
+        try {
+          cleanDirectory(getPartitionDirectory());
+          getPartitionDirectory().delete();
+        } catch (IOException e) {
+          throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      // not while holding the lock, since the compaction in progress may be waiting for it
+      stopCompactionScheduler();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+    final byte[] serializedValue = serialize(value);
+    final long sequence;
+
+    lock.writeLock().lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      index.put(key, append(PUT, key, serializedValue));
+      sequence = writeSequence;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    commit(sequence);
+    compactIfNeeded();
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    lock.readLock().lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return load(entry);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    lock.readLock().lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        values.put(entry.getKey(), load(entry.getValue()));
+      }
+      return values;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+    final T value;
+    final long sequence;
+
+    lock.writeLock().lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      value = load(entry);
+      removeEntry(key, entry);
+      sequence = writeSequence;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    commit(sequence);
+    compactIfNeeded();
+    return value;
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    assureLoaded();
+
+    lock.writeLock().lock();
+    try {
+      index.clear();
+      generation++;
+      dataChannel.truncate(0);
+      dataChannel.force(false);
+      tailPosition = 0;
+      liveBytes = 0;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Entries are expired in the same order they were stored. Only the in memory index is scanned to find them.
+   */
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+    final long sequence;
+
+    lock.writeLock().lock();
+    try {
+      List<Map.Entry<String, IndexEntry>> entries = new ArrayList<>(index.entrySet());
+      int startIndex = 0;
+      if (maxEntries != UNBOUNDED && entries.size() > maxEntries) {
+        entries.sort(comparingLong(entry -> entry.getValue().position));
+        startIndex = entries.size() - maxEntries;
+        for (int i = 0; i < startIndex; i++) {
+          removeEntry(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = System.currentTimeMillis();
+        for (int i = startIndex; i < entries.size(); i++) {
+          Map.Entry<String, IndexEntry> entry = entries.get(i);
+          if ((now - entry.getValue().timestamp) >= entryTTL) {
+            removeEntry(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+      sequence = writeSequence;
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    commit(sequence);
+    compactIfNeeded();
+  }
+
+  private void removeEntry(String key, IndexEntry entry) throws ObjectStoreException {
+    append(REMOVE, key, new byte[0]);
+    index.remove(key);
+    liveBytes -= entry.length;
+  }
+
+  /**
+   * Appends a record to the data file. Must be invoked while holding the write lock.
+   */
+  private IndexEntry append(byte type, String key, byte[] value) throws ObjectStoreException {
+    final long timestamp = System.currentTimeMillis();
+    ByteBuffer record = createRecord(type, key, value, timestamp);
+    final long position = tailPosition;
+
+    try {
+      writeFully(dataChannel, record, position);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write into object store partition "
+          + getPartitionName()), e);
+    }
+
+    tailPosition += record.limit();
+    writeSequence++;
+    if (type == PUT) {
+      liveBytes += record.limit();
+    }
+
+    return new IndexEntry(position, record.limit(), timestamp);
+  }
+
+  private ByteBuffer createRecord(byte type, String key, byte[] value, long timestamp) {
+    final byte[] keyBytes = key.getBytes(UTF_8);
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + value.length);
+    record.position(4);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.putInt(value.length);
+    record.put(keyBytes);
+    record.put(value);
+
+    record.putInt(0, checksum(record.array(), 4, record.limit() - 4));
+    record.flip();
+    return record;
+  }
+
+  private static int checksum(byte[] bytes, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, offset, length);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Makes sure that all the writes up to the given sequence number are synced to the disk. If another thread is
+   * already syncing, this one waits for it to finish, since that sync will most likely cover its writes too.
+   */
+  private void commit(long sequence) throws ObjectStoreException {
+    if (syncedSequence >= sequence) {
+      return;
+    }
+
+    synchronized (syncLock) {
+      if (syncedSequence >= sequence) {
+        return;
+      }
+
+      final FileChannel channel;
+      final long target;
+      lock.readLock().lock();
+      try {
+        channel = dataChannel;
+        target = writeSequence;
+      } finally {
+        lock.readLock().unlock();
+      }
+
+      try {
+        channel.force(false);
+      } catch (ClosedChannelException e) {
+        // the data file was replaced by a compaction, which syncs the new file before replacing it
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not sync object store partition " + getPartitionName()), e);
+      }
+      syncedSequence = target;
+    }
+  }
+
+  private T load(IndexEntry entry) throws ObjectStoreException {
+    try {
+      ByteBuffer record = ByteBuffer.allocate(entry.length);
+      readFully(dataChannel, record, entry.position);
+      final int keyLength = record.getInt(13);
+      final int valueLength = record.getInt(17);
+
+      T value = serializer().getInternalProtocol()
+          .deserialize(copyOfRange(record.array(), HEADER_SIZE + keyLength, valueLength));
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private static byte[] copyOfRange(byte[] bytes, int offset, int length) {
+    byte[] copy = new byte[length];
+    System.arraycopy(bytes, offset, copy, 0, length);
+    return copy;
+  }
+
+  private byte[] serialize(T value) throws ObjectStoreException {
+    try {
+      return serializer().getInternalProtocol().serialize(value);
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private ObjectSerializer serializer() {
+    return muleContext.getObjectSerializer();
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      load();
+    }
+  }
+
+  /**
+   * Rebuilds the index by scanning the data file. Records which are torn or corrupted mark the end of the file, so it is
+   * truncated at that point.
+   */
+  private void load() throws ObjectStoreException {
+    lock.writeLock().lock();
+    try {
+      if (loaded) {
+        return;
+      }
+      if (dataChannel == null) {
+        throw new ObjectStoreNotAvailableException();
+      }
+
+      final long length = dataChannel.size();
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      long position = 0;
+      while (length - position >= HEADER_SIZE) {
+        header.clear();
+        readFully(dataChannel, header, position);
+        final int keyLength = header.getInt(13);
+        final int valueLength = header.getInt(17);
+        if (keyLength < 0 || valueLength < 0 || position + HEADER_SIZE + keyLength + valueLength > length) {
+          break;
+        }
+
+        final int recordLength = HEADER_SIZE + keyLength + valueLength;
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        readFully(dataChannel, record, position);
+        if (checksum(record.array(), 4, recordLength - 4) != record.getInt(0)) {
+          break;
+        }
+
+        String key = new String(record.array(), HEADER_SIZE, keyLength, UTF_8);
+        IndexEntry previous;
+        if (record.get(4) == PUT) {
+          previous = index.put(key, new IndexEntry(position, recordLength, record.getLong(5)));
+          liveBytes += recordLength;
+        } else {
+          previous = index.remove(key);
+        }
+        if (previous != null) {
+          liveBytes -= previous.length;
+        }
+
+        position += recordLength;
+      }
+
+      if (position < length) {
+        LOGGER.warn(format("Object store partition '%s' has a corrupted record at position %d. It will be discarded.",
+                           getPartitionName(), position));
+        dataChannel.truncate(position);
+      }
+      tailPosition = position;
+      loaded = true;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                getPartitionDirectory().getAbsolutePath())),
+                                     e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void compactIfNeeded() {
+    if (!compacting && tailPosition > MIN_COMPACTION_SIZE && liveBytes < tailPosition / 2) {
+      synchronized (this) {
+        if (compacting) {
+          return;
+        }
+        compacting = true;
+      }
+
+      getCompactionScheduler().execute(() -> {
+        try {
+          compact();
+        } catch (Exception e) {
+          LOGGER.warn(format("Could not compact object store partition '%s'", getPartitionName()), e);
+        } finally {
+          compacting = false;
+        }
+      });
+    }
+  }
+
+  private synchronized Scheduler getCompactionScheduler() {
+    if (compactionScheduler == null) {
+      compactionScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName("object-store-compaction-" + getPartitionName()));
+    }
+    return compactionScheduler;
+  }
+
+  private synchronized void stopCompactionScheduler() {
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+      compactionScheduler = null;
+    }
+  }
+
+  /**
+   * Rewrites the data file keeping only the records referenced by the index, in their original order.
+   * <p>
+   * Most of the copy happens without blocking the partition. Only the records which were written while that copy took
+   * place are copied while holding the write lock, just before replacing the data file. If the data file was discarded
+   * in the meantime, the compaction is abandoned.
+   */
+  private void compact() throws IOException, ObjectStoreException {
+    final File compactionFile = new File(getPartitionDirectory(), COMPACTION_FILE_NAME);
+    final List<Map.Entry<String, IndexEntry>> snapshot;
+    final FileChannel source;
+    final long snapshotGeneration;
+
+    lock.readLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      snapshot = new ArrayList<>(index.entrySet());
+      source = dataChannel;
+      snapshotGeneration = generation;
+    } finally {
+      lock.readLock().unlock();
+    }
+    snapshot.sort(comparingLong(entry -> entry.getValue().position));
+
+    try (RandomAccessFile target = new RandomAccessFile(compactionFile, "rw")) {
+      FileChannel targetChannel = target.getChannel();
+      targetChannel.truncate(0);
+
+      Map<String, IndexEntry[]> copied = new HashMap<>(snapshot.size() * 2);
+      long targetPosition = 0;
+      try {
+        for (Map.Entry<String, IndexEntry> entry : snapshot) {
+          IndexEntry sourceEntry = entry.getValue();
+          transferFully(source, sourceEntry.position, sourceEntry.length, targetChannel, targetPosition);
+          copied.put(entry.getKey(), new IndexEntry[] {sourceEntry,
+              new IndexEntry(targetPosition, sourceEntry.length, sourceEntry.timestamp)});
+          targetPosition += sourceEntry.length;
+        }
+      } catch (IOException e) {
+        if (isDiscarded(snapshotGeneration)) {
+          // the data file was truncated or closed while being copied
+          return;
+        }
+        throw e;
+      }
+
+      final long sequence;
+      lock.writeLock().lock();
+      try {
+        if (closed || generation != snapshotGeneration) {
+          return;
+        }
+
+        Map<String, IndexEntry> compactedIndex = new HashMap<>(index.size() * 2);
+        long compactedLiveBytes = 0;
+        for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+          IndexEntry[] copy = copied.remove(entry.getKey());
+          IndexEntry current = entry.getValue();
+          if (copy != null && copy[0] == current) {
+            compactedIndex.put(entry.getKey(), copy[1]);
+          } else {
+            // stored while the copy was taking place
+            transferFully(dataChannel, current.position, current.length, targetChannel, targetPosition);
+            compactedIndex.put(entry.getKey(), new IndexEntry(targetPosition, current.length, current.timestamp));
+            targetPosition += current.length;
+          }
+          compactedLiveBytes += current.length;
+        }
+
+        // entries removed while the copy was taking place
+        for (String removedKey : copied.keySet()) {
+          ByteBuffer record = createRecord(REMOVE, removedKey, new byte[0], System.currentTimeMillis());
+          writeFully(targetChannel, record, targetPosition);
+          targetPosition += record.limit();
+        }
+
+        targetChannel.force(false);
+        closeDataFile();
+        Files.move(compactionFile.toPath(), new File(getPartitionDirectory(), DATA_FILE_NAME).toPath(), ATOMIC_MOVE,
+                   REPLACE_EXISTING);
+        dataFile = new RandomAccessFile(new File(getPartitionDirectory(), DATA_FILE_NAME), "rw");
+        dataChannel = dataFile.getChannel();
+
+        index.putAll(compactedIndex);
+        tailPosition = targetPosition;
+        liveBytes = compactedLiveBytes;
+        sequence = writeSequence;
+      } finally {
+        lock.writeLock().unlock();
+      }
+
+      synchronized (syncLock) {
+        syncedSequence = Math.max(syncedSequence, sequence);
+      }
+    } finally {
+      deleteQuietly(compactionFile);
+    }
+  }
+
+  private boolean isDiscarded(long snapshotGeneration) {
+    lock.readLock().lock();
+    try {
+      return closed || generation != snapshotGeneration;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void closeDataFile() {
+    if (dataFile != null) {
+      try {
+        dataFile.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close object store data file", e);
+      }
+      dataFile = null;
+      dataChannel = null;
+    }
+  }
+
+  private static void transferFully(FileChannel source, long position, long length, FileChannel target, long targetPosition)
+      throws IOException {
+    while (length > 0) {
+      long transferred = source.transferTo(position, length, target.position(targetPosition));
+      if (transferred <= 0) {
+        throw new EOFException("Unexpected end of object store data file");
+      }
+      position += transferred;
+      targetPosition += transferred;
+      length -= transferred;
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read == -1) {
+        throw new EOFException("Unexpected end of object store data file");
+      }
+      position += read;
+    }
+  }
+
+  /**
+   * The location of the latest record of a key in the data file
+   */
+  private static class IndexEntry {
+
+    private final long position;
+    private final int length;
+    private final long timestamp;
+
+    private IndexEntry(long position, int length, long timestamp) {
+      this.position = position;
+      this.length = length;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -6,9 +6,13 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.STRIPED_IN_MEMORY_STORE_PROPERTY;
+
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
+import org.mule.runtime.core.internal.store.StripedInMemoryObjectStore;
 
 import java.io.Serializable;
 
@@ -16,6 +20,9 @@ public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory
 
   @Override
   public ObjectStore<Serializable> createDefaultInMemoryObjectStore() {
+    if (getBoolean(STRIPED_IN_MEMORY_STORE_PROPERTY)) {
+      return new StripedInMemoryObjectStore<>();
+    }
     return new PartitionedInMemoryObjectStore<>();
   }
 
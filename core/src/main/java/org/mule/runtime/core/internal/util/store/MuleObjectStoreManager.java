@@ -10,6 +10,7 @@ package org.mule.runtime.core.internal.util.store;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -42,6 +43,24 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
   private static Logger LOGGER = getLogger(MuleObjectStoreManager.class);
   public static final int UNBOUNDED = 0;
 
+  /**
+   * When this system property is set to {@code true}, new partitions of the persistent object stores keep all their entries
+   * in a single {@link LogStructuredObjectStorePartition log structured} data file instead of using a file per entry.
+   * Partitions which already exist keep their format.
+   *
+   * @since 4.4.0
+   */
+  public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructuredPartitions";
+
+  /**
+   * When this system property is set to {@code true}, the default in memory object store is a
+   * {@link org.mule.runtime.core.internal.store.StripedInMemoryObjectStore}, which expires its entries incrementally instead of
+   * sorting them on each expiration.
+   *
+   * @since 4.4.0
+   */
+  public static final String STRIPED_IN_MEMORY_STORE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.stripedInMemory";
+
   private SchedulerService schedulerService;
   private Registry registry;
   private MuleContext muleContext;
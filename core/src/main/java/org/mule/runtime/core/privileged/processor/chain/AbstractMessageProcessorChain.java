@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.privileged.processor.chain;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 import static org.apache.commons.lang3.StringUtils.replace;
@@ -19,6 +20,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.setMuleContextIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.api.rx.Exceptions.propagateWrappingFatal;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStreaming;
@@ -31,8 +33,10 @@ import static org.mule.runtime.core.privileged.processor.MessageProcessors.proce
 import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlingUtils.getLocalOperatorErrorHook;
 import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlingUtils.resolveException;
 import static org.mule.runtime.core.privileged.processor.chain.ChainErrorHandlingUtils.resolveMessagingException;
+import static org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainBuilder.PROCESSOR_CHAIN_FUSION_PROPERTY;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.Exceptions.propagate;
+import static reactor.core.Exceptions.throwIfJvmFatal;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Mono.subscriberContext;
 import static reactor.core.publisher.Operators.lift;
@@ -54,6 +58,7 @@ import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.context.DefaultMuleContext;
@@ -89,6 +94,7 @@ import org.slf4j.Logger;
 
 import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
 import reactor.util.context.Context;
 
 /**
@@ -131,6 +137,8 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   private final ProcessingStrategy processingStrategy;
   private final List<ReactiveInterceptorAdapter> additionalInterceptors = new LinkedList<>();
 
+  private final boolean processorFusion = getBoolean(PROCESSOR_CHAIN_FUSION_PROPERTY);
+
   private boolean canProcessMessage = true;
 
   @Inject
@@ -202,8 +210,19 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   public Publisher<CoreEvent> doApply(Publisher<CoreEvent> publisher,
                                       BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = resolveInterceptors();
+    List<Processor> processorsToExecute = getProcessorsToExecute();
+    boolean fusionEnabled = isFusionEnabled();
     Flux<CoreEvent> stream = from(publisher);
-    for (Processor processor : getProcessorsToExecute()) {
+    int i = 0;
+    while (i < processorsToExecute.size()) {
+      int fusedEnd = fusionEnabled ? getFusableProcessorsEnd(processorsToExecute, i) : i;
+      if (fusedEnd - i > 1) {
+        stream = stream.handle(fuse(processorsToExecute.subList(i, fusedEnd), errorBubbler));
+        i = fusedEnd;
+        continue;
+      }
+
+      Processor processor = processorsToExecute.get(i++);
       // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each processor
       // along with the interceptors that decorate it.
       stream = stream.transform(applyInterceptors(interceptors, processor))
@@ -231,6 +250,100 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     return stream;
   }
 
+  /**
+   * Fusion is only possible when there is nothing that needs to decorate the processors in the reactive stream, other than the
+   * logic of this chain.
+   */
+  private boolean isFusionEnabled() {
+    return processorFusion
+        && additionalInterceptors.isEmpty()
+        && !(processingStrategy != null && muleContext.getConfiguration().isThreadLoggingEnabled());
+  }
+
+  /**
+   * @return the index after the last of the consecutive processors, starting at {@code start}, that may be fused.
+   */
+  private int getFusableProcessorsEnd(List<Processor> processors, int start) {
+    int end = start;
+    while (end < processors.size() && isFusable(processors.get(end))) {
+      ++end;
+    }
+    return end;
+  }
+
+  /**
+   * A processor may be fused if it is {@link ProcessingType#CPU_LITE}, so that the processing strategy does not switch threads
+   * for it, and it is implemented by {@link Processor#process(CoreEvent)} instead of transforming the reactive stream.
+   */
+  private boolean isFusable(Processor processor) {
+    if (processor.getProcessingType() != CPU_LITE) {
+      return false;
+    }
+    try {
+      return processor.getClass().getMethod("apply", Publisher.class).getDeclaringClass() == Processor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Runs the given processors for each event in a single synchronous stage, instead of assembling the reactive operators of each
+   * one of them. Notifications, the thread context and error handling are the same as for the non-fused processors.
+   */
+  private BiConsumer<CoreEvent, SynchronousSink<CoreEvent>> fuse(List<Processor> processors,
+                                                                 BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
+    final Processor[] fusedProcessors = processors.toArray(new Processor[processors.size()]);
+    final List<BiFunction<Throwable, Object, Throwable>> errorHooks = new ArrayList<>(fusedProcessors.length);
+    final List<BiConsumer<Throwable, Object>> errorHandlers = new ArrayList<>(fusedProcessors.length);
+    for (Processor processor : fusedProcessors) {
+      errorHooks.add(getLocalOperatorErrorHook(processor, errorTypeLocator, exceptionContextProviders));
+      errorHandlers.add(getContinueStrategyErrorHandler(processor, errorBubbler));
+    }
+    final Function<CoreEvent, CoreEvent> streamingUpdater = updateEventForStreaming(streamingManager);
+
+    return (event, sink) -> {
+      final Context context = sink.currentContext();
+      CoreEvent current = event;
+      for (int i = 0; i < fusedProcessors.length; ++i) {
+        final Processor processor = fusedProcessors[i];
+        try {
+          if (!canProcessMessage) {
+            throw new MessagingException(current, new LifecycleException(isStopped(name), current.getMessage()));
+          }
+          preNotification(current, processor);
+
+          currentMuleContext.set(muleContext);
+          setCurrentEvent((PrivilegedEvent) current);
+          TCCL_REACTOR_CTX_CONSUMER.accept(context);
+          CoreEvent result;
+          try {
+            result = processor.process(current);
+          } finally {
+            TCCL_ORIGINAL_REACTOR_CTX_CONSUMER.accept(context);
+          }
+          if (result == null) {
+            // same as the default Processor#apply, the event is dropped
+            return;
+          }
+
+          postNotification(processor).accept(result);
+          setCurrentEvent((PrivilegedEvent) result);
+          current = streamingUpdater.apply(result);
+        } catch (Throwable t) {
+          throwIfJvmFatal(t);
+          Throwable resolved = errorHooks.get(i).apply(t, current);
+          if (resolved instanceof LifecycleException) {
+            sink.error(resolved);
+          } else {
+            errorHandlers.get(i).accept(resolved, current);
+          }
+          return;
+        }
+      }
+      sink.next(current);
+    };
+  }
+
   /*
    * Used to process failed events which are dropped from the reactor stream due to error. Errors are processed by invoking the
    * current EventContext error callback.
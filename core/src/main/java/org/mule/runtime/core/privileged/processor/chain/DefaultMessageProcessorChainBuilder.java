@@ -10,6 +10,7 @@ import static java.util.Collections.singletonList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
@@ -25,6 +26,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.processor.InterceptingMessageProcessor;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.processor.ReferenceProcessor;
 import org.mule.runtime.core.privileged.processor.MessageProcessorBuilder;
@@ -53,6 +55,15 @@ import org.slf4j.LoggerFactory;
 @NoExtend
 public class DefaultMessageProcessorChainBuilder extends AbstractMessageProcessorChainBuilder {
 
+  /**
+   * System property to enable the fusion of consecutive {@link ReactiveProcessor.ProcessingType#CPU_LITE} processors of a chain
+   * into a single synchronous stage of the reactive stream, when there are no interceptors that apply to them. Disabled by
+   * default.
+   *
+   * @since 4.4.0
+   */
+  public static final String PROCESSOR_CHAIN_FUSION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "processorChain.fusion";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMessageProcessorChainBuilder.class);
 
   /**
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.privileged.util;
 
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static java.lang.String.format;
 import static org.mule.runtime.api.util.collection.SmallMap.forSize;
 import static org.mule.runtime.api.util.collection.SmallMap.of;
@@ -21,6 +22,7 @@ import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +44,7 @@ public final class TemplateParser {
   private static final String QUOTATION_NOT_CLOSED_ERROR_MSG =
       "\tQuotation (%c) at line %d, column %d is not closed. Remember to use backslash (\\) if you are trying to use that character as a literal";
   private static final String PARSING_TEMPLATE_ERROR = "Error while parsing template:\n";
+  private static final int COMPILED_TEMPLATES_CACHE_SIZE = 1024;
 
   private static final Map<String, PatternInfo> patterns = of(
                                                               ANT_TEMPLATE_STYLE,
@@ -71,7 +74,8 @@ public final class TemplateParser {
   private final int pre;
   private final int post;
   private final PatternInfo style;
-
+  private final LoadingCache<String, CompiledTemplate> compiledTemplates =
+      newBuilder().maximumSize(COMPILED_TEMPLATES_CACHE_SIZE).build(this::doCompile);
 
   public static TemplateParser createAntStyleParser() {
     return new TemplateParser(ANT_TEMPLATE_STYLE);
@@ -120,21 +124,57 @@ public final class TemplateParser {
     return parse(null, template, callback);
   }
 
-  private String parseMule(Map<?, ?> props, String template, TemplateCallback callback, boolean insideExpression) {
+  /**
+   * Splits the given template into literals and the expressions or place holders between them, so that it can be rendered
+   * many times without parsing it again. Compiled templates are cached, so compiling the same template again is cheap.
+   *
+   * @param template the string containing the template place holders i.e. My name is ${name}
+   * @return the compiled template
+   * @throws IllegalArgumentException if the template is not valid for the style of this parser
+   * @since 4.4.0
+   */
+  public CompiledTemplate compile(String template) {
+    return compiledTemplates.get(template);
+  }
+
+  private CompiledTemplate doCompile(String template) {
+    return styleIs(WIGGLY_MULE_TEMPLATE_STYLE) ? compileMule(template, false) : compilePlaceHolders(template);
+  }
+
+  private CompiledTemplate compilePlaceHolders(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> placeHolders = new ArrayList<>();
+
+    Matcher m = pattern.matcher(template);
+    int literalStart = 0;
+    while (m.find()) {
+      literals.add(template.substring(literalStart, m.start()));
+      placeHolders.add(template.substring(m.start() + pre, m.end() - post));
+      literalStart = m.end();
+    }
+    literals.add(template.substring(literalStart));
+
+    return new CompiledTemplate(this, template, literals, placeHolders);
+  }
+
+  private CompiledTemplate compileMule(String template, boolean insideExpression) {
     validateBalanceMuleStyle(template);
 
+    List<String> literals = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+
     boolean lastIsBackSlash = false;
     boolean lastStartedExpression = false;
     boolean inExpression = insideExpression;
     boolean openSingleQuotes = false;
 
-    StringBuilder result = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
     int currentPosition = 0;
     while (currentPosition < template.length()) {
       char c = template.charAt(currentPosition);
 
       if (lastStartedExpression && c != OPEN_EXPRESSION) {
-        result.append(START_EXPRESSION);
+        literal.append(START_EXPRESSION);
       }
       if (lastStartedExpression && c == OPEN_EXPRESSION) {
         inExpression = true;
@@ -145,7 +185,7 @@ public final class TemplateParser {
 
       if (lastIsBackSlash) {
         if ((inExpression ? c != '\'' && c != '"' : true) && c != START_EXPRESSION) {
-          result.append("\\");
+          literal.append("\\");
         }
       } else {
         if (c == '\'') {
@@ -155,30 +195,57 @@ public final class TemplateParser {
 
       if (c == OPEN_EXPRESSION && lastStartedExpression && (!insideExpression || !openSingleQuotes)) {
         int closing = closingBracesPosition(template, currentPosition);
-        String enclosingTemplate = template.substring(currentPosition + 1, closing);
 
-        Object value = enclosingTemplate;
-        if (callback != null) {
-          value = callback.match(enclosingTemplate);
-          if (value == null) {
-            value = NULL_AS_STRING;
-          } else {
-            value = parseMule(props, escapeValue(enclosingTemplate, value.toString()), callback, value.equals(enclosingTemplate));
-          }
-        }
-        result.append(value);
+        literals.add(literal.toString());
+        literal.setLength(0);
+        expressions.add(template.substring(currentPosition + 1, closing));
 
         currentPosition = closing;
       } else if ((c != START_EXPRESSION || lastIsBackSlash) && c != '\\') {
-        result.append(c);
+        literal.append(c);
       }
 
       lastStartedExpression = !lastIsBackSlash && c == START_EXPRESSION;
       lastIsBackSlash = c == '\\';
       currentPosition++;
     }
+    literals.add(literal.toString());
 
-    return result.toString();
+    return new CompiledTemplate(this, template, literals, expressions);
+  }
+
+  private Object resolveMule(Map<?, ?> props, String expression, TemplateCallback callback) {
+    if (callback == null) {
+      return expression;
+    }
+
+    Object value = callback.match(expression);
+    if (value == null) {
+      return NULL_AS_STRING;
+    }
+
+    // the value of an expression is parsed as a template itself, so it cannot be compiled beforehand
+    return compileMule(escapeValue(expression, value.toString()), value.equals(expression)).render(props, callback);
+  }
+
+  private Object resolvePlaceHolder(Map<?, ?> props, String placeHolder, TemplateCallback callback) {
+    Object value = null;
+    if (callback != null) {
+      value = callback.match(placeHolder);
+      if (value == null) {
+        value = NULL_AS_STRING;
+      }
+    } else if (props != null) {
+      value = props.get(placeHolder);
+    }
+
+    if (value == null) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Value " + placeHolder + " not found in context");
+      }
+      return style.getPrefix() + placeHolder + style.getSuffix();
+    }
+    return value;
   }
 
   private int closingBracesPosition(String template, int startingPosition) {
@@ -214,46 +281,7 @@ public final class TemplateParser {
   }
 
   protected String parse(Map<?, ?> props, String template, TemplateCallback callback) {
-    if (styleIs(WIGGLY_MULE_TEMPLATE_STYLE)) {
-      return parseMule(props, template, callback, false);
-    }
-    String result = template;
-    Map<?, ?> newProps = props;
-    if (props != null && !(props instanceof CaseInsensitiveHashMap)) {
-      newProps = new CaseInsensitiveHashMap(props);
-    }
-
-    Matcher m = pattern.matcher(result);
-
-    while (m.find()) {
-      Object value = null;
-
-      String match = m.group();
-      String propname = match.substring(pre, match.length() - post);
-
-      if (callback != null) {
-        value = callback.match(propname);
-        if (value == null) {
-          value = NULL_AS_STRING;
-        }
-      } else if (newProps != null) {
-        value = newProps.get(propname);
-      }
-
-      if (value == null) {
-        if (logger.isDebugEnabled()) {
-          logger.debug("Value " + propname + " not found in context");
-        }
-      } else {
-        String matchRegex = Pattern.quote(match);
-        String valueString = value.toString();
-        valueString = replaceBackSlash(valueString);
-        valueString = replaceDollarSign(valueString);
-
-        result = result.replaceAll(matchRegex, valueString);
-      }
-    }
-    return result;
+    return compile(template).render(props, callback);
   }
 
   private boolean styleIs(String style) {
@@ -341,21 +369,6 @@ public final class TemplateParser {
     throw new IllegalArgumentException(errorMsg);
   }
 
-  private String replaceDollarSign(String valueString) {
-    if (valueString.indexOf('$') != -1) {
-      valueString = valueString.replace("$", "\\$");
-    }
-    return valueString;
-  }
-
-  private String replaceBackSlash(String valueString) {
-
-    if (valueString.indexOf("\\") != -1) {
-      valueString = valueString.replace("\\", "\\\\");
-    }
-    return valueString;
-  }
-
   /**
    * Matches one or more templates against a Map of key value pairs. If a value for a template is not found in the map the
    * template is left as is in the return String
@@ -428,6 +441,95 @@ public final class TemplateParser {
     style.validate(expression);
   }
 
+  /**
+   * A template split into literals and the expressions or place holders between them, which is rendered in a single pass.
+   * <p>
+   * Instances are immutable and can be rendered concurrently.
+   *
+   * @since 4.4.0
+   */
+  public static final class CompiledTemplate {
+
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final TemplateParser parser;
+    private final String template;
+    private final boolean muleStyle;
+    private final String[] literals;
+    private final String[] expressions;
+    private final int estimatedLength;
+
+    private CompiledTemplate(TemplateParser parser, String template, List<String> literals, List<String> expressions) {
+      this.parser = parser;
+      this.template = template;
+      this.muleStyle = parser.styleIs(WIGGLY_MULE_TEMPLATE_STYLE);
+      this.literals = literals.toArray(new String[literals.size()]);
+      this.expressions = expressions.toArray(new String[expressions.size()]);
+
+      int literalsLength = 0;
+      for (String literal : literals) {
+        literalsLength += literal.length();
+      }
+      this.estimatedLength = literalsLength + this.expressions.length * ESTIMATED_VALUE_LENGTH;
+    }
+
+    /**
+     * @param callback a callback used to resolve the expressions or property names
+     * @return the rendered template
+     */
+    public String render(TemplateCallback callback) {
+      return render(null, callback);
+    }
+
+    /**
+     * @param props the key/value pairs to resolve the property names against
+     * @return the rendered template
+     */
+    public String render(Map<?, ?> props) {
+      return render(props, null);
+    }
+
+    /**
+     * Renders the template appending it to the given builder, so that it can be reused across renders.
+     *
+     * @param callback a callback used to resolve the expressions or property names
+     * @param builder  the builder to append the rendered template to
+     * @return the given {@code builder}
+     */
+    public StringBuilder render(TemplateCallback callback, StringBuilder builder) {
+      return render(null, callback, builder);
+    }
+
+    private String render(Map<?, ?> props, TemplateCallback callback) {
+      if (expressions.length == 0) {
+        return literals[0];
+      }
+      return render(props, callback, new StringBuilder(estimatedLength)).toString();
+    }
+
+    private StringBuilder render(Map<?, ?> props, TemplateCallback callback, StringBuilder builder) {
+      if (!muleStyle && props != null && !(props instanceof CaseInsensitiveHashMap)) {
+        props = new CaseInsensitiveHashMap(props);
+      }
+
+      builder.append(literals[0]);
+      for (int i = 0; i < expressions.length; i++) {
+        builder.append(muleStyle
+            ? parser.resolveMule(props, expressions[i], callback)
+            : parser.resolvePlaceHolder(props, expressions[i], callback));
+        builder.append(literals[i + 1]);
+      }
+      return builder;
+    }
+
+    /**
+     * @return the template this was compiled from
+     */
+    public String getTemplate() {
+      return template;
+    }
+  }
+
   @FunctionalInterface
   public interface TemplateCallback {
 
@@ -6,21 +6,27 @@
  */
 package org.mule.runtime.module.artifact.api.classloader;
 
+import static java.io.File.separator;
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.toHexString;
 import static java.lang.String.format;
 import static java.lang.System.identityHashCode;
 import static java.lang.reflect.Modifier.isAbstract;
 import static org.apache.commons.io.FilenameUtils.normalize;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor.MULE_ARTIFACT_FOLDER;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.module.artifact.classloader.ClassLoaderResourceReleaser;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
 import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+import org.mule.runtime.module.artifact.internal.classloader.ClassLoaderResourceIndex;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -49,6 +55,17 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
 
   private static final Logger LOGGER = getLogger(MuleArtifactClassLoader.class);
 
+  /**
+   * When set, each artifact class loader indexes the resources in its jar files, so that lookups of resources and classes it
+   * does not have are answered without scanning them. The index is persisted in the artifact folder and reused when the artifact
+   * is deployed again.
+   *
+   * @since 4.4.0
+   */
+  public static final String RESOURCE_INDEX_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloader.resourceIndex";
+
+  static final String RESOURCE_INDEX_FILE = MULE_ARTIFACT_FOLDER + separator + "classloader-resources.idx";
+
   private static final String DEFAULT_RESOURCE_RELEASER_CLASS_LOCATION =
       "/org/mule/module/artifact/classloader/JdbcResourceReleaser.class";
 
@@ -56,6 +73,7 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
   static final String PATH_SEPARATOR = "/";
   static final String RESOURCE_PREFIX = "resource::";
   static final String WILDCARD = "*";
+  static final String CLASS_EXTENSION = ".class";
 
   private static final String NO_WILDCARD = "([^\\" + WILDCARD + "]+)";
   private static final String NO_WILDCARD_NO_SPACES = "([^\\" + WILDCARD + "|\\s]+)";
@@ -101,6 +119,9 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
   private ArtifactDescriptor artifactDescriptor;
   private final Object descriptorMappingLock = new Object();
   private Map<BundleDescriptor, URLClassLoader> descriptorMapping = new HashMap<>();
+  private final boolean resourceIndexEnabled = getBoolean(RESOURCE_INDEX_PROPERTY);
+  private final Object resourceIndexLock = new Object();
+  private volatile Optional<ClassLoaderResourceIndex> resourceIndex;
 
   /**
    * Constructs a new {@link MuleArtifactClassLoader} for the given URLs
@@ -196,7 +217,38 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
         }
       }
     }
-    return super.findResource(name);
+    return mightContainResource(name) ? super.findResource(name) : null;
+  }
+
+  @Override
+  public Class<?> findLocalClass(String name) throws ClassNotFoundException {
+    // classes defined by other means than reading them from the URLs are not in the index
+    if (findLoadedClass(name) == null && !mightContainResource(name.replace('.', '/') + CLASS_EXTENSION)) {
+      throw new ClassNotFoundException(name);
+    }
+    return super.findLocalClass(name);
+  }
+
+  private boolean mightContainResource(String name) {
+    if (!resourceIndexEnabled) {
+      return true;
+    }
+
+    Optional<ClassLoaderResourceIndex> index = getResourceIndex();
+    return !index.isPresent() || index.get().mightContain(name);
+  }
+
+  private Optional<ClassLoaderResourceIndex> getResourceIndex() {
+    if (resourceIndex == null) {
+      synchronized (resourceIndexLock) {
+        if (resourceIndex == null) {
+          File rootFolder = artifactDescriptor.getRootFolder();
+          File indexFile = rootFolder != null && rootFolder.isDirectory() ? new File(rootFolder, RESOURCE_INDEX_FILE) : null;
+          resourceIndex = ClassLoaderResourceIndex.forUrls(getURLs(), indexFile);
+        }
+      }
+    }
+    return resourceIndex;
   }
 
   private String asPath(BundleDescriptor descriptor) {
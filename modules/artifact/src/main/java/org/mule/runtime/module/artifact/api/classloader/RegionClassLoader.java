@@ -7,11 +7,13 @@
 
 package org.mule.runtime.module.artifact.api.classloader;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.toHexString;
 import static java.lang.String.format;
 import static java.lang.System.identityHashCode;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.io.FilenameUtils.normalize;
 import static org.apache.commons.lang3.ClassUtils.getPackageName;
@@ -38,6 +40,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -68,8 +71,8 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
     registerAsParallelCapable();
   }
 
-  private static final String CLASS_EXTENSION = ".class";
   private static final Logger LOGGER = getLogger(RegionClassLoader.class);
+  private static final int MAX_MISSING_RESOURCES = 4096;
 
   private final ReadWriteLock innerStateRWLock = new ReentrantReadWriteLock();
   private final Lock innerStateReadLock = innerStateRWLock.readLock();
@@ -80,6 +83,12 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
   private final Map<String, List<ArtifactClassLoader>> resourceMapping = new HashMap<>();
   private final Object descriptorMappingLock = new Object();
   private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new HashMap<>();
+  // names of the resources that were not found in the region, which are probed over and over by some libraries
+  private final boolean missingResourcesCacheEnabled = getBoolean(RESOURCE_INDEX_PROPERTY);
+  private final Set<String> missingResources = newKeySet();
+  private volatile int membersVersion = 0;
+  // resources may be added to a folder at any time, so misses are not cached once a member loads resources from one
+  private volatile boolean folderMembers = false;
 
   private ArtifactClassLoader ownerClassLoader;
 
@@ -182,11 +191,30 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
             resourceMapping.computeIfAbsent(packageAsDirectory + PATH_SEPARATOR, k -> new ArrayList<>());
         classLoaders.add(artifactClassLoader);
       }
+
+      if (!folderMembers && loadsFromFolders(artifactClassLoader)) {
+        folderMembers = true;
+      }
+      membersVersion++;
+      missingResources.clear();
     } finally {
       innerStateWriteLock.unlock();
     }
   }
 
+  private static boolean loadsFromFolders(ArtifactClassLoader artifactClassLoader) {
+    ClassLoader classLoader = artifactClassLoader.getClassLoader();
+    if (classLoader instanceof URLClassLoader) {
+      for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+        // as URLClassLoader does, URLs ending with a slash are folders, others are jar files which do not change
+        if (url.getPath().endsWith("/")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   static String illegalPackageMappingError(String p, LookupStrategy packageLookupStrategy) {
     return format("Attempt to map package '%s' which was already defined on the region lookup policy with '%s'",
                   p, packageLookupStrategy.getClass().getName());
@@ -270,6 +298,30 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
   @Override
   public final URL findResource(final String name) {
+    if (!missingResourcesCacheEnabled || folderMembers) {
+      return findRegionResource(name);
+    }
+
+    if (missingResources.contains(name)) {
+      return null;
+    }
+
+    final int version = membersVersion;
+    URL url = findRegionResource(name);
+    if (url == null) {
+      if (missingResources.size() >= MAX_MISSING_RESOURCES) {
+        missingResources.clear();
+      }
+      missingResources.add(name);
+      // a class loader may have been added to the region concurrently, after the lookup
+      if (membersVersion != version) {
+        missingResources.remove(name);
+      }
+    }
+    return url;
+  }
+
+  private URL findRegionResource(final String name) {
     String normalizedName = normalize(name, true);
     // Check exported resources and all matching artifacts
     final List<ArtifactClassLoader> artifactClassLoaders = resourceMapping.get(normalizedName);
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static java.io.File.separatorChar;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.slf4j.Logger;
+
+/**
+ * Index of the resources available from the URLs of a class loader, used to tell that a resource is not available without
+ * scanning every jar file of the class loader.
+ * <p>
+ * The entries of the jar files are indexed, since they don't change while the artifact is deployed. Folders may change, so they
+ * are checked on each lookup, which only takes a file existence check per folder.
+ * <p>
+ * The index can be persisted, along with the size and last modification time of the indexed jar files, so that it can be reused
+ * when the same artifact is deployed again.
+ *
+ * @since 4.4.0
+ */
+public final class ClassLoaderResourceIndex {
+
+  private static final Logger LOGGER = getLogger(ClassLoaderResourceIndex.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String FILE_PROTOCOL = "file";
+
+  private final List<File> folders;
+  private final Set<String> jarEntries;
+
+  private ClassLoaderResourceIndex(List<File> folders, Set<String> jarEntries) {
+    this.folders = folders;
+    this.jarEntries = jarEntries;
+  }
+
+  /**
+   * Creates the index for the given URLs, reusing the one persisted in the given file if it was created for the same URLs and
+   * none of the jar files changed since. If the index is created, it is persisted into that file.
+   *
+   * @param urls      the URLs of the class loader to index
+   * @param indexFile the file where the index is persisted. May be null, in which case it is not persisted.
+   * @return the index, or an empty {@link Optional} if the URLs cannot be indexed because they are not local files or some jar
+   *         file references other jar files through its manifest.
+   */
+  public static Optional<ClassLoaderResourceIndex> forUrls(URL[] urls, File indexFile) {
+    final List<File> files = new ArrayList<>(urls.length);
+    for (URL url : urls) {
+      if (!FILE_PROTOCOL.equals(url.getProtocol())) {
+        return empty();
+      }
+      try {
+        files.add(new File(url.toURI()));
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        return empty();
+      }
+    }
+
+    final long[] stamps = stampsOf(files);
+    if (indexFile != null && indexFile.exists()) {
+      ClassLoaderResourceIndex persisted = read(indexFile, files, stamps);
+      if (persisted != null) {
+        return of(persisted);
+      }
+    }
+
+    final Optional<ClassLoaderResourceIndex> index = create(files);
+    if (index.isPresent() && indexFile != null) {
+      index.get().write(indexFile, files, stamps);
+    }
+    return index;
+  }
+
+  private static Optional<ClassLoaderResourceIndex> create(List<File> files) {
+    final List<File> folders = new ArrayList<>();
+    final Set<String> jarEntries = new HashSet<>();
+
+    for (File file : files) {
+      if (file.isDirectory()) {
+        folders.add(file);
+      } else if (file.isFile()) {
+        try (JarFile jarFile = new JarFile(file, false)) {
+          Manifest manifest = jarFile.getManifest();
+          if (manifest != null && manifest.getMainAttributes().getValue(CLASS_PATH) != null) {
+            // the referenced jar files are opened lazily by the class loader
+            return empty();
+          }
+
+          Enumeration<? extends ZipEntry> entries = jarFile.entries();
+          while (entries.hasMoreElements()) {
+            addJarEntry(jarEntries, entries.nextElement().getName());
+          }
+        } catch (IOException e) {
+          LOGGER.debug("Cannot index the entries of '{}'", file, e);
+          return empty();
+        }
+      }
+    }
+
+    return of(new ClassLoaderResourceIndex(folders, jarEntries));
+  }
+
+  private static void addJarEntry(Set<String> jarEntries, String name) {
+    jarEntries.add(name);
+    // folders are found with and without the trailing slash, even if the jar file has no entry for them
+    int end = name.length();
+    if (name.endsWith("/")) {
+      end--;
+      jarEntries.add(name.substring(0, end));
+    }
+    int slash = name.lastIndexOf('/', end - 1);
+    while (slash > 0 && jarEntries.add(name.substring(0, slash))) {
+      jarEntries.add(name.substring(0, slash + 1));
+      slash = name.lastIndexOf('/', slash - 1);
+    }
+  }
+
+  /**
+   * @param name the name of a resource
+   * @return {@code false} if the resource is not available from the indexed URLs, {@code true} if it may be.
+   */
+  public boolean mightContain(String name) {
+    if (!isIndexable(name)) {
+      return true;
+    }
+
+    if (jarEntries.contains(name)) {
+      return true;
+    }
+
+    if (!folders.isEmpty()) {
+      String path = separatorChar == '/' ? name : name.replace('/', separatorChar);
+      for (File folder : folders) {
+        if (new File(folder, path).exists()) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * @return the amount of indexed jar entries
+   */
+  public int size() {
+    return jarEntries.size();
+  }
+
+  private static boolean isIndexable(String name) {
+    // names which the class loader would resolve in a different way than the jar files are looked up
+    return !name.isEmpty() && name.charAt(0) != '/' && name.indexOf('\\') < 0 && !name.contains("//")
+        && !name.contains("./");
+  }
+
+  private static long[] stampsOf(List<File> files) {
+    final long[] stamps = new long[files.size() * 2];
+    for (int i = 0; i < files.size(); ++i) {
+      File file = files.get(i);
+      // folders are not indexed, so their changes do not make the index stale
+      boolean isJar = file.isFile();
+      stamps[i * 2] = isJar ? file.length() : -1;
+      stamps[i * 2 + 1] = isJar ? file.lastModified() : -1;
+    }
+    return stamps;
+  }
+
+  private static ClassLoaderResourceIndex read(File indexFile, List<File> files, long[] stamps) {
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (input.readInt() != FORMAT_VERSION || input.readInt() != files.size()) {
+        return null;
+      }
+      final long[] persistedStamps = new long[files.size() * 2];
+      for (int i = 0; i < files.size(); ++i) {
+        if (!files.get(i).getPath().equals(input.readUTF())) {
+          return null;
+        }
+        persistedStamps[i * 2] = input.readLong();
+        persistedStamps[i * 2 + 1] = input.readLong();
+      }
+      if (!Arrays.equals(stamps, persistedStamps)) {
+        return null;
+      }
+
+      final List<File> folders = new ArrayList<>();
+      for (File file : files) {
+        if (file.isDirectory()) {
+          folders.add(file);
+        }
+      }
+
+      final int entriesCount = input.readInt();
+      final Set<String> jarEntries = new HashSet<>(entriesCount * 4 / 3 + 1);
+      for (int i = 0; i < entriesCount; ++i) {
+        jarEntries.add(input.readUTF());
+      }
+      return new ClassLoaderResourceIndex(folders, jarEntries);
+    } catch (IOException e) {
+      LOGGER.debug("Cannot read the resource index from '{}'", indexFile, e);
+      return null;
+    }
+  }
+
+  private void write(File indexFile, List<File> files, long[] stamps) {
+    // writes to a temporary file first, so that a concurrent reader never sees a partial index
+    final File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+    try {
+      indexFile.getParentFile().mkdirs();
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(files.size());
+        for (int i = 0; i < files.size(); ++i) {
+          output.writeUTF(files.get(i).getPath());
+          output.writeLong(stamps[i * 2]);
+          output.writeLong(stamps[i * 2 + 1]);
+        }
+        output.writeInt(jarEntries.size());
+        for (String jarEntry : jarEntries) {
+          output.writeUTF(jarEntry);
+        }
+      }
+      if (!tempFile.renameTo(indexFile) && (!indexFile.delete() || !tempFile.renameTo(indexFile))) {
+        throw new IOException("Cannot rename " + tempFile + " to " + indexFile);
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Cannot persist the resource index into '{}'", indexFile, e);
+      tempFile.delete();
+    }
+  }
+}
@@ -9,6 +9,8 @@ package org.mule.runtime.module.artifact.api.classloader;
 
 import static com.google.common.collect.Sets.newHashSet;
 import static java.lang.String.format;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.list;
 import static java.util.Collections.singleton;
@@ -18,6 +20,8 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -28,6 +32,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.artifact.api.classloader.ChildFirstLookupStrategy.CHILD_FIRST;
 import static org.mule.runtime.module.artifact.api.classloader.DefaultArtifactClassLoaderFilter.NULL_CLASSLOADER_FILTER;
+import static org.mule.runtime.module.artifact.api.classloader.MuleArtifactClassLoader.RESOURCE_INDEX_PROPERTY;
 import static org.mule.runtime.module.artifact.api.classloader.ParentFirstLookupStrategy.PARENT_FIRST;
 import static org.mule.runtime.module.artifact.api.classloader.RegionClassLoader.REGION_OWNER_CANNOT_BE_REMOVED_ERROR;
 import static org.mule.runtime.module.artifact.api.classloader.RegionClassLoader.createCannotRemoveClassLoaderError;
@@ -44,6 +49,7 @@ import org.mule.runtime.module.artifact.api.descriptor.ClassLoaderModel;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.util.EnumerationMatcher;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -59,6 +65,7 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 public class RegionClassLoaderTestCase extends AbstractMuleTestCase {
 
@@ -104,6 +111,9 @@ public class RegionClassLoaderTestCase extends AbstractMuleTestCase {
   @Rule
   public ExpectedException expectedException = none();
 
+  @Rule
+  public TemporaryFolder resourcesFolder = new TemporaryFolder();
+
   public RegionClassLoaderTestCase() throws MalformedURLException {
     PARENT_LOADED_RESOURCE = new URL("file:///parent.txt");
     APP_LOADED_RESOURCE = new URL("file:///app.txt");
@@ -471,6 +481,56 @@ public class RegionClassLoaderTestCase extends AbstractMuleTestCase {
     assertThat(resource, is(PLUGIN_LOADED_RESOURCE));
   }
 
+  @Test
+  public void cachesMissingResourcesUntilClassLoaderIsAdded() {
+    final ClassLoader parentClassLoader = mock(ClassLoader.class);
+    RegionClassLoader regionClassLoader;
+    setProperty(RESOURCE_INDEX_PROPERTY, "true");
+    try {
+      regionClassLoader = new RegionClassLoader(ARTIFACT_ID, artifactDescriptor, parentClassLoader, lookupPolicy);
+    } finally {
+      clearProperty(RESOURCE_INDEX_PROPERTY);
+    }
+    createClassLoaders(parentClassLoader);
+
+    regionClassLoader.addClassLoader(appClassLoader, NULL_CLASSLOADER_FILTER);
+    regionClassLoader.addClassLoader(pluginClassLoader, new DefaultArtifactClassLoaderFilter(emptySet(), singleton(RESOURCE_NAME)));
+    assertThat(regionClassLoader.findResource(RESOURCE_NAME), is(nullValue()));
+
+    pluginClassLoader.addResource(RESOURCE_NAME, PLUGIN_LOADED_RESOURCE);
+    assertThat(regionClassLoader.findResource(RESOURCE_NAME), is(nullValue()));
+
+    regionClassLoader.addClassLoader(new TestArtifactClassLoader(parentClassLoader), NULL_CLASSLOADER_FILTER);
+    assertThat(regionClassLoader.findResource(RESOURCE_NAME), is(PLUGIN_LOADED_RESOURCE));
+  }
+
+  @Test
+  public void doesNotCacheMissingResourcesOfFolderMembers() throws Exception {
+    final ClassLoader parentClassLoader = mock(ClassLoader.class);
+    RegionClassLoader regionClassLoader;
+    MuleArtifactClassLoader folderClassLoader;
+    setProperty(RESOURCE_INDEX_PROPERTY, "true");
+    try {
+      regionClassLoader = new RegionClassLoader(ARTIFACT_ID, artifactDescriptor, parentClassLoader, lookupPolicy);
+      folderClassLoader = new MuleArtifactClassLoader("folderPlugin", new ArtifactDescriptor("folderPlugin"),
+                                                      new URL[] {resourcesFolder.getRoot().toURI().toURL()},
+                                                      parentClassLoader, lookupPolicy);
+    } finally {
+      clearProperty(RESOURCE_INDEX_PROPERTY);
+    }
+    createClassLoaders(parentClassLoader);
+
+    regionClassLoader.addClassLoader(appClassLoader, NULL_CLASSLOADER_FILTER);
+    regionClassLoader.addClassLoader(folderClassLoader,
+                                     new DefaultArtifactClassLoaderFilter(emptySet(), singleton(RESOURCE_NAME)));
+    assertThat(regionClassLoader.findResource(RESOURCE_NAME), is(nullValue()));
+
+    File resource = resourcesFolder.newFile(RESOURCE_NAME);
+    URL foundResource = regionClassLoader.findResource(RESOURCE_NAME);
+    assertThat(foundResource, is(notNullValue()));
+    assertThat(new File(foundResource.toURI()).getName(), is(resource.getName()));
+  }
+
   @Test
   public void findsExportedResourceFromSpecificArtifact() {
     getResourceFromExportingArtifact(format(SPECIFIC_RESOURCE_FORMAT, ARTIFACT_VERSION, "mule-plugin", "jar", RESOURCE_NAME),
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static java.util.jar.Attributes.Name.MANIFEST_VERSION;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ClassLoaderResourceIndexTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void indexesJarEntriesAndParentFolders() throws Exception {
+    File jarFile = createJar("lib.jar", null, "org/foo/Foo.class", "META-INF/services/org.foo.Service");
+
+    ClassLoaderResourceIndex index = ClassLoaderResourceIndex.forUrls(new URL[] {jarFile.toURI().toURL()}, null).get();
+
+    assertThat(index.mightContain("org/foo/Foo.class"), is(true));
+    assertThat(index.mightContain("org/foo"), is(true));
+    assertThat(index.mightContain("org/foo/"), is(true));
+    assertThat(index.mightContain("org"), is(true));
+    assertThat(index.mightContain("META-INF/services/org.foo.Service"), is(true));
+    assertThat(index.mightContain("org/foo/Bar.class"), is(false));
+    assertThat(index.mightContain("log4j2-test.xml"), is(false));
+  }
+
+  @Test
+  public void looksUpFoldersOnEachRequest() throws Exception {
+    File folder = temporaryFolder.newFolder("classes");
+    writeStringToFile(new File(folder, "config/app.properties"), "foo=bar");
+
+    ClassLoaderResourceIndex index = ClassLoaderResourceIndex.forUrls(new URL[] {folder.toURI().toURL()}, null).get();
+
+    assertThat(index.mightContain("config/app.properties"), is(true));
+    assertThat(index.mightContain("config/other.properties"), is(false));
+
+    writeStringToFile(new File(folder, "config/other.properties"), "foo=bar");
+    assertThat(index.mightContain("config/other.properties"), is(true));
+  }
+
+  @Test
+  public void doesNotAnswerForNamesResolvedDifferentlyByTheClassLoader() throws Exception {
+    File jarFile = createJar("lib.jar", null, "org/foo/Foo.class");
+
+    ClassLoaderResourceIndex index = ClassLoaderResourceIndex.forUrls(new URL[] {jarFile.toURI().toURL()}, null).get();
+
+    assertThat(index.mightContain("/org/bar/Bar.class"), is(true));
+    assertThat(index.mightContain("org/../bar.txt"), is(true));
+    assertThat(index.mightContain(""), is(true));
+  }
+
+  @Test
+  public void reusesPersistedIndex() throws Exception {
+    File jarFile = createJar("lib.jar", null, "org/foo/Foo.class");
+    File indexFile = new File(temporaryFolder.getRoot(), "index/resources.idx");
+    URL[] urls = new URL[] {jarFile.toURI().toURL()};
+
+    ClassLoaderResourceIndex.forUrls(urls, indexFile).get();
+    assertThat(indexFile.exists(), is(true));
+    long lastModified = indexFile.lastModified();
+
+    ClassLoaderResourceIndex index = ClassLoaderResourceIndex.forUrls(urls, indexFile).get();
+    assertThat(index.mightContain("org/foo/Foo.class"), is(true));
+    assertThat(index.mightContain("org/foo/Bar.class"), is(false));
+    assertThat(indexFile.lastModified(), is(lastModified));
+  }
+
+  @Test
+  public void rebuildsPersistedIndexWhenJarChanges() throws Exception {
+    File jarFile = createJar("lib.jar", null, "org/foo/Foo.class");
+    File indexFile = new File(temporaryFolder.getRoot(), "resources.idx");
+    URL[] urls = new URL[] {jarFile.toURI().toURL()};
+
+    ClassLoaderResourceIndex.forUrls(urls, indexFile).get();
+
+    jarFile.delete();
+    createJar("lib.jar", null, "org/foo/Foo.class", "org/foo/Bar.class");
+    jarFile.setLastModified(jarFile.lastModified() + 2000);
+
+    ClassLoaderResourceIndex index = ClassLoaderResourceIndex.forUrls(urls, indexFile).get();
+    assertThat(index.mightContain("org/foo/Bar.class"), is(true));
+  }
+
+  @Test
+  public void rebuildsPersistedIndexForOtherUrls() throws Exception {
+    File jarFile = createJar("lib.jar", null, "org/foo/Foo.class");
+    File otherJarFile = createJar("other.jar", null, "org/bar/Bar.class");
+    File indexFile = new File(temporaryFolder.getRoot(), "resources.idx");
+
+    ClassLoaderResourceIndex.forUrls(new URL[] {jarFile.toURI().toURL()}, indexFile).get();
+
+    ClassLoaderResourceIndex index =
+        ClassLoaderResourceIndex.forUrls(new URL[] {jarFile.toURI().toURL(), otherJarFile.toURI().toURL()}, indexFile).get();
+    assertThat(index.mightContain("org/bar/Bar.class"), is(true));
+  }
+
+  @Test
+  public void cannotIndexJarReferencingOtherJars() throws Exception {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(CLASS_PATH, "other.jar");
+    File jarFile = createJar("lib.jar", manifest, "org/foo/Foo.class");
+
+    assertThat(ClassLoaderResourceIndex.forUrls(new URL[] {jarFile.toURI().toURL()}, null).isPresent(), is(false));
+  }
+
+  @Test
+  public void cannotIndexRemoteUrls() throws Exception {
+    assertThat(ClassLoaderResourceIndex.forUrls(new URL[] {new URL("http://localhost/lib.jar")}, null).isPresent(), is(false));
+  }
+
+  private File createJar(String name, Manifest manifest, String... entries) throws IOException {
+    File jarFile = new File(temporaryFolder.getRoot(), name);
+    try (JarOutputStream output = manifest == null ? new JarOutputStream(new FileOutputStream(jarFile))
+        : new JarOutputStream(new FileOutputStream(jarFile), manifest)) {
+      for (String entry : entries) {
+        output.putNextEntry(new ZipEntry(entry));
+        output.write(entry.getBytes());
+        output.closeEntry();
+      }
+    }
+    return jarFile;
+  }
+}
@@ -7,28 +7,46 @@
 
 package org.mule.runtime.module.deployment.impl.internal.artifact;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.stream.Collectors.toSet;
 import static org.mule.runtime.api.dsl.DslResolvingContext.getDefault;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+
 import org.mule.runtime.api.deployment.meta.MulePluginModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.core.api.extension.MuleExtensionModelProvider;
 import org.mule.runtime.core.api.registry.SpiServiceRegistry;
 import org.mule.runtime.core.api.extension.RuntimeExtensionModelProvider;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
 import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
 import org.mule.runtime.deployment.model.api.plugin.LoaderDescriber;
 import org.mule.runtime.extension.api.loader.ExtensionModelLoader;
 import org.mule.runtime.module.artifact.api.classloader.ArtifactClassLoader;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDependency;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
 import org.mule.runtime.module.extension.internal.loader.ExtensionModelLoaderRepository;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Discover the {@link ExtensionModel} based on the {@link ExtensionModelLoader} type.
@@ -37,6 +55,22 @@ import java.util.Set;
  */
 public class ExtensionModelDiscoverer {
 
+  /**
+   * System property to discover the {@link ExtensionModel}s of the plugins of an artifact in parallel. Each plugin is still
+   * discovered after the plugins it depends on, but only the {@link ExtensionModel}s of the plugins it declares as dependencies,
+   * directly or transitively, are available to it, instead of the ones of every plugin discovered before it.
+   */
+  public static final String PARALLEL_EXTENSION_MODEL_DISCOVERY_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "extensionModels.parallelDiscovery";
+
+  /**
+   * The {@link ExtensionModel}s provided by the container, which are the same for every artifact. The classes of the container
+   * are never unloaded, so they are not released.
+   */
+  private static final Map<Class<?>, ExtensionModel> CONTAINER_EXTENSION_MODELS = new ConcurrentHashMap<>();
+
+  private final boolean parallelDiscovery = getBoolean(PARALLEL_EXTENSION_MODEL_DISCOVERY_PROPERTY);
+
   /**
    * For each artifactPlugin discovers the {@link ExtensionModel}.
    *
@@ -64,26 +98,117 @@ public class ExtensionModelDiscoverer {
   public Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discoverPluginsExtensionModels(ExtensionModelLoaderRepository loaderRepository,
                                                                                             List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins,
                                                                                             Set<ExtensionModel> parentArtifactExtensions) {
+    if (parallelDiscovery && artifactPlugins.size() > 1) {
+      return discoverPluginsExtensionModelsInParallel(loaderRepository, artifactPlugins, parentArtifactExtensions);
+    }
+
     final Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> descriptorsWithExtensions = new HashSet<>();
     artifactPlugins.forEach(artifactPlugin -> {
       Set<ExtensionModel> extensions = descriptorsWithExtensions.stream().map(Pair::getSecond).collect(toSet());
       extensions.addAll(parentArtifactExtensions);
-      final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
-      Optional<LoaderDescriber> loaderDescriber = artifactPluginDescriptor.getExtensionModelDescriptorProperty();
-      ClassLoader artifactClassloader = artifactPlugin.getSecond().getClassLoader();
-      String artifactName = artifactPluginDescriptor.getName();
-      ExtensionModel extension = loaderDescriber
-          .map(describer -> discoverExtensionThroughJsonDescriber(loaderRepository, describer,
-                                                                  extensions, artifactClassloader,
-                                                                  artifactName))
-          .orElse(null);
+      ExtensionModel extension = discoverPluginExtensionModel(loaderRepository, artifactPlugin, extensions);
       if (extension != null) {
-        descriptorsWithExtensions.add(new Pair<>(artifactPluginDescriptor, extension));
+        descriptorsWithExtensions.add(new Pair<>(artifactPlugin.getFirst(), extension));
       }
     });
     return descriptorsWithExtensions;
   }
 
+  /**
+   * Discovers the {@link ExtensionModel} of each plugin once the ones of the plugins it depends on are available, so that the
+   * plugins that do not depend on each other are discovered concurrently.
+   * <p>
+   * Unlike the sequential discovery, only the {@link ExtensionModel}s of the plugins it depends on, directly or transitively,
+   * are taken into account when parsing the extension of a plugin.
+   */
+  private Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discoverPluginsExtensionModelsInParallel(ExtensionModelLoaderRepository loaderRepository,
+                                                                                                       List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins,
+                                                                                                       Set<ExtensionModel> parentArtifactExtensions) {
+    final ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    final ExecutorService executor = createDiscoveryExecutor(min(artifactPlugins.size(), getRuntime().availableProcessors()));
+    try {
+      // the plugins are sorted so that each one comes after the plugins it depends on
+      final List<CompletableFuture<DiscoveredPlugin>> discoveries = new ArrayList<>(artifactPlugins.size());
+      for (Pair<ArtifactPluginDescriptor, ArtifactClassLoader> artifactPlugin : artifactPlugins) {
+        final List<CompletableFuture<DiscoveredPlugin>> dependencies = new ArrayList<>();
+        for (int i = 0; i < discoveries.size(); ++i) {
+          if (dependsOn(artifactPlugin.getFirst(), artifactPlugins.get(i).getFirst())) {
+            dependencies.add(discoveries.get(i));
+          }
+        }
+
+        discoveries.add(allOf(dependencies.toArray(new CompletableFuture[dependencies.size()])).thenApplyAsync(v -> {
+          Set<ExtensionModel> extensions = new HashSet<>(parentArtifactExtensions);
+          dependencies.forEach(dependency -> extensions.addAll(dependency.join().getAvailableExtensions()));
+          ExtensionModel extension = withContextClassLoader(contextClassLoader,
+                                                            () -> discoverPluginExtensionModel(loaderRepository, artifactPlugin,
+                                                                                               extensions));
+          return new DiscoveredPlugin(artifactPlugin.getFirst(), extension, extensions);
+        }, executor));
+      }
+
+      final Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> descriptorsWithExtensions = new HashSet<>();
+      for (CompletableFuture<DiscoveredPlugin> discovery : discoveries) {
+        DiscoveredPlugin discoveredPlugin = discovery.join();
+        if (discoveredPlugin.getExtensionModel() != null) {
+          descriptorsWithExtensions.add(new Pair<>(discoveredPlugin.getDescriptor(), discoveredPlugin.getExtensionModel()));
+        }
+      }
+      return descriptorsWithExtensions;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ExecutorService createDiscoveryExecutor(int threads) {
+    // the threads must not hold the class loader of the artifact being deployed, which is only set while discovering
+    return newFixedThreadPool(threads, new NamedThreadFactory("extension-model-discovery",
+                                                              ExtensionModelDiscoverer.class.getClassLoader()) {
+
+      @Override
+      protected void doConfigureThread(Thread t) {
+        super.doConfigureThread(t);
+        t.setDaemon(true);
+      }
+    });
+  }
+
+  private static boolean dependsOn(ArtifactPluginDescriptor plugin, ArtifactPluginDescriptor otherPlugin) {
+    BundleDescriptor otherBundleDescriptor = otherPlugin.getBundleDescriptor();
+    if (otherBundleDescriptor == null) {
+      return false;
+    }
+
+    for (BundleDependency dependency : plugin.getClassLoaderModel().getDependencies()) {
+      BundleDescriptor dependencyDescriptor = dependency.getDescriptor();
+      if (dependencyDescriptor.isPlugin()
+          && dependencyDescriptor.getArtifactId().equals(otherBundleDescriptor.getArtifactId())
+          && dependencyDescriptor.getGroupId().equals(otherBundleDescriptor.getGroupId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ExtensionModel discoverPluginExtensionModel(ExtensionModelLoaderRepository loaderRepository,
+                                                      Pair<ArtifactPluginDescriptor, ArtifactClassLoader> artifactPlugin,
+                                                      Set<ExtensionModel> extensions) {
+    final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
+    Optional<LoaderDescriber> loaderDescriber = artifactPluginDescriptor.getExtensionModelDescriptorProperty();
+    ClassLoader artifactClassloader = artifactPlugin.getSecond().getClassLoader();
+    String artifactName = artifactPluginDescriptor.getName();
+    return loaderDescriber
+        .map(describer -> discoverExtensionThroughJsonDescriber(loaderRepository, describer,
+                                                                extensions, artifactClassloader,
+                                                                artifactName))
+        .orElse(null);
+  }
+
   /**
    * Discover the extension models provided by the runtime.
    *
@@ -95,11 +220,20 @@ public class ExtensionModelDiscoverer {
     Collection<RuntimeExtensionModelProvider> runtimeExtensionModelProviders = new SpiServiceRegistry()
         .lookupProviders(RuntimeExtensionModelProvider.class, Thread.currentThread().getContextClassLoader());
     for (RuntimeExtensionModelProvider runtimeExtensionModelProvider : runtimeExtensionModelProviders) {
-      extensionModels.add(runtimeExtensionModelProvider.createExtensionModel());
+      extensionModels.add(getRuntimeExtensionModel(runtimeExtensionModelProvider));
     }
     return extensionModels;
   }
 
+  private ExtensionModel getRuntimeExtensionModel(RuntimeExtensionModelProvider runtimeExtensionModelProvider) {
+    Class<?> providerClass = runtimeExtensionModelProvider.getClass();
+    if (providerClass.getClassLoader() == ExtensionModelDiscoverer.class.getClassLoader()) {
+      return CONTAINER_EXTENSION_MODELS.computeIfAbsent(providerClass,
+                                                        key -> runtimeExtensionModelProvider.createExtensionModel());
+    }
+    return runtimeExtensionModelProvider.createExtensionModel();
+  }
+
   /**
    * Looks for an extension using the mule-artifact.json file, where if available it will parse it using the
    * {@link ExtensionModelLoader} which {@link ExtensionModelLoader#getId() ID} matches the plugin's descriptor ID.
@@ -124,4 +258,36 @@ public class ExtensionModelDiscoverer {
     }
     return loader.loadExtensionModel(artifactClassloader, getDefault(extensions), loaderDescriber.getAttributes());
   }
+
+  private static final class DiscoveredPlugin {
+
+    private final ArtifactPluginDescriptor descriptor;
+    private final ExtensionModel extensionModel;
+    private final Set<ExtensionModel> availableExtensions;
+
+    private DiscoveredPlugin(ArtifactPluginDescriptor descriptor, ExtensionModel extensionModel,
+                             Set<ExtensionModel> dependenciesExtensions) {
+      this.descriptor = descriptor;
+      this.extensionModel = extensionModel;
+      this.availableExtensions = new HashSet<>(dependenciesExtensions);
+      if (extensionModel != null) {
+        availableExtensions.add(extensionModel);
+      }
+    }
+
+    private ArtifactPluginDescriptor getDescriptor() {
+      return descriptor;
+    }
+
+    private ExtensionModel getExtensionModel() {
+      return extensionModel;
+    }
+
+    /**
+     * @return the {@link ExtensionModel} of this plugin along with the ones that were available to discover it.
+     */
+    private Set<ExtensionModel> getAvailableExtensions() {
+      return availableExtensions;
+    }
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.impl.internal.artifact;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.meta.Category.COMMUNITY;
+import static org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor.EXTENSION_BUNDLE_TYPE;
+import static org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor.MULE_PLUGIN_CLASSIFIER;
+import static org.mule.runtime.module.deployment.impl.internal.artifact.ExtensionModelDiscoverer.PARALLEL_EXTENSION_MODEL_DISCOVERY_PROPERTY;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
+import org.mule.runtime.deployment.model.api.plugin.LoaderDescriber;
+import org.mule.runtime.extension.api.loader.ExtensionLoadingContext;
+import org.mule.runtime.extension.api.loader.ExtensionModelLoader;
+import org.mule.runtime.module.artifact.api.classloader.ArtifactClassLoader;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDependency;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+import org.mule.runtime.module.artifact.api.descriptor.BundleScope;
+import org.mule.runtime.module.artifact.api.descriptor.ClassLoaderModel.ClassLoaderModelBuilder;
+import org.mule.runtime.module.extension.internal.loader.ExtensionModelLoaderRepository;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class ExtensionModelDiscovererTestCase extends AbstractMuleTestCase {
+
+  private static final String UNKNOWN_LOADER_ID = "unknown";
+  private static final String TEST_LOADER_ID = "test";
+  private static final String EXTENSION_NAME_ATTRIBUTE = "name";
+
+  @Rule
+  public SystemProperty parallelDiscovery = new SystemProperty(PARALLEL_EXTENSION_MODEL_DISCOVERY_PROPERTY, "true");
+
+  private final ExtensionModelLoaderRepository loaderRepository = mock(ExtensionModelLoaderRepository.class);
+
+  @Test
+  public void runtimeExtensionModelsAreSharedAcrossDiscoverers() {
+    List<ExtensionModel> extensionModels = new ArrayList<>(new ExtensionModelDiscoverer().discoverRuntimeExtensionModels());
+    List<ExtensionModel> otherExtensionModels =
+        new ArrayList<>(new ExtensionModelDiscoverer().discoverRuntimeExtensionModels());
+
+    assertThat(otherExtensionModels, hasSize(extensionModels.size()));
+    for (ExtensionModel extensionModel : extensionModels) {
+      assertThat(otherExtensionModels.stream().anyMatch(other -> other == extensionModel), is(true));
+    }
+  }
+
+  @Test
+  public void parallelDiscoveryOfPluginsWithoutExtensions() {
+    ArtifactPluginDescriptor plugin = createPluginDescriptor("plugin");
+    ArtifactPluginDescriptor dependantPlugin = createPluginDescriptor("dependantPlugin", plugin);
+
+    Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discovered = new ExtensionModelDiscoverer()
+        .discoverPluginsExtensionModels(loaderRepository, asList(withClassLoader(plugin), withClassLoader(dependantPlugin)));
+
+    assertThat(discovered, hasSize(0));
+  }
+
+  @Test
+  public void parallelDiscoveryPropagatesLoaderErrors() {
+    when(loaderRepository.getExtensionModelLoader(any(LoaderDescriber.class))).thenReturn(empty());
+
+    ArtifactPluginDescriptor plugin = createPluginDescriptor("plugin");
+    ArtifactPluginDescriptor dependantPlugin = createPluginDescriptor("dependantPlugin", plugin);
+    dependantPlugin.setExtensionModelDescriptorProperty(new LoaderDescriber(UNKNOWN_LOADER_ID));
+
+    try {
+      new ExtensionModelDiscoverer()
+          .discoverPluginsExtensionModels(loaderRepository, asList(withClassLoader(plugin), withClassLoader(dependantPlugin)));
+      fail("Expected an exception");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), containsString(UNKNOWN_LOADER_ID));
+      assertThat(e.getMessage(), containsString("dependantPlugin"));
+    }
+  }
+
+  @Test
+  public void parallelDiscoveryOnlyProvidesExtensionsOfDeclaredDependencies() {
+    TestExtensionModelLoader loader = new TestExtensionModelLoader();
+    when(loaderRepository.getExtensionModelLoader(any(LoaderDescriber.class))).thenReturn(of(loader));
+
+    ArtifactPluginDescriptor plugin = createExtensionPluginDescriptor("plugin");
+    ArtifactPluginDescriptor dependantPlugin = createExtensionPluginDescriptor("dependantPlugin", plugin);
+    // relies on the extension of a plugin discovered before it, without declaring the dependency
+    ArtifactPluginDescriptor undeclaredDependantPlugin = createExtensionPluginDescriptor("undeclaredDependantPlugin");
+
+    Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discovered = new ExtensionModelDiscoverer()
+        .discoverPluginsExtensionModels(loaderRepository, asList(withClassLoader(plugin), withClassLoader(dependantPlugin),
+                                                                 withClassLoader(undeclaredDependantPlugin)));
+
+    assertThat(discovered, hasSize(3));
+    assertThat(loader.getAvailableExtensions("dependantPlugin"), hasItem("plugin"));
+    assertThat(loader.getAvailableExtensions("undeclaredDependantPlugin"), not(hasItem("plugin")));
+  }
+
+  private ArtifactPluginDescriptor createExtensionPluginDescriptor(String name, ArtifactPluginDescriptor... dependencies) {
+    ArtifactPluginDescriptor descriptor = createPluginDescriptor(name, dependencies);
+    LoaderDescriber loaderDescriber = new LoaderDescriber(TEST_LOADER_ID);
+    loaderDescriber.addAttributes(singletonMap(EXTENSION_NAME_ATTRIBUTE, name));
+    descriptor.setExtensionModelDescriptorProperty(loaderDescriber);
+    return descriptor;
+  }
+
+  private ArtifactPluginDescriptor createPluginDescriptor(String name, ArtifactPluginDescriptor... dependencies) {
+    ArtifactPluginDescriptor descriptor = new ArtifactPluginDescriptor(name);
+    descriptor.setBundleDescriptor(createBundleDescriptor(name));
+
+    ClassLoaderModelBuilder classLoaderModelBuilder = new ClassLoaderModelBuilder();
+    for (ArtifactPluginDescriptor dependency : dependencies) {
+      classLoaderModelBuilder.dependingOn(singleton(new BundleDependency.Builder()
+          .setDescriptor(dependency.getBundleDescriptor()).setScope(BundleScope.COMPILE).build()));
+    }
+    descriptor.setClassLoaderModel(classLoaderModelBuilder.build());
+    return descriptor;
+  }
+
+  private BundleDescriptor createBundleDescriptor(String artifactId) {
+    return new BundleDescriptor.Builder().setGroupId("test").setArtifactId(artifactId).setVersion("1.0")
+        .setType(EXTENSION_BUNDLE_TYPE).setClassifier(MULE_PLUGIN_CLASSIFIER).build();
+  }
+
+  private Pair<ArtifactPluginDescriptor, ArtifactClassLoader> withClassLoader(ArtifactPluginDescriptor descriptor) {
+    ArtifactClassLoader artifactClassLoader = mock(ArtifactClassLoader.class);
+    when(artifactClassLoader.getClassLoader()).thenReturn(getClass().getClassLoader());
+    return new Pair<>(descriptor, artifactClassLoader);
+  }
+
+  /**
+   * Declares an extension named after the plugin, keeping the names of the extensions available when it was loaded.
+   */
+  private static class TestExtensionModelLoader extends ExtensionModelLoader {
+
+    private final Map<String, Set<String>> availableExtensions = new ConcurrentHashMap<>();
+
+    @Override
+    public String getId() {
+      return TEST_LOADER_ID;
+    }
+
+    @Override
+    protected void declareExtension(ExtensionLoadingContext extensionLoadingContext) {
+      String name = extensionLoadingContext.<String>getParameter(EXTENSION_NAME_ATTRIBUTE).get();
+      availableExtensions.put(name, extensionLoadingContext.getDslResolvingContext().getExtensions().stream()
+          .map(ExtensionModel::getName).collect(toSet()));
+      extensionLoadingContext.getExtensionDeclarer().named(name)
+          .describedAs("Test extension")
+          .onVersion("1.0.0")
+          .withCategory(COMMUNITY)
+          .fromVendor("Mulesoft");
+    }
+
+    private Set<String> getAvailableExtensions(String name) {
+      return availableExtensions.get(name);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.lang.System.nanoTime;
+import static java.nio.file.FileSystems.getDefault;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches the deployment directories and the folders of the resources of the deployed artifacts through a {@link WatchService},
+ * instead of periodically scanning them.
+ * <p>
+ * Changes are processed in batches: once a change is notified, the ones that follow it are collected until no change happens
+ * for the debounce time, so that copying an artifact or saving several files causes a single deployment cycle. Changes on the
+ * deployment directories trigger a full deployment cycle, while changes on the resources of a deployed artifact only check the
+ * deployed artifacts for redeployment.
+ * <p>
+ * When a cycle cannot be processed because another deployment operation is in progress, it is retried after the debounce time.
+ *
+ * @since 4.4.0
+ */
+class DeploymentDirectoryWatchService implements Runnable, Closeable {
+
+  private static final Logger LOGGER = getLogger(DeploymentDirectoryWatchService.class);
+
+  // bounds the time a batch is delayed by a continuous stream of changes
+  private static final int MAX_DEBOUNCES_PER_BATCH = 20;
+
+  private final WatchService watchService;
+  private final Set<Path> deploymentDirs = new HashSet<>();
+  private final long debounceMs;
+  private final BooleanSupplier deploymentDirsChangeHandler;
+  private final BooleanSupplier artifactResourcesChangeHandler;
+
+  private boolean deploymentDirsChanged;
+  private boolean artifactResourcesChanged;
+
+  /**
+   * Creates a new instance
+   *
+   * @param deploymentDirs                 the directories where artifacts are deployed
+   * @param debounceMs                     the time without changes after which a batch of changes is processed
+   * @param deploymentDirsChangeHandler    processes changes on the deployment directories, returning {@code false} if they could
+   *                                       not be processed and must be retried
+   * @param artifactResourcesChangeHandler processes changes on the resources of the deployed artifacts, returning {@code false}
+   *                                       if they could not be processed and must be retried
+   * @throws IOException if the watch service cannot be created or the deployment directories cannot be watched
+   */
+  DeploymentDirectoryWatchService(File[] deploymentDirs, long debounceMs, BooleanSupplier deploymentDirsChangeHandler,
+                                  BooleanSupplier artifactResourcesChangeHandler)
+      throws IOException {
+    this.watchService = getDefault().newWatchService();
+    this.debounceMs = debounceMs;
+    this.deploymentDirsChangeHandler = deploymentDirsChangeHandler;
+    this.artifactResourcesChangeHandler = artifactResourcesChangeHandler;
+
+    try {
+      for (File deploymentDir : deploymentDirs) {
+        Path path = deploymentDir.toPath();
+        path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        this.deploymentDirs.add(path);
+      }
+    } catch (IOException e) {
+      watchService.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Watches the given folder of resources of a deployed artifact. Watching an already watched folder has no effect.
+   *
+   * @param artifactResourcesDir the folder to watch
+   */
+  void watchArtifactResources(File artifactResourcesDir) {
+    if (!artifactResourcesDir.isDirectory()) {
+      return;
+    }
+    try {
+      artifactResourcesDir.toPath().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+    } catch (ClosedWatchServiceException e) {
+      // the watcher was stopped
+    } catch (IOException e) {
+      LOGGER.warn("Cannot watch folder '{}' for changes, changes in it will not cause a redeployment", artifactResourcesDir, e);
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        // waits for changes, unless there are pending changes to retry
+        WatchKey key = hasPendingChanges() ? watchService.poll(debounceMs, MILLISECONDS) : watchService.take();
+        if (key != null) {
+          collectBatch(key);
+        }
+        processPendingChanges();
+      }
+    } catch (ClosedWatchServiceException e) {
+      // the watcher was stopped
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void collectBatch(WatchKey firstKey) throws InterruptedException {
+    final long deadline = nanoTime() + MILLISECONDS.toNanos(debounceMs * MAX_DEBOUNCES_PER_BATCH);
+    WatchKey key = firstKey;
+    while (key != null) {
+      collectChanges(key);
+      if (nanoTime() - deadline >= 0) {
+        break;
+      }
+      key = watchService.poll(debounceMs, MILLISECONDS);
+    }
+  }
+
+  private void collectChanges(WatchKey key) {
+    boolean isDeploymentDir = deploymentDirs.contains((Path) key.watchable());
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || isDeploymentDir) {
+        // some changes were lost, so everything has to be checked
+        deploymentDirsChanged = true;
+      } else {
+        artifactResourcesChanged = true;
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Change '{}' on '{}'", event.kind(), event.context());
+      }
+    }
+
+    if (!key.reset() && isDeploymentDir) {
+      LOGGER.warn("Deployment directory '{}' is no longer accessible, it will not be watched for changes", key.watchable());
+    }
+  }
+
+  private boolean hasPendingChanges() {
+    return deploymentDirsChanged || artifactResourcesChanged;
+  }
+
+  private void processPendingChanges() {
+    if (deploymentDirsChanged) {
+      // a full cycle also checks the deployed artifacts for redeployment
+      if (handle(deploymentDirsChangeHandler)) {
+        deploymentDirsChanged = false;
+        artifactResourcesChanged = false;
+      }
+    } else if (artifactResourcesChanged) {
+      if (handle(artifactResourcesChangeHandler)) {
+        artifactResourcesChanged = false;
+      }
+    }
+  }
+
+  private boolean handle(BooleanSupplier changeHandler) {
+    try {
+      return changeHandler.getAsBoolean();
+    } catch (RuntimeException e) {
+      // keeps watching, the failed changes are not retried as they would most likely fail again
+      LOGGER.error("Error processing changes on the deployment directories", e);
+      return true;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+}
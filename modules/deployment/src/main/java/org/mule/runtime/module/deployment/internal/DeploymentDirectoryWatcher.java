@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.module.deployment.internal;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Long.getLong;
 import static java.lang.String.format;
 import static java.util.Arrays.sort;
 import static java.util.Optional.empty;
@@ -39,6 +41,7 @@ import org.mule.runtime.module.deployment.internal.util.ObservableList;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -83,7 +86,20 @@ public class DeploymentDirectoryWatcher implements Runnable {
    */
   public static final String DEPLOYMENT_APPLICATION_PROPERTY = "mule.deploy.applications";
 
+  /**
+   * Property used to watch the deployment directories and the resources of the deployed artifacts through file system
+   * notifications instead of periodically scanning them. Falls back to scanning them if the file system does not support it.
+   */
+  public static final String WATCH_SERVICE_PROPERTY = "mule.launcher.watchService";
+
+  /**
+   * Property used to change the time without changes after which a batch of changes notified by the file system is processed,
+   * when {@link #WATCH_SERVICE_PROPERTY} is set.
+   */
+  public static final String WATCH_SERVICE_DEBOUNCE_PROPERTY = "mule.launcher.watchService.debounce";
+
   protected static final int DEFAULT_CHANGES_CHECK_INTERVAL_MS = 5000;
+  protected static final long DEFAULT_WATCH_SERVICE_DEBOUNCE_MS = 100;
 
   protected transient final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -99,6 +115,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
   private final File appsDir;
   private final File domainsDir;
   private ScheduledExecutorService artifactDirMonitorTimer;
+  private DeploymentDirectoryWatchService watchService;
 
   protected volatile boolean dirty;
 
@@ -230,11 +247,75 @@ public class DeploymentDirectoryWatcher implements Runnable {
     // TODO MULE-12337 migrate this to an scheduler
     artifactDirMonitorTimer = newSingleThreadScheduledExecutor(new ArtifactDeployerMonitorThreadFactory());
 
+    if (getBoolean(WATCH_SERVICE_PROPERTY) && startWatchService()) {
+      log(miniSplash("Mule is up and kicking (watching for changes)"));
+      return;
+    }
+
     artifactDirMonitorTimer.scheduleWithFixedDelay(this, reloadIntervalMs, reloadIntervalMs, MILLISECONDS);
 
     log(miniSplash(format("Mule is up and kicking (every %dms)", reloadIntervalMs)));
   }
 
+  private boolean startWatchService() {
+    try {
+      watchService = new DeploymentDirectoryWatchService(new File[] {domainsDir, appsDir},
+                                                         getLong(WATCH_SERVICE_DEBOUNCE_PROPERTY,
+                                                                 DEFAULT_WATCH_SERVICE_DEBOUNCE_MS),
+                                                         this::checkForWatchedChanges,
+                                                         this::redeployModifiedArtifacts);
+    } catch (IOException e) {
+      logger.warn("Cannot watch the deployment directories for changes, they will be scanned periodically instead", e);
+      return false;
+    }
+
+    PropertyChangeListener artifactAddedListener = e -> {
+      if (e instanceof ElementAddedEvent) {
+        watchArtifactResources((Artifact) e.getNewValue());
+      }
+    };
+    domains.addPropertyChangeListener(artifactAddedListener);
+    applications.addPropertyChangeListener(artifactAddedListener);
+    domains.forEach(this::watchArtifactResources);
+    applications.forEach(this::watchArtifactResources);
+
+    artifactDirMonitorTimer.submit(watchService);
+    return true;
+  }
+
+  private void watchArtifactResources(Artifact artifact) {
+    for (File resourceFile : artifact.getResourceFiles()) {
+      watchService.watchArtifactResources(resourceFile.getParentFile());
+    }
+    watchService.watchArtifactResources(getDescriptorFile(artifact).getParentFile());
+  }
+
+  private boolean checkForWatchedChanges() {
+    boolean checked = checkForChanges();
+    // a failed cycle flags the thread as interrupted, which must not stop watching for changes
+    Thread.interrupted();
+    return checked;
+  }
+
+  private boolean redeployModifiedArtifacts() {
+    try {
+      if (!deploymentLock.tryLock(0, SECONDS)) {
+        return false;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+
+    try {
+      redeployModifiedDomains();
+      redeployModifiedApplications();
+      return true;
+    } finally {
+      deploymentLock.unlock();
+    }
+  }
+
   protected void deployPackedApps(String[] zips) {
     for (String zip : zips) {
       try {
@@ -266,6 +347,15 @@ public class DeploymentDirectoryWatcher implements Runnable {
   // deploy exploded apps
   @Override
   public void run() {
+    checkForChanges();
+  }
+
+  /**
+   * Runs a deployment cycle.
+   *
+   * @return false if the cycle was skipped because another deployment operation was in progress, true otherwise
+   */
+  private boolean checkForChanges() {
     try {
       if (logger.isDebugEnabled()) {
         logger.debug("Checking for changes...");
@@ -277,7 +367,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
           logger.debug("Another deployment operation in progress, will skip this cycle. Owner thread: "
               + ((DebuggableReentrantLock) deploymentLock).getOwner());
         }
-        return;
+        return false;
       }
 
       undeployRemovedApps();
@@ -328,6 +418,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
       }
       dirty = false;
     }
+    return true;
   }
 
   private void deployDomainBundles() {
@@ -487,6 +578,13 @@ public class DeploymentDirectoryWatcher implements Runnable {
   }
 
   private void stopAppDirMonitorTimer() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        logger.debug("Error closing the deployment directories watch service", e);
+      }
+    }
     if (artifactDirMonitorTimer != null) {
       artifactDirMonitorTimer.shutdown();
       try {
@@ -497,6 +595,11 @@ public class DeploymentDirectoryWatcher implements Runnable {
     }
   }
 
+  private static File getDescriptorFile(Artifact artifact) {
+    return new File(((DeployableArtifactDescriptor) artifact.getDescriptor()).getArtifactLocation(),
+                    ArtifactDescriptor.MULE_ARTIFACT_JSON_DESCRIPTOR_LOCATION);
+  }
+
   private static class ArtifactTimestampListener<T extends Artifact> implements PropertyChangeListener {
 
     private Map<String, ArtifactResourcesTimestamp<T>> artifactConfigResourcesTimestaps = new HashMap<>();
@@ -531,9 +634,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
       for (File configResourceFile : artifact.getResourceFiles()) {
         timestampsPerResource.put(configResourceFile.getAbsolutePath(), configResourceFile.lastModified());
       }
-      File descriptorFile =
-          new File(((DeployableArtifactDescriptor) artifact.getDescriptor()).getArtifactLocation(),
-                   ArtifactDescriptor.MULE_ARTIFACT_JSON_DESCRIPTOR_LOCATION);
+      File descriptorFile = getDescriptorFile(artifact);
       if (descriptorFile.exists()) {
         timestampsPerResource.put(descriptorFile.getAbsolutePath(), descriptorFile.lastModified());
       }
@@ -8,6 +8,8 @@
 package org.mule.runtime.module.deployment.internal;
 
 import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static java.lang.Integer.getInteger;
 import static java.util.Optional.empty;
 
 import org.mule.runtime.api.scheduler.Scheduler;
@@ -31,6 +33,15 @@ import java.util.function.Supplier;
  */
 public class ParallelDeploymentDirectoryWatcher extends DeploymentDirectoryWatcher {
 
+  /**
+   * Property used to change the maximum amount of artifacts deployed concurrently.
+   *
+   * @since 4.4.0
+   */
+  public static final String MAX_CONCURRENT_DEPLOYMENTS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "deployment.parallel.maxConcurrency";
+
+  protected static final int DEFAULT_MAX_CONCURRENT_DEPLOYMENTS = 20;
+
   private Scheduler threadPoolExecutor;
 
   public ParallelDeploymentDirectoryWatcher(
@@ -87,9 +98,14 @@ public class ParallelDeploymentDirectoryWatcher extends DeploymentDirectoryWatch
     }
   }
 
+  private static int getMaxConcurrentDeployments() {
+    int maxConcurrentDeployments = getInteger(MAX_CONCURRENT_DEPLOYMENTS_PROPERTY, DEFAULT_MAX_CONCURRENT_DEPLOYMENTS);
+    return maxConcurrentDeployments > 0 ? maxConcurrentDeployments : DEFAULT_MAX_CONCURRENT_DEPLOYMENTS;
+  }
+
   private void waitForTasksToFinish(List<Callable<Object>> tasks) {
-    this.threadPoolExecutor =
-        schedulerServiceSupplier.get().ioScheduler(config().withName("parallelDeployment").withMaxConcurrentTasks(20));
+    this.threadPoolExecutor = schedulerServiceSupplier.get()
+        .ioScheduler(config().withName("parallelDeployment").withMaxConcurrentTasks(getMaxConcurrentDeployments()));
     try {
       final List<Future<Object>> futures = threadPoolExecutor.invokeAll(tasks);
 
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class DeploymentDirectoryWatchServiceTestCase extends AbstractMuleTestCase {
+
+  private static final long DEBOUNCE_MS = 200;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ExecutorService executor = newSingleThreadExecutor();
+  private final AtomicInteger deploymentDirsChanges = new AtomicInteger();
+  private final AtomicInteger artifactResourcesChanges = new AtomicInteger();
+  private volatile boolean deploymentLocked = false;
+
+  private File appsDir;
+  private File appConfigFile;
+  private DeploymentDirectoryWatchService watchService;
+
+  @Before
+  public void before() throws Exception {
+    appsDir = temporaryFolder.newFolder("apps");
+    // the application is created before watching, so that its creation is not reported
+    appConfigFile = new File(appsDir, "app/mule-config.xml");
+    writeStringToFile(appConfigFile, "<mule/>");
+
+    watchService = new DeploymentDirectoryWatchService(new File[] {appsDir}, DEBOUNCE_MS, () -> {
+      if (deploymentLocked) {
+        return false;
+      }
+      deploymentDirsChanges.incrementAndGet();
+      return true;
+    }, () -> {
+      artifactResourcesChanges.incrementAndGet();
+      return true;
+    });
+  }
+
+  @After
+  public void after() throws Exception {
+    watchService.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void processesChangesOnDeploymentDirsInOneBatch() throws Exception {
+    executor.submit(watchService);
+
+    writeStringToFile(new File(appsDir, "app1.jar"), "app1");
+    writeStringToFile(new File(appsDir, "app2.jar"), "app2");
+    new File(appsDir, "app3").mkdir();
+
+    new PollingProber(5000, 50).check(new JUnitLambdaProbe(() -> deploymentDirsChanges.get() == 1));
+    Thread.sleep(DEBOUNCE_MS * 2);
+    assertThat(deploymentDirsChanges.get(), is(1));
+    assertThat(artifactResourcesChanges.get(), is(0));
+  }
+
+  @Test
+  public void processesChangesOnArtifactResources() throws Exception {
+    watchService.watchArtifactResources(appConfigFile.getParentFile());
+    executor.submit(watchService);
+
+    writeStringToFile(appConfigFile, "<mule></mule>");
+
+    new PollingProber(5000, 50).check(new JUnitLambdaProbe(() -> artifactResourcesChanges.get() == 1));
+    assertThat(deploymentDirsChanges.get(), is(0));
+  }
+
+  @Test
+  public void retriesChangesWhileDeploymentIsLocked() throws Exception {
+    deploymentLocked = true;
+    executor.submit(watchService);
+
+    writeStringToFile(new File(appsDir, "app2.jar"), "app2");
+    Thread.sleep(DEBOUNCE_MS * 3);
+    assertThat(deploymentDirsChanges.get(), is(0));
+
+    deploymentLocked = false;
+    new PollingProber(5000, 50).check(new JUnitLambdaProbe(() -> deploymentDirsChanges.get() == 1));
+  }
+}
@@ -7,8 +7,10 @@
 package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
 
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator.getInstantiator;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator;
 
 /**
  * Utilities to power {@link ObjectBuilder} implementations
@@ -18,7 +20,8 @@ import org.mule.runtime.api.exception.MuleRuntimeException;
 class ObjectBuilderUtils {
 
   /**
-   * Creates a new instance of the given {@code prototypeClass}
+   * Creates a new instance of the given {@code prototypeClass}, through the instantiator provided by the
+   * {@link ObjectAccessorGenerator}
    *
    * @param prototypeClass the class of the object to create
    * @param <T>            the generic type of the {@code prototypeClass}
@@ -26,7 +29,7 @@ class ObjectBuilderUtils {
    */
   public static <T> T createInstance(Class<T> prototypeClass) {
     try {
-      return prototypeClass.newInstance();
+      return getInstantiator(prototypeClass).newInstance();
     } catch (Exception e) {
       throw new MuleRuntimeException(createStaticMessage("Could not create instance of " + prototypeClass), e);
     }
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Assigns the value of a given {@link Field}
+ *
+ * @see ObjectAccessorGenerator#getFieldWriter(Field)
+ * @since 4.4.0
+ */
+public interface FieldWriter {
+
+  /**
+   * Sets the {@code value} into the field of the {@code target} instance
+   *
+   * @param target the object on which the field value is to be set
+   * @param value  the value to set
+   */
+  void write(Object target, Object value);
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isAbstract;
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
+import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.Default.INJECTION;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ReflectionUtils.rethrowRuntimeException;
+
+import org.mule.runtime.core.internal.util.CompositeClassLoader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.type.TypeDescription.ForLoadedType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.TypeCasting;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import org.slf4j.Logger;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Uses bytecode manipulation to dynamically generate {@link ObjectInstantiator} and {@link FieldWriter} classes, so that the
+ * objects built from the parameters of an extension can be created and populated without reflection.
+ * <p>
+ * A generated class can only access the public members of public classes, since it is not defined by the same class loader as
+ * the class it accesses. When that is not the case (for example, with the usual private parameter fields), fields are written
+ * through a {@link MethodHandle} and objects are instantiated through reflection instead.
+ * <p>
+ * In any case, the exceptions thrown when the target or the value are not compatible with the field are the same as the ones of
+ * {@link Field#set(Object, Object)}.
+ * <p>
+ * The instances are cached per class, and the cache does not prevent classes from being unloaded.
+ *
+ * @since 4.4.0
+ */
+public final class ObjectAccessorGenerator {
+
+  private static final Logger LOGGER = getLogger(ObjectAccessorGenerator.class);
+
+  private static final ClassValue<ObjectInstantiator<?>> INSTANTIATORS = new ClassValue<ObjectInstantiator<?>>() {
+
+    @Override
+    protected ObjectInstantiator<?> computeValue(Class<?> type) {
+      return createInstantiator(type);
+    }
+  };
+
+  private static final ClassValue<Map<String, FieldWriter>> FIELD_WRITERS = new ClassValue<Map<String, FieldWriter>>() {
+
+    @Override
+    protected Map<String, FieldWriter> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * Returns an {@link ObjectInstantiator} which creates instances of the given {@code type} through its default constructor.
+   * <p>
+   * All the invocations for the same {@code type} return the same instance.
+   *
+   * @param type the class of the objects to create
+   * @param <T>  the generic type of the {@code type}
+   * @return an {@link ObjectInstantiator}
+   */
+  public static <T> ObjectInstantiator<T> getInstantiator(Class<T> type) {
+    return (ObjectInstantiator<T>) INSTANTIATORS.get(type);
+  }
+
+  /**
+   * Returns a {@link FieldWriter} which assigns the given {@code field}.
+   * <p>
+   * All the invocations for the same {@code field} return the same instance.
+   *
+   * @param field the {@link Field} to assign
+   * @return a {@link FieldWriter}
+   */
+  public static FieldWriter getFieldWriter(Field field) {
+    return FIELD_WRITERS.get(field.getDeclaringClass()).computeIfAbsent(field.getName(), name -> createFieldWriter(field));
+  }
+
+  private static <T> ObjectInstantiator<T> createInstantiator(Class<T> type) {
+    if (canGenerateFor(type) && !type.isInterface() && !isAbstract(type.getModifiers())) {
+      try {
+        return generateInstantiator(type, type.getConstructor());
+      } catch (NoSuchMethodException e) {
+        // no public default constructor, use reflection
+      } catch (Exception | LinkageError e) {
+        LOGGER.debug("Could not generate an instantiator for class '{}', reflection will be used instead", type.getName(), e);
+      }
+    }
+
+    return type::newInstance;
+  }
+
+  private static FieldWriter createFieldWriter(Field field) {
+    int modifiers = field.getModifiers();
+    if (isPublic(modifiers) && !isFinal(modifiers) && !isStatic(modifiers)
+        && canGenerateFor(field.getDeclaringClass())
+        // unboxing through reflection applies widening conversions, keep that behavior for primitive fields
+        && !field.getType().isPrimitive()
+        && isAccessible(field.getType())) {
+      try {
+        return generateFieldWriter(field);
+      } catch (Exception | LinkageError e) {
+        LOGGER.debug("Could not generate a writer for field '{}', reflection will be used instead", field, e);
+      }
+    }
+
+    field.setAccessible(true);
+    try {
+      return new MethodHandleFieldWriter(field, lookup().unreflectSetter(field));
+    } catch (IllegalAccessException e) {
+      LOGGER.debug("Could not obtain a setter for field '{}', reflection will be used instead", field, e);
+      return (target, value) -> ReflectionUtils.setField(field, target, value);
+    }
+  }
+
+  private static <T> ObjectInstantiator<T> generateInstantiator(Class<T> type, Constructor<T> constructor) throws Exception {
+    return (ObjectInstantiator<T>) new ByteBuddy()
+        .subclass(Object.class)
+        .implement(ObjectInstantiator.class)
+        .name(type.getName() + "$ObjectInstantiator")
+        .method(named("newInstance"))
+        .intercept(MethodCall.construct(constructor))
+        .make()
+        .load(getGeneratedClassLoader(type), INJECTION)
+        .getLoaded()
+        .getConstructor()
+        .newInstance();
+  }
+
+  private static FieldWriter generateFieldWriter(Field field) throws Exception {
+    return (FieldWriter) new ByteBuddy()
+        .subclass(GeneratedFieldWriter.class)
+        .name(field.getDeclaringClass().getName() + "$" + field.getName() + "$FieldWriter")
+        .method(named("doWrite"))
+        .intercept(new Implementation.Simple(
+                                             // load the target and cast it to the class that declares the field
+                                             MethodVariableAccess.REFERENCE.loadFrom(1),
+                                             TypeCasting.to(new ForLoadedType(field.getDeclaringClass())),
+                                             // load the value and cast it to the type of the field
+                                             MethodVariableAccess.REFERENCE.loadFrom(2),
+                                             TypeCasting.to(new ForLoadedType(field.getType())),
+                                             FieldAccess.forField(new FieldDescription.ForLoadedField(field)).write(),
+                                             MethodReturn.VOID))
+        .make()
+        .load(getGeneratedClassLoader(field.getDeclaringClass()), INJECTION)
+        .getLoaded()
+        .getConstructor(Field.class)
+        .newInstance(field);
+  }
+
+  private static ClassLoader getGeneratedClassLoader(Class<?> type) {
+    return new CompositeClassLoader(type.getClassLoader(), ObjectAccessorGenerator.class.getClassLoader());
+  }
+
+  /**
+   * Whether a class may be generated to access the members of the given {@code type}.
+   */
+  private static boolean canGenerateFor(Class<?> type) {
+    return type.getClassLoader() != null && isAccessible(type);
+  }
+
+  /**
+   * Whether a class defined by a different class loader than {@code type} may reference it.
+   */
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+
+    return type.isPrimitive() || isPublic(type.getModifiers());
+  }
+
+  private ObjectAccessorGenerator() {}
+
+  /**
+   * Base class of the generated {@link FieldWriter}s. It is only public so that the generated classes, defined by another class
+   * loader, can extend it.
+   */
+  public abstract static class GeneratedFieldWriter implements FieldWriter {
+
+    private final Field field;
+
+    protected GeneratedFieldWriter(Field field) {
+      this.field = field;
+    }
+
+    @Override
+    public final void write(Object target, Object value) {
+      try {
+        doWrite(target, value);
+      } catch (ClassCastException e) {
+        // let reflection report the incompatible target or value
+        ReflectionUtils.setField(field, target, value);
+      }
+    }
+
+    /**
+     * Sets the {@code value} into the field of the {@code target} instance, without any checks besides the casts.
+     *
+     * @param target the object on which the field value is to be set
+     * @param value  the value to set
+     */
+    protected abstract void doWrite(Object target, Object value);
+  }
+
+  /**
+   * A {@link FieldWriter} which uses a {@link MethodHandle} for the fields that generated classes cannot access.
+   */
+  private static final class MethodHandleFieldWriter implements FieldWriter {
+
+    private final Field field;
+    private final MethodHandle setter;
+
+    private MethodHandleFieldWriter(Field field, MethodHandle setter) {
+      this.field = field;
+      this.setter = setter.asType(methodType(void.class, Object.class, Object.class));
+    }
+
+    @Override
+    public void write(Object target, Object value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (ClassCastException | NullPointerException e) {
+        // let reflection report the incompatible target or value, or apply the widening conversions the handle does not
+        ReflectionUtils.setField(field, target, value);
+      } catch (Throwable t) {
+        rethrowRuntimeException(t);
+      }
+    }
+  }
+}
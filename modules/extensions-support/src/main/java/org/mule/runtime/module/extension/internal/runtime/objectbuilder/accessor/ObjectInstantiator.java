@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor;
+
+/**
+ * Creates instances of a given class through its default constructor.
+ *
+ * @param <T> the generic type of the created instances
+ * @see ObjectAccessorGenerator#getInstantiator(Class)
+ * @since 4.4.0
+ */
+public interface ObjectInstantiator<T> {
+
+  /**
+   * @return a new instance
+   * @throws Exception if the constructor does
+   */
+  T newInstance() throws Exception;
+}
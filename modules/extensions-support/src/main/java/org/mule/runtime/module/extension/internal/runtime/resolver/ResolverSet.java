@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
+import static java.util.Arrays.copyOf;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
@@ -19,6 +20,7 @@ import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBu
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -31,7 +33,12 @@ import java.util.Map;
  * {@link ValueResolver}s but evaluated many times. With this goal in mind is that the return value of this resolver will always
  * be a {@link ResolverSetResult} which then can be used by a {@link ObjectBuilder} to generate an actual object.
  * <p>
- * Instances of this class are to be considered thread safe and reusable
+ * The keys are assigned fixed positions the first time this set is resolved (or when it is initialised), so that each
+ * {@link ResolverSetResult} is just an array of values indexed by those positions. The values of the {@link StaticValueResolver}s
+ * and {@link StaticLiteralValueResolver}s are computed at that time as well, so that only the rest of the resolvers are evaluated
+ * each time this set is resolved.
+ * <p>
+ * Instances of this class are to be considered thread safe and reusable once all the resolvers have been added
  *
  * @since 3.7.0
  */
@@ -41,6 +48,9 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   private boolean dynamic = false;
   private final MuleContext muleContext;
 
+  private volatile Map<String, ValueResolver<?>> resolversView;
+  private volatile CompiledResolvers compiledResolvers;
+
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
   }
@@ -65,6 +75,9 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
     }
+
+    resolversView = null;
+    compiledResolvers = null;
     return this;
   }
 
@@ -103,13 +116,16 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
-    ResolverSetResult.Builder builder = getResolverSetBuilder();
+    CompiledResolvers compiled = getCompiledResolvers();
+    Object[] values = compiled.staticValues.clone();
 
-    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveRecursively(entry.getValue(), context));
+    final ValueResolver<?>[] dynamicResolvers = compiled.dynamicResolvers;
+    final int[] dynamicSlots = compiled.dynamicSlots;
+    for (int i = 0; i < dynamicResolvers.length; ++i) {
+      values[dynamicSlots[i]] = resolveRecursively(dynamicResolvers[i], context);
     }
 
-    return builder.build();
+    return new ResolverSetResult(compiled.keys, compiled.slots, values);
   }
 
   /**
@@ -129,16 +145,82 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   }
 
   public Map<String, ValueResolver<?>> getResolvers() {
-    return ImmutableMap.copyOf(resolvers);
+    Map<String, ValueResolver<?>> view = resolversView;
+    if (view == null) {
+      view = ImmutableMap.copyOf(resolvers);
+      resolversView = view;
+    }
+    return view;
   }
 
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(resolvers.values(), muleContext);
+    try {
+      getCompiledResolvers();
+    } catch (MuleException e) {
+      throw new InitialisationException(e, this);
+    }
+  }
+
+  private CompiledResolvers getCompiledResolvers() throws MuleException {
+    CompiledResolvers compiled = compiledResolvers;
+    if (compiled == null) {
+      compiled = new CompiledResolvers(getResolvers());
+      compiledResolvers = compiled;
+    }
+    return compiled;
   }
 
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return ResolverSetResult.newBuilder();
+  /**
+   * Whether the value of the given {@code resolver} is always the same, no matter the context it is resolved with.
+   * <p>
+   * Subclasses of the static resolvers are not trusted to keep that contract.
+   */
+  private static boolean isConstant(ValueResolver<?> resolver) {
+    return resolver.getClass() == StaticValueResolver.class || resolver.getClass() == StaticLiteralValueResolver.class;
+  }
+
+  /**
+   * The resolvers of this set, laid out by position, with the values of the constant ones already computed.
+   */
+  private static final class CompiledResolvers {
+
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+    private final Object[] staticValues;
+    private final ValueResolver<?>[] dynamicResolvers;
+    private final int[] dynamicSlots;
+
+    private CompiledResolvers(Map<String, ValueResolver<?>> resolvers) throws MuleException {
+      keys = new String[resolvers.size()];
+      slots = new HashMap<>(resolvers.size() * 4 / 3 + 1);
+      staticValues = new Object[resolvers.size()];
+
+      ValueResolver<?>[] pendingResolvers = new ValueResolver<?>[resolvers.size()];
+      int[] pendingSlots = new int[resolvers.size()];
+      int pending = 0;
+
+      int slot = 0;
+      for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
+        keys[slot] = entry.getKey();
+        slots.put(entry.getKey(), slot);
+
+        ValueResolver<?> resolver = entry.getValue();
+        Object value = isConstant(resolver) ? resolver.resolve(null) : resolver;
+        if (!(value instanceof ValueResolver)) {
+          staticValues[slot] = value;
+        } else {
+          pendingResolvers[pending] = resolver;
+          pendingSlots[pending] = slot;
+          pending++;
+        }
+        slot++;
+      }
+
+      dynamicResolvers = copyOf(pendingResolvers, pending);
+      dynamicSlots = copyOf(pendingSlots, pending);
+    }
   }
 
 }
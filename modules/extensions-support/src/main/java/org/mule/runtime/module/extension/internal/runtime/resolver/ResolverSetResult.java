@@ -12,8 +12,13 @@ import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import org.mule.runtime.api.meta.model.parameter.ParameterModel;
 import org.mule.runtime.api.util.LazyValue;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import com.google.common.base.Objects;
 
@@ -79,6 +84,20 @@ public class ResolverSetResult {
     this.evaluationResult = evaluationResult;
   }
 
+  /**
+   * Creates a new instance which values are held in the given {@code values} array, so that the value for {@code keys[i]} is
+   * {@code values[i]}.
+   *
+   * @param keys   the keys, in the order in which they were added to the {@link ResolverSet}
+   * @param slots  the position of each of the {@code keys}
+   * @param values the values, indexed by the position of their key. The array is not copied, so it must not be modified after
+   *               this call.
+   * @since 4.4.0
+   */
+  ResolverSetResult(String[] keys, Map<String, Integer> slots, Object[] values) {
+    this(new SlotMap(keys, slots, values));
+  }
+
   /**
    * Returns the value associated with the {@link ParameterModel} of the given {@code parameterName}
    *
@@ -128,4 +147,71 @@ public class ResolverSetResult {
   public Map<String, Object> asMap() {
     return evaluationResult;
   }
+
+  /**
+   * Unmodifiable {@link Map} view over the values of a {@link ResolverSetResult} held in an array, which shares the keys and
+   * their positions with every other result of the same {@link ResolverSet}.
+   */
+  private static final class SlotMap extends AbstractMap<String, Object> {
+
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+    private final Object[] values;
+
+    private SlotMap(String[] keys, Map<String, Integer> slots, Object[] values) {
+      this.keys = keys;
+      this.slots = slots;
+      this.values = values;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Integer slot = slots.get(key);
+      return slot != null ? values[slot] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return slots.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<Entry<String, Object>>() {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new Iterator<Entry<String, Object>>() {
+
+            private int slot = 0;
+
+            @Override
+            public boolean hasNext() {
+              return slot < keys.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[slot], values[slot]);
+              slot++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+      };
+    }
+  }
 }
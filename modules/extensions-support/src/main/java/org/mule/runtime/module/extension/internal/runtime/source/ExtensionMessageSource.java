@@ -63,6 +63,7 @@ import org.mule.runtime.core.internal.execution.MessageProcessContext;
 import org.mule.runtime.core.internal.execution.MessageProcessingManager;
 import org.mule.runtime.core.internal.lifecycle.DefaultLifecycleManager;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.internal.util.MessagingExceptionResolver;
 import org.mule.runtime.core.privileged.PrivilegedMuleContext;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -124,6 +125,9 @@ public class ExtensionMessageSource extends ExtensionComponent<SourceModel> impl
   @Inject
   private ClusterService clusterService;
 
+  @Inject
+  private TimerService timerService;
+
   private final SourceModel sourceModel;
   private final SourceAdapterFactory sourceAdapterFactory;
   private final boolean primaryNodeOnly;
@@ -348,7 +352,7 @@ public class ExtensionMessageSource extends ExtensionComponent<SourceModel> impl
       startIfNeeded(retryPolicyTemplate);
 
       if (retryScheduler == null) {
-        retryScheduler = schedulerService.ioScheduler();
+        retryScheduler = timerService.withTimer(schedulerService.ioScheduler());
       }
 
       synchronized (started) {
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.source.poll;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * A Bloom filter of strings, used to tell that an id was not stored without looking it up in an object store.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for an id that was {@link #put(String) put}, and returns
+ * {@code true} for an id that was not with about the false positive probability the filter was created with, as long as no
+ * more than the expected amount of ids are put into it.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 4.4.0
+ */
+final class BloomFilter {
+
+  private static final double LN2 = log(2);
+
+  private final int expectedInsertions;
+  private final long[] bits;
+  private final long bitsCount;
+  private final int hashesCount;
+  private int insertions = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param expectedInsertions       the amount of ids expected to be put into the filter
+   * @param falsePositiveProbability the probability of {@link #mightContain(String)} returning {@code true} for an id which
+   *                                 was not put
+   */
+  BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+    checkArgument(expectedInsertions > 0, "expectedInsertions must be positive");
+    checkArgument(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                  "falsePositiveProbability must be between 0 and 1");
+
+    this.expectedInsertions = expectedInsertions;
+    long optimalBits = (long) ceil(-expectedInsertions * log(falsePositiveProbability) / (LN2 * LN2));
+    this.bits = new long[(int) max(1, (optimalBits + 63) / 64)];
+    this.bitsCount = bits.length * 64L;
+    this.hashesCount = (int) max(1, round((double) bitsCount / expectedInsertions * LN2));
+  }
+
+  void put(String id) {
+    final long hash = hash(id);
+    final int hash1 = (int) hash;
+    final int hash2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashesCount; i++) {
+      final long index = indexFor(hash1 + i * hash2);
+      bits[(int) (index >>> 6)] |= 1L << index;
+    }
+    insertions++;
+  }
+
+  boolean mightContain(String id) {
+    final long hash = hash(id);
+    final int hash1 = (int) hash;
+    final int hash2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashesCount; i++) {
+      final long index = indexFor(hash1 + i * hash2);
+      if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether more ids than expected were put into the filter, so that its false positive probability is higher than
+   *         the configured one.
+   */
+  boolean isSaturated() {
+    return insertions > expectedInsertions;
+  }
+
+  int getExpectedInsertions() {
+    return expectedInsertions;
+  }
+
+  void clear() {
+    Arrays.fill(bits, 0);
+    insertions = 0;
+  }
+
+  private long indexFor(int combinedHash) {
+    // flips the sign bit of negative hashes, as a cheap absolute value
+    return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitsCount;
+  }
+
+  /**
+   * A 64 bits FNV-1a hash of the chars of the given id, with a final avalanche so that both halves are well distributed.
+   */
+  private static long hash(String id) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < id.length(); i++) {
+      hash ^= id.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.source.poll;
+
+import static org.mule.runtime.extension.api.runtime.source.PollingSource.UPDATED_WATERMARK_ITEM_OS_KEY;
+
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the watermark bookkeeping of the items accepted during a poll, so that it is written to the object stores once
+ * when the poll is over instead of once per item.
+ * <p>
+ * Lookups see the pending updates. Ids which were not recently processed are told apart through a {@link BloomFilter} of the
+ * recently processed ids, without looking them up in their object store.
+ * <p>
+ * This class is not thread safe, it is meant to be used while holding the watermark lock.
+ *
+ * @since 4.4.0
+ */
+final class PollBookkeepingBatch {
+
+  private final ObjectStore<Serializable> recentlyProcessedIds;
+  private final BloomFilter recentlyProcessedIdsFilter;
+  private final ObjectStore<Serializable> idsOnUpdatedWatermark;
+  private final ObjectStore<Serializable> watermarkObjectStore;
+
+  private final Map<String, Serializable> pendingRecentlyProcessedIds = new LinkedHashMap<>();
+  // ids which the filter tells are not in the store, so they can be stored without checking
+  private final Set<String> newRecentlyProcessedIds = new HashSet<>();
+  private final Map<String, Serializable> pendingIdsOnUpdatedWatermark = new HashMap<>();
+  private Serializable pendingUpdatedWatermark;
+
+  PollBookkeepingBatch(ObjectStore<Serializable> recentlyProcessedIds, BloomFilter recentlyProcessedIdsFilter,
+                       ObjectStore<Serializable> idsOnUpdatedWatermark, ObjectStore<Serializable> watermarkObjectStore) {
+    this.recentlyProcessedIds = recentlyProcessedIds;
+    this.recentlyProcessedIdsFilter = recentlyProcessedIdsFilter;
+    this.idsOnUpdatedWatermark = idsOnUpdatedWatermark;
+    this.watermarkObjectStore = watermarkObjectStore;
+  }
+
+  boolean isRecentlyProcessed(String itemId) throws ObjectStoreException {
+    return pendingRecentlyProcessedIds.containsKey(itemId)
+        || (recentlyProcessedIdsFilter.mightContain(itemId) && recentlyProcessedIds.contains(itemId));
+  }
+
+  /**
+   * @return the watermark of the given recently processed item, or {@code null} if it was not recently processed
+   */
+  Serializable getRecentlyProcessedWatermark(String itemId) throws ObjectStoreException {
+    Serializable watermark = pendingRecentlyProcessedIds.get(itemId);
+    if (watermark != null || !recentlyProcessedIdsFilter.mightContain(itemId)) {
+      return watermark;
+    }
+    return recentlyProcessedIds.contains(itemId) ? recentlyProcessedIds.retrieve(itemId) : null;
+  }
+
+  void putRecentlyProcessed(String itemId, Serializable watermark) {
+    if (pendingRecentlyProcessedIds.put(itemId, watermark) == null && !recentlyProcessedIdsFilter.mightContain(itemId)) {
+      newRecentlyProcessedIds.add(itemId);
+    }
+    recentlyProcessedIdsFilter.put(itemId);
+  }
+
+  boolean isOnUpdatedWatermark(String itemId) throws ObjectStoreException {
+    return pendingIdsOnUpdatedWatermark.containsKey(itemId) || idsOnUpdatedWatermark.contains(itemId);
+  }
+
+  void addToIdsOnUpdatedWatermark(String itemId, Serializable watermark) {
+    pendingIdsOnUpdatedWatermark.putIfAbsent(itemId, watermark);
+  }
+
+  void setUpdatedWatermark(Serializable updatedWatermark) {
+    pendingUpdatedWatermark = updatedWatermark;
+  }
+
+  /**
+   * Writes the pending updates to the object stores.
+   */
+  void commit() throws ObjectStoreException {
+    if (pendingUpdatedWatermark != null) {
+      if (watermarkObjectStore.contains(UPDATED_WATERMARK_ITEM_OS_KEY)) {
+        watermarkObjectStore.remove(UPDATED_WATERMARK_ITEM_OS_KEY);
+      }
+      watermarkObjectStore.store(UPDATED_WATERMARK_ITEM_OS_KEY, pendingUpdatedWatermark);
+      pendingUpdatedWatermark = null;
+    }
+
+    for (Map.Entry<String, Serializable> entry : pendingIdsOnUpdatedWatermark.entrySet()) {
+      if (!idsOnUpdatedWatermark.contains(entry.getKey())) {
+        idsOnUpdatedWatermark.store(entry.getKey(), entry.getValue());
+      }
+    }
+    pendingIdsOnUpdatedWatermark.clear();
+
+    for (Map.Entry<String, Serializable> entry : pendingRecentlyProcessedIds.entrySet()) {
+      if (!newRecentlyProcessedIds.contains(entry.getKey()) && recentlyProcessedIds.contains(entry.getKey())) {
+        recentlyProcessedIds.remove(entry.getKey());
+      }
+      recentlyProcessedIds.store(entry.getKey(), entry.getValue());
+    }
+    pendingRecentlyProcessedIds.clear();
+    newRecentlyProcessedIds.clear();
+  }
+}
@@ -6,12 +6,15 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.source.poll;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Math.max;
 import static java.lang.String.format;
 import static java.util.Comparator.naturalOrder;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.store.ObjectStoreSettings.unmanagedPersistent;
 import static org.mule.runtime.api.store.ObjectStoreSettings.unmanagedTransient;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
 import static org.mule.runtime.core.internal.util.ConcurrencyUtils.safeUnlock;
@@ -81,6 +84,16 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
   private static final String ITEM_RELEASER_CTX_VAR = "itemReleaser";
   private static final String UPDATE_PROCESSED_LOCK = "OSClearing";
   private static final String INFLIGHT_IDS_OS_NAME_SUFFIX = "inflight-ids";
+  private static final int MIN_EXPECTED_RECENTLY_PROCESSED_IDS = 64 * 1024;
+  private static final double RECENTLY_PROCESSED_IDS_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  /**
+   * When set, the watermark bookkeeping of the items accepted during a poll is written to the object stores once the poll is
+   * over, instead of once per item, and the recently processed ids are looked up through an in memory Bloom filter.
+   * <p>
+   * The filter is populated when the source starts, so this should only be enabled for sources that run on a single node.
+   */
+  public static final String BATCHED_BOOKKEEPING_PROPERTY = SYSTEM_PROPERTY_PREFIX + "polling.batchedBookkeeping";
 
   private final PollingSource<T, A> delegate;
   private final Scheduler scheduler;
@@ -99,6 +112,8 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
   private ObjectStore<Serializable> inflightIdsObjectStore;
   private ObjectStore<Serializable> recentlyProcessedIds;
   private ObjectStore<Serializable> idsOnUpdatedWatermark;
+  private final boolean batchedBookkeeping = getBoolean(BATCHED_BOOKKEEPING_PROPERTY);
+  private BloomFilter recentlyProcessedIdsFilter;
 
   private ComponentLocation componentLocation;
   private String flowName;
@@ -127,6 +142,10 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
     watermarkObjectStore = objectStoreManager.getOrCreateObjectStore(formatKey(WATERMARK_OS_NAME_SUFFIX),
                                                                      unmanagedPersistent());
 
+    if (batchedBookkeeping) {
+      recentlyProcessedIdsFilter = createRecentlyProcessedIdsFilter(MIN_EXPECTED_RECENTLY_PROCESSED_IDS);
+    }
+
     executor = schedulerService.customScheduler(SchedulerConfig.config()
         .withMaxConcurrentTasks(1)
         .withWaitAllowed(true)
@@ -176,9 +195,29 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
     }
 
     withWatermarkLock(() -> {
-      DefaultPollContext pollContext = new DefaultPollContext(sourceCallback, getCurrentWatermark(), getUpdatedWatermark());
+      PollBookkeepingBatch batch = batchedBookkeeping
+          ? new PollBookkeepingBatch(recentlyProcessedIds, recentlyProcessedIdsFilter, idsOnUpdatedWatermark,
+                                     watermarkObjectStore)
+          : null;
+      DefaultPollContext pollContext =
+          new DefaultPollContext(sourceCallback, getCurrentWatermark(), getUpdatedWatermark(), batch);
       try {
-        delegate.poll(pollContext);
+        try {
+          delegate.poll(pollContext);
+        } catch (Throwable t) {
+          // the items accepted before a failure were already dispatched, so their bookkeeping is kept
+          if (batch != null) {
+            try {
+              commit(batch);
+            } catch (Throwable commitFailure) {
+              t.addSuppressed(commitFailure);
+            }
+          }
+          throw t;
+        }
+        if (batch != null) {
+          commit(batch);
+        }
         pollContext.getUpdatedWatermark()
             .ifPresent(w -> updateWatermark(w, pollContext.getWatermarkComparator()));
       } catch (Throwable t) {
@@ -189,6 +228,36 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
     });
   }
 
+  private void commit(PollBookkeepingBatch batch) {
+    try {
+      batch.commit();
+    } catch (ObjectStoreException e) {
+      throw new MuleRuntimeException(
+                                     createStaticMessage(format("Failed to store the watermark bookkeeping of the items polled by message source at location '%s'. %s",
+                                                                flowName, e.getMessage())),
+                                     e);
+    }
+
+    if (recentlyProcessedIdsFilter.isSaturated()) {
+      recentlyProcessedIdsFilter = createRecentlyProcessedIdsFilter(recentlyProcessedIdsFilter.getExpectedInsertions() * 2);
+    }
+  }
+
+  private BloomFilter createRecentlyProcessedIdsFilter(int minExpectedInsertions) {
+    try {
+      List<String> ids = recentlyProcessedIds.allKeys();
+      BloomFilter filter = new BloomFilter(max(minExpectedInsertions, ids.size() * 2),
+                                           RECENTLY_PROCESSED_IDS_FALSE_POSITIVE_PROBABILITY);
+      ids.forEach(filter::put);
+      return filter;
+    } catch (ObjectStoreException e) {
+      throw new MuleRuntimeException(
+                                     createStaticMessage(format("Failed to fetch the recently processed ids for message source at location '%s'. %s",
+                                                                flowName, e.getMessage())),
+                                     e);
+    }
+  }
+
   private int compareWatermarks(Serializable w1, Serializable w2, Comparator comparator) throws IllegalArgumentException {
     if (comparator == null) {
       if (w1 instanceof Serializable && w2 instanceof Serializable) {
@@ -210,12 +279,14 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
     private Serializable currentWatermark;
     private Serializable updatedWatermark;
     private Comparator<Serializable> watermarkComparator = null;
+    private final PollBookkeepingBatch batch;
 
     private DefaultPollContext(SourceCallback<T, A> sourceCallback, Serializable currentWatermark,
-                               Serializable updatedWatermark) {
+                               Serializable updatedWatermark, PollBookkeepingBatch batch) {
       this.sourceCallback = sourceCallback;
       this.currentWatermark = currentWatermark;
       this.updatedWatermark = updatedWatermark;
+      this.batch = batch;
     }
 
     @Override
@@ -278,6 +349,10 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
     private void setUpdatedWatermark(Serializable updatedWatermark) {
       try {
         this.updatedWatermark = updatedWatermark;
+        if (batch != null) {
+          batch.setUpdatedWatermark(updatedWatermark);
+          return;
+        }
         if (watermarkObjectStore.contains(UPDATED_WATERMARK_ITEM_OS_KEY)) {
           watermarkObjectStore.remove(UPDATED_WATERMARK_ITEM_OS_KEY);
         }
@@ -291,7 +366,9 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
 
     private void addToIdsOnUpdatedWatermark(String itemId, Serializable itemWatermark) {
       try {
-        if (!idsOnUpdatedWatermark.contains(itemId)) {
+        if (batch != null) {
+          batch.addToIdsOnUpdatedWatermark(itemId, itemWatermark);
+        } else if (!idsOnUpdatedWatermark.contains(itemId)) {
           idsOnUpdatedWatermark.store(itemId, itemWatermark);
         }
       } catch (ObjectStoreException e) {
@@ -320,8 +397,8 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
         if (compare < 0) {
 
           try {
-            if (itemId != null && recentlyProcessedIds.contains(itemId)) {
-              Serializable previousItemWatermark = recentlyProcessedIds.retrieve(itemId);
+            Serializable previousItemWatermark = itemId != null ? getRecentlyProcessedWatermark(itemId) : null;
+            if (previousItemWatermark != null) {
               if (compareWatermarks(itemWatermark, previousItemWatermark, watermarkComparator) <= 0) {
                 accept = false;
               }
@@ -345,7 +422,7 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
           }
         } else if (compare == 0 && pollItem.getItemId().isPresent()) {
           try {
-            accept = !(recentlyProcessedIds.contains(itemId) || idsOnUpdatedWatermark.contains(itemId));
+            accept = !(isRecentlyProcessed(itemId) || isOnUpdatedWatermark(itemId));
           } catch (ObjectStoreException e) {
             throw new MuleRuntimeException(
                                            createStaticMessage("An error occurred while checking the existance for Item with ID [%s]",
@@ -360,10 +437,7 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
       if (accept) {
         try {
           if (itemId != null) {
-            if (recentlyProcessedIds.contains(itemId)) {
-              recentlyProcessedIds.remove(itemId);
-            }
-            recentlyProcessedIds.store(itemId, itemWatermark);
+            putRecentlyProcessed(itemId, itemWatermark);
           }
         } catch (ObjectStoreException e) {
           throw new MuleRuntimeException(
@@ -380,6 +454,33 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
 
       return accept;
     }
+
+    private Serializable getRecentlyProcessedWatermark(String itemId) throws ObjectStoreException {
+      if (batch != null) {
+        return batch.getRecentlyProcessedWatermark(itemId);
+      }
+      return recentlyProcessedIds.contains(itemId) ? recentlyProcessedIds.retrieve(itemId) : null;
+    }
+
+    private boolean isRecentlyProcessed(String itemId) throws ObjectStoreException {
+      return batch != null ? batch.isRecentlyProcessed(itemId) : recentlyProcessedIds.contains(itemId);
+    }
+
+    private boolean isOnUpdatedWatermark(String itemId) throws ObjectStoreException {
+      return batch != null ? batch.isOnUpdatedWatermark(itemId) : idsOnUpdatedWatermark.contains(itemId);
+    }
+
+    private void putRecentlyProcessed(String itemId, Serializable itemWatermark) throws ObjectStoreException {
+      if (batch != null) {
+        batch.putRecentlyProcessed(itemId, itemWatermark);
+        return;
+      }
+
+      if (recentlyProcessedIds.contains(itemId)) {
+        recentlyProcessedIds.remove(itemId);
+      }
+      recentlyProcessedIds.store(itemId, itemWatermark);
+    }
   }
 
   private class DefaultPollItem implements PollItem<T, A> {
@@ -508,6 +609,9 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> {
         }
       });
       recentlyProcessedIds.clear();
+      if (recentlyProcessedIdsFilter != null) {
+        recentlyProcessedIdsFilter.clear();
+      }
     } finally {
       safeUnlock(osClearingLock);
     }
@@ -6,12 +6,18 @@
  */
 package org.mule.runtime.module.extension.internal.util;
 
-import org.springframework.util.ReflectionUtils;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator.getFieldWriter;
+
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.FieldWriter;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator;
 
 import java.lang.reflect.Field;
 
 /**
  * Utility class which allows setting the value of a {@link Field} on random compatible instances
+ * <p>
+ * The value is assigned through the {@link FieldWriter} provided by the {@link ObjectAccessorGenerator}, which avoids
+ * reflection when possible.
  *
  * @param <Target> the generic type of the objects which contain the field
  * @param <Value> the field's generic type
@@ -22,10 +28,12 @@ public final class FieldSetter<Target, Value> {
    * The {@link Field} in which the value is to be assigned
    */
   private final Field field;
+  private final FieldWriter fieldWriter;
 
   public FieldSetter(Field field) {
     this.field = field;
     field.setAccessible(true);
+    fieldWriter = getFieldWriter(field);
   }
 
   /**
@@ -35,7 +43,7 @@ public final class FieldSetter<Target, Value> {
    * @param value the value to set
    */
   public void set(Target target, Value value) {
-    ReflectionUtils.setField(field, target, value);
+    fieldWriter.write(target, value);
   }
 
   /**
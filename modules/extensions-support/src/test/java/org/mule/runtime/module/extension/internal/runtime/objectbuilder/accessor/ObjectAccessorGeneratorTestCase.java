@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator.getFieldWriter;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.accessor.ObjectAccessorGenerator.getInstantiator;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class ObjectAccessorGeneratorTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void generatedInstantiator() throws Exception {
+    ObjectInstantiator<PublicPojo> instantiator = getInstantiator(PublicPojo.class);
+
+    assertThat(instantiator.getClass().getName(), endsWith("$ObjectInstantiator"));
+    assertThat(instantiator.newInstance(), is(instanceOf(PublicPojo.class)));
+    assertThat(instantiator.newInstance(), is(not(sameInstance(instantiator.newInstance()))));
+    assertThat(getInstantiator(PublicPojo.class), is(sameInstance(instantiator)));
+  }
+
+  @Test
+  public void reflectiveInstantiatorForNonPublicClass() throws Exception {
+    ObjectInstantiator<PackagePojo> instantiator = getInstantiator(PackagePojo.class);
+
+    assertThat(instantiator.getClass().getName(), not(endsWith("$ObjectInstantiator")));
+    assertThat(instantiator.newInstance(), is(instanceOf(PackagePojo.class)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void instantiatorPropagatesConstructorException() throws Exception {
+    getInstantiator(FailingPojo.class).newInstance();
+  }
+
+  @Test
+  public void generatedFieldWriter() throws Exception {
+    FieldWriter writer = getFieldWriter(PublicPojo.class.getField("publicField"));
+    PublicPojo pojo = new PublicPojo();
+    writer.write(pojo, "value");
+
+    assertThat(writer.getClass().getName(), endsWith("$FieldWriter"));
+    assertThat(pojo.publicField, is("value"));
+    assertThat(getFieldWriter(PublicPojo.class.getField("publicField")), is(sameInstance(writer)));
+  }
+
+  @Test
+  public void generatedFieldWriterForGenericField() throws Exception {
+    FieldWriter writer = getFieldWriter(PublicPojo.class.getField("listField"));
+    PublicPojo pojo = new PublicPojo();
+    List<String> value = asList("a", "b");
+    writer.write(pojo, value);
+
+    assertThat(writer.getClass().getName(), endsWith("$FieldWriter"));
+    assertThat(pojo.listField, is(sameInstance(value)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void generatedFieldWriterWithIncompatibleValue() throws Exception {
+    getFieldWriter(PublicPojo.class.getField("publicField")).write(new PublicPojo(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void generatedFieldWriterWithIncompatibleTarget() throws Exception {
+    getFieldWriter(PublicPojo.class.getField("publicField")).write(new PackagePojo(), "value");
+  }
+
+  @Test
+  public void methodHandleFieldWriterForPrivateField() throws Exception {
+    FieldWriter writer = getFieldWriter(PublicPojo.class.getDeclaredField("privateField"));
+    PublicPojo pojo = new PublicPojo();
+    writer.write(pojo, "value");
+
+    assertThat(writer.getClass().getName(), not(endsWith("$FieldWriter")));
+    assertThat(pojo.getPrivateField(), is("value"));
+  }
+
+  @Test
+  public void methodHandleFieldWriterForPrimitiveField() throws Exception {
+    FieldWriter writer = getFieldWriter(PublicPojo.class.getField("primitiveField"));
+    PublicPojo pojo = new PublicPojo();
+    writer.write(pojo, 1);
+
+    assertThat(writer.getClass().getName(), not(endsWith("$FieldWriter")));
+    assertThat(pojo.primitiveField, is(1L));
+
+    writer.write(pojo, 'a');
+    assertThat(pojo.primitiveField, is((long) 'a'));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void methodHandleFieldWriterWithIncompatibleValue() throws Exception {
+    getFieldWriter(PublicPojo.class.getDeclaredField("privateField")).write(new PublicPojo(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void methodHandleFieldWriterWithNullPrimitiveValue() throws Exception {
+    getFieldWriter(PublicPojo.class.getField("primitiveField")).write(new PublicPojo(), null);
+  }
+
+  @Test
+  public void methodHandleFieldWriterForFieldOfNonPublicClass() throws Exception {
+    FieldWriter writer = getFieldWriter(PackagePojo.class.getField("publicField"));
+    PackagePojo pojo = new PackagePojo();
+    writer.write(pojo, "value");
+
+    assertThat(writer.getClass().getName(), not(endsWith("$FieldWriter")));
+    assertThat(pojo.publicField, is("value"));
+  }
+
+  public static class PublicPojo {
+
+    public String publicField;
+    public List<String> listField;
+    public long primitiveField;
+    private String privateField;
+
+    public String getPrivateField() {
+      return privateField;
+    }
+  }
+
+  static class PackagePojo {
+
+    public String publicField;
+  }
+
+  public static class FailingPojo {
+
+    public FailingPojo() {
+      throw new IllegalStateException();
+    }
+  }
+}
@@ -8,7 +8,11 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -100,6 +104,53 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void resolveStaticAndDynamicValues() throws Exception {
+    ValueResolver dynamicResolver = getResolver("dynamic");
+    set.add("static", new StaticValueResolver<>("static"));
+    set.add("dynamic", dynamicResolver);
+    set.add("nested", new StaticValueResolver<>(new StaticValueResolver<>("nested")));
+
+    for (int i = 0; i < 2; i++) {
+      ResolverSetResult result = set.resolve(resolvingContext);
+      assertResult(result, mapping);
+      assertThat(result.get("static"), is("static"));
+      assertThat(result.get("dynamic"), is("dynamic"));
+      assertThat(result.get("nested"), is("nested"));
+      assertThat(result.get("missing"), is(nullValue()));
+      assertThat(result.asMap().keySet(), contains("myName", "age", "static", "dynamic", "nested"));
+    }
+
+    verify(dynamicResolver, times(2)).resolve(resolvingContext);
+  }
+
+  @Test
+  public void addAfterResolve() throws Exception {
+    set.resolve(resolvingContext);
+    set.add("static", new StaticValueResolver<>("static"));
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    assertResult(result, mapping);
+    assertThat(result.get("static"), is("static"));
+    assertThat(set.getResolvers().keySet(), contains("myName", "age", "static"));
+  }
+
+  @Test
+  public void equalResults() throws Exception {
+    set.add("static", new StaticValueResolver<>("static"));
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    ResolverSetResult builtResult = ResolverSetResult.newBuilder()
+        .add("myName", NAME)
+        .add("age", AGE)
+        .add("static", "static")
+        .build();
+
+    assertThat(result, is(builtResult));
+    assertThat(builtResult, is(result));
+    assertThat(result.hashCode(), is(builtResult.hashCode()));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
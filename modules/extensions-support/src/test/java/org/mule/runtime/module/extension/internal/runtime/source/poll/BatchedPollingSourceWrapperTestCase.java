@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.source.poll;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Optional.ofNullable;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.util.ClassUtils.setFieldValue;
+import static org.mule.runtime.extension.api.runtime.source.PollContext.PollItemStatus.ACCEPTED;
+import static org.mule.runtime.extension.api.runtime.source.PollContext.PollItemStatus.FILTERED_BY_WATERMARK;
+import static org.mule.runtime.module.extension.internal.runtime.source.poll.PollingSourceWrapper.BATCHED_BOOKKEEPING_PROPERTY;
+
+import org.mule.runtime.api.component.execution.CompletableCallback;
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.lock.LockFactory;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.SimpleMemoryObjectStore;
+import org.mule.runtime.core.api.source.scheduler.Scheduler;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+import org.mule.runtime.extension.api.runtime.source.PollContext;
+import org.mule.runtime.extension.api.runtime.source.PollContext.PollItemStatus;
+import org.mule.runtime.extension.api.runtime.source.PollingSource;
+import org.mule.runtime.extension.api.runtime.source.SourceCallback;
+import org.mule.runtime.extension.api.runtime.source.SourceCallbackContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+@SmallTest
+public class BatchedPollingSourceWrapperTestCase extends AbstractMuleTestCase {
+
+  private static final String RECENTLY_PROCESSED_IDS_OS = "_pollingSource_myFlow/recently-processed-ids";
+
+  @Rule
+  public SystemProperty batchedBookkeeping = new SystemProperty(BATCHED_BOOKKEEPING_PROPERTY, "true");
+
+  private final Map<String, ObjectStore<Serializable>> objectStores = new HashMap<>();
+  private final List<SourceCallbackContext> handledItems = new ArrayList<>();
+  private final List<PollItemStatus> statuses = new ArrayList<>();
+
+  private PollingSource<String, Object> delegate;
+  private SourceCallback<String, Object> sourceCallback;
+  private PollingSourceWrapper<String, Object> pollingSourceWrapper;
+  private Runnable pollJob;
+
+  @Before
+  public void setUp() throws Exception {
+    delegate = mock(PollingSource.class);
+    Scheduler scheduler = mock(Scheduler.class);
+    pollingSourceWrapper = new PollingSourceWrapper<>(delegate, scheduler);
+
+    ComponentLocation componentLocation = mock(ComponentLocation.class);
+    when(componentLocation.getRootContainerName()).thenReturn("myFlow");
+    LockFactory lockFactory = mock(LockFactory.class);
+    when(lockFactory.createLock(anyString())).thenAnswer(invocation -> new ReentrantLock());
+    ObjectStoreManager objectStoreManager = mock(ObjectStoreManager.class);
+    when(objectStoreManager.getOrCreateObjectStore(anyString(), any()))
+        .thenAnswer(invocation -> objectStores.computeIfAbsent(invocation.getArgument(0),
+                                                               name -> new SimpleMemoryObjectStore<>()));
+
+    setFieldValue(pollingSourceWrapper, "componentLocation", componentLocation, false);
+    setFieldValue(pollingSourceWrapper, "lockFactory", lockFactory, false);
+    setFieldValue(pollingSourceWrapper, "objectStoreManager", objectStoreManager, false);
+    setFieldValue(pollingSourceWrapper, "schedulerService", mock(SchedulerService.class, RETURNS_DEEP_STUBS), false);
+
+    sourceCallback = mock(SourceCallback.class);
+    when(sourceCallback.createContext()).thenAnswer(invocation -> createCallbackContext());
+    doAnswer(invocation -> handledItems.add(invocation.getArgument(1))).when(sourceCallback).handle(any(), any());
+
+    pollingSourceWrapper.onStart(sourceCallback);
+    ArgumentCaptor<Runnable> pollJobCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler).schedule(any(), pollJobCaptor.capture());
+    pollJob = pollJobCaptor.getValue();
+  }
+
+  @Test
+  public void itemsAcceptedBeforePollFailureAreNotRedelivered() throws Exception {
+    poll(pollContext -> {
+      statuses.add(accept(pollContext, "item1", 1));
+      throw new IllegalStateException("Expected");
+    });
+    finishHandledItems();
+
+    assertThat(objectStores.get(RECENTLY_PROCESSED_IDS_OS).contains("item1"), is(true));
+
+    poll(pollContext -> statuses.add(accept(pollContext, "item1", 1)));
+    assertThat(statuses, contains(ACCEPTED, FILTERED_BY_WATERMARK));
+  }
+
+  @Test
+  public void itemsAreRedeliveredOnlyWithNewerWatermark() throws Exception {
+    poll(pollContext -> {
+      statuses.add(accept(pollContext, "item1", 1));
+      statuses.add(accept(pollContext, "item2", 1));
+    });
+    finishHandledItems();
+
+    poll(pollContext -> {
+      statuses.add(accept(pollContext, "item1", 1));
+      statuses.add(accept(pollContext, "item2", 2));
+      statuses.add(accept(pollContext, "item1", 2));
+    });
+    finishHandledItems();
+
+    poll(pollContext -> {
+      statuses.add(accept(pollContext, "item1", 2));
+      statuses.add(accept(pollContext, "item2", 2));
+    });
+
+    assertThat(statuses, contains(ACCEPTED, ACCEPTED,
+                                  FILTERED_BY_WATERMARK, ACCEPTED, ACCEPTED,
+                                  FILTERED_BY_WATERMARK, FILTERED_BY_WATERMARK));
+  }
+
+  private void poll(Consumer<PollContext<String, Object>> poll) {
+    doAnswer(invocation -> {
+      poll.accept(invocation.getArgument(0));
+      return null;
+    }).when(delegate).poll(any());
+    pollJob.run();
+  }
+
+  private PollItemStatus accept(PollContext<String, Object> pollContext, String id, int watermark) {
+    return pollContext.accept(item -> item.setResult(Result.<String, Object>builder().output(id).build())
+        .setId(id)
+        .setWatermark(watermark));
+  }
+
+  /**
+   * Releases the items handled so far, as the flow does once it is done with them.
+   */
+  private void finishHandledItems() {
+    for (SourceCallbackContext context : handledItems) {
+      pollingSourceWrapper.onTerminate(null, emptyMap(), context, mock(CompletableCallback.class));
+    }
+    handledItems.clear();
+  }
+
+  private SourceCallbackContext createCallbackContext() {
+    Map<String, Object> variables = new HashMap<>();
+    SourceCallbackContext context = mock(SourceCallbackContext.class);
+    doAnswer(invocation -> variables.put(invocation.getArgument(0), invocation.getArgument(1))).when(context)
+        .addVariable(anyString(), any());
+    when(context.getVariable(anyString())).thenAnswer(invocation -> ofNullable(variables.get(invocation.getArgument(0))));
+    return context;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.source.poll;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class BloomFilterTestCase extends AbstractMuleTestCase {
+
+  private static final int EXPECTED_INSERTIONS = 10000;
+
+  private final BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, 0.01);
+
+  @Test
+  public void containsPutIds() {
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      filter.put("id-" + i);
+    }
+
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      assertThat(filter.mightContain("id-" + i), is(true));
+    }
+    assertThat(filter.isSaturated(), is(false));
+  }
+
+  @Test
+  public void falsePositivesAreBounded() {
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      filter.put("id-" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      if (filter.mightContain("other-" + i)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives, is(lessThan(EXPECTED_INSERTIONS / 50)));
+  }
+
+  @Test
+  public void saturatesWhenMoreIdsThanExpectedArePut() {
+    for (int i = 0; i <= EXPECTED_INSERTIONS; i++) {
+      filter.put("id-" + i);
+    }
+    assertThat(filter.isSaturated(), is(true));
+  }
+
+  @Test
+  public void clear() {
+    filter.put("id");
+    filter.clear();
+    assertThat(filter.mightContain("id"), is(false));
+  }
+}
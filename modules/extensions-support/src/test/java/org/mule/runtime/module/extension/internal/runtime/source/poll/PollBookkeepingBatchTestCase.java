@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.source.poll;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.extension.api.runtime.source.PollingSource.UPDATED_WATERMARK_ITEM_OS_KEY;
+
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.SimpleMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class PollBookkeepingBatchTestCase extends AbstractMuleTestCase {
+
+  private ObjectStore<Serializable> recentlyProcessedIds = spy(new SimpleMemoryObjectStore<>());
+  private ObjectStore<Serializable> idsOnUpdatedWatermark = new SimpleMemoryObjectStore<>();
+  private ObjectStore<Serializable> watermarkObjectStore = new SimpleMemoryObjectStore<>();
+  private BloomFilter filter = new BloomFilter(1024, 0.01);
+  private PollBookkeepingBatch batch;
+
+  @Before
+  public void before() {
+    batch = new PollBookkeepingBatch(recentlyProcessedIds, filter, idsOnUpdatedWatermark, watermarkObjectStore);
+  }
+
+  @Test
+  public void updatesAreWrittenOnCommit() throws Exception {
+    batch.putRecentlyProcessed("id1", 1);
+    batch.addToIdsOnUpdatedWatermark("id1", 1);
+    batch.setUpdatedWatermark(1);
+    batch.setUpdatedWatermark(2);
+
+    assertThat(batch.isRecentlyProcessed("id1"), is(true));
+    assertThat(batch.getRecentlyProcessedWatermark("id1"), is(1));
+    assertThat(batch.isOnUpdatedWatermark("id1"), is(true));
+    assertThat(recentlyProcessedIds.contains("id1"), is(false));
+    assertThat(watermarkObjectStore.contains(UPDATED_WATERMARK_ITEM_OS_KEY), is(false));
+
+    batch.commit();
+
+    assertThat(recentlyProcessedIds.retrieve("id1"), is(1));
+    assertThat(idsOnUpdatedWatermark.retrieve("id1"), is(1));
+    assertThat(watermarkObjectStore.retrieve(UPDATED_WATERMARK_ITEM_OS_KEY), is(2));
+  }
+
+  @Test
+  public void committedIdsAreReplaced() throws Exception {
+    batch.putRecentlyProcessed("id1", 1);
+    batch.commit();
+
+    batch.putRecentlyProcessed("id1", 2);
+    batch.commit();
+
+    assertThat(recentlyProcessedIds.retrieve("id1"), is(2));
+    assertThat(batch.getRecentlyProcessedWatermark("id1"), is(2));
+  }
+
+  @Test
+  public void storeIsNotLookedUpForIdsNotInFilter() throws Exception {
+    recentlyProcessedIds.store("unknownToFilter", 1);
+
+    assertThat(batch.isRecentlyProcessed("id1"), is(false));
+    assertThat(batch.getRecentlyProcessedWatermark("id1"), is(nullValue()));
+    verify(recentlyProcessedIds, never()).contains(anyString());
+  }
+}
@@ -15,6 +15,7 @@ import static org.reflections.ReflectionUtils.withParameters;
 
 import org.mule.runtime.api.util.Reference;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Iterator;
@@ -53,6 +54,9 @@ import org.apache.logging.log4j.util.Supplier;
  */
 abstract class DispatchingLogger extends Logger {
 
+  // the last resolution of each thread, since threads mostly keep the same context class loader between log calls
+  private static final ThreadLocal<ResolvedClassLoader> lastResolvedClassLoader = new ThreadLocal<>();
+
   private final Logger originalLogger;
   private final ContextSelector contextSelector;
   private final int ownerClassLoaderHash;
@@ -61,6 +65,9 @@ abstract class DispatchingLogger extends Logger {
       .weakValues()
       .build(key -> new Reference<>());
 
+  // the last logger each thread dispatched to, since a thread mostly logs for a single artifact
+  private final ThreadLocal<DispatchTarget> lastTarget = new ThreadLocal<>();
+
   private Method updateConfigurationMethod = null;
 
   DispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext, ContextSelector contextSelector,
@@ -72,13 +79,45 @@ abstract class DispatchingLogger extends Logger {
   }
 
   private Logger getLogger() {
-    return getLogger(resolveLoggerContextClassLoader(currentThread().getContextClassLoader()));
+    return getLogger(resolveCurrentLoggerContextClassLoader());
+  }
+
+  /**
+   * Resolves the logger context class loader of the current thread, reusing the last resolution of the thread if its context
+   * class loader did not change, so that the common case neither looks up the resolution cache nor allocates.
+   */
+  private static ClassLoader resolveCurrentLoggerContextClassLoader() {
+    final ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    if (contextClassLoader == null) {
+      return resolveLoggerContextClassLoader(null);
+    }
+
+    ResolvedClassLoader lastResolved = lastResolvedClassLoader.get();
+    if (lastResolved != null && lastResolved.contextClassLoader.get() == contextClassLoader) {
+      ClassLoader resolvedCtxClassLoader = lastResolved.resolvedCtxClassLoader.get();
+      if (resolvedCtxClassLoader != null) {
+        return resolvedCtxClassLoader;
+      }
+    }
+
+    ClassLoader resolvedCtxClassLoader = resolveLoggerContextClassLoader(contextClassLoader);
+    lastResolvedClassLoader.set(new ResolvedClassLoader(contextClassLoader, resolvedCtxClassLoader));
+    return resolvedCtxClassLoader;
   }
 
   private Logger getLogger(final ClassLoader resolvedCtxClassLoader) {
     if (useThisLoggerContextClassLoader(resolvedCtxClassLoader)) {
       return originalLogger;
     }
+
+    final DispatchTarget target = lastTarget.get();
+    if (target != null && target.resolvedCtxClassLoader.get() == resolvedCtxClassLoader) {
+      Logger logger = target.logger.get();
+      if (logger != null) {
+        return logger;
+      }
+    }
+
     // we need to cache reference objects and do this double lookup to avoid cyclic resolutions of the same classloader
     // key which would result in an exception or a deadlock, depending on the cache implementation
     Reference<Logger> loggerReference = loggerCache.get(resolvedCtxClassLoader);
@@ -97,6 +136,7 @@ abstract class DispatchingLogger extends Logger {
         }
       }
     }
+    lastTarget.set(new DispatchTarget(resolvedCtxClassLoader, logger));
     return logger;
   }
 
@@ -980,4 +1020,34 @@ abstract class DispatchingLogger extends Logger {
   public void warn(String message, Throwable t) {
     getLogger().warn(message, t);
   }
+
+  /**
+   * The logger context class loader resolved for a context class loader. Class loaders are weakly referenced since they must
+   * not be kept reachable by the threads once their artifact is disposed.
+   */
+  private static final class ResolvedClassLoader {
+
+    private final WeakReference<ClassLoader> contextClassLoader;
+    private final WeakReference<ClassLoader> resolvedCtxClassLoader;
+
+    private ResolvedClassLoader(ClassLoader contextClassLoader, ClassLoader resolvedCtxClassLoader) {
+      this.contextClassLoader = new WeakReference<>(contextClassLoader);
+      this.resolvedCtxClassLoader = new WeakReference<>(resolvedCtxClassLoader);
+    }
+  }
+
+  /**
+   * The logger to dispatch to for a logger context class loader, weakly referenced for the same reason as the
+   * {@link #loggerCache}.
+   */
+  private static final class DispatchTarget {
+
+    private final WeakReference<ClassLoader> resolvedCtxClassLoader;
+    private final WeakReference<Logger> logger;
+
+    private DispatchTarget(ClassLoader resolvedCtxClassLoader, Logger logger) {
+      this.resolvedCtxClassLoader = new WeakReference<>(resolvedCtxClassLoader);
+      this.logger = new WeakReference<>(logger);
+    }
+  }
 }
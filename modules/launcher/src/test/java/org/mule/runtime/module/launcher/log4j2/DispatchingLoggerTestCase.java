@@ -110,6 +110,31 @@ public class DispatchingLoggerTestCase extends AbstractMuleTestCase {
     });
   }
 
+  @Test
+  public void dispatchesToLoggerOfEachContextClassLoader() {
+    Logger regionClassLoaderLogger = mock(Logger.class);
+    when(regionClassLoaderLoggerContext.getLogger(any(), any())).thenReturn(regionClassLoaderLogger);
+    when(artifactAwareContextSelector.getContextWithResolvedContextClassLoader(regionClassLoader))
+        .thenReturn(regionClassLoaderLoggerContext);
+    DispatchingLogger dispatchingLogger = new DispatchingLogger(originalLogger, currentClassLoader.hashCode(),
+                                                                containerLoggerContext, artifactAwareContextSelector,
+                                                                messageFactory) {
+
+      @Override
+      public String getName() {
+        return LOGGER_NAME;
+      }
+    };
+
+    withContextClassLoader(regionClassLoader, () -> dispatchingLogger.info(MESSAGE));
+    dispatchingLogger.info(MESSAGE);
+    withContextClassLoader(regionClassLoader, () -> dispatchingLogger.info(MESSAGE));
+
+    verify(regionClassLoaderLogger, times(2)).info(MESSAGE);
+    verify(originalLogger).info(MESSAGE);
+    verify(artifactAwareContextSelector).getContextWithResolvedContextClassLoader(regionClassLoader);
+  }
+
   @Test
   public void whenRecursiveLoggerContextInstantiationExceptionExpectFallbackUsingContainerClassLoader() {
     // Expected Loggers
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.config.internal;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.emptySet;
@@ -27,6 +28,8 @@ import static org.mule.runtime.config.internal.dsl.spring.BeanDefinitionFactory.
 import static org.mule.runtime.config.internal.dsl.spring.BeanDefinitionFactory.TARGET_TYPE;
 import static org.mule.runtime.config.internal.dsl.spring.ComponentModelHelper.addAnnotation;
 import static org.mule.runtime.config.internal.dsl.spring.ComponentModelHelper.updateAnnotationValue;
+import static org.mule.runtime.config.internal.dsl.xml.XmlConfigurationCache.XML_CONFIGURATION_CACHE_PROPERTY;
+import static org.mule.runtime.config.internal.dsl.xml.XmlConfigurationCache.createKey;
 import static org.mule.runtime.config.internal.model.ApplicationModel.ERROR_MAPPING_IDENTIFIER;
 import static org.mule.runtime.config.internal.parsers.generic.AutoIdUtils.uniqueValue;
 import static org.mule.runtime.config.internal.util.ComponentBuildingDefinitionUtils.getArtifactComponentBuildingDefinitions;
@@ -71,6 +74,7 @@ import org.mule.runtime.config.internal.dsl.model.SpringComponentModel;
 import org.mule.runtime.config.internal.dsl.model.config.DefaultConfigurationPropertiesResolver;
 import org.mule.runtime.config.internal.dsl.model.config.EnvironmentPropertiesConfigurationProvider;
 import org.mule.runtime.config.internal.dsl.spring.BeanDefinitionFactory;
+import org.mule.runtime.config.internal.dsl.xml.XmlConfigurationCache;
 import org.mule.runtime.config.internal.dsl.xml.XmlNamespaceInfoProviderSupplier;
 import org.mule.runtime.config.internal.editors.MulePropertyEditorRegistrar;
 import org.mule.runtime.config.internal.model.ApplicationModel;
@@ -107,6 +111,7 @@ import org.mule.runtime.dsl.api.xml.parser.ParsingPropertyResolver;
 import org.mule.runtime.dsl.api.xml.parser.XmlConfigurationDocumentLoader;
 import org.mule.runtime.dsl.api.xml.parser.XmlParsingConfiguration;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -154,6 +159,8 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
 
   public static final String INNER_BEAN_PREFIX = "(inner bean)";
 
+  private static final String XML_CONFIGURATION_CACHE_FOLDER = "xml-configuration-cache";
+
   protected final ComponentBuildingDefinitionRegistry componentBuildingDefinitionRegistry =
       new ComponentBuildingDefinitionRegistry();
   private final OptionalObjectsController optionalObjectsController;
@@ -265,46 +272,7 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
 
   private ApplicationModel createApplicationModel() {
     try {
-      DefaultConfigurationPropertiesResolver propertyResolver =
-          new DefaultConfigurationPropertiesResolver(empty(), new EnvironmentPropertiesConfigurationProvider());
-      List<ConfigFile> configFiles = processXmlConfiguration(new XmlParsingConfiguration() {
-
-        @Override
-        public ParsingPropertyResolver getParsingPropertyResolver() {
-          return propertyKey -> (String) propertyResolver.resolveValue(propertyKey);
-        }
-
-        @Override
-        public ConfigResource[] getArtifactConfigResources() {
-          return MuleArtifactContext.this.getArtifactConfigResources();
-        }
-
-        @Override
-        public ResourceLocator getResourceLocator() {
-          return MuleArtifactContext.this.resourceLocator;
-        }
-
-        @Override
-        public Supplier<SAXParserFactory> getSaxParserFactory() {
-          return () -> XMLSecureFactories.createDefault().getSAXParserFactory();
-        }
-
-        @Override
-        public XmlConfigurationDocumentLoader getXmlConfigurationDocumentLoader() {
-          return xmlConfigurationDocumentLoader;
-        }
-
-        @Override
-        public EntityResolver getEntityResolver() {
-          return new ModuleDelegatingEntityResolver(getExtensions());
-        }
-
-        @Override
-        public List<XmlNamespaceInfoProvider> getXmlNamespaceInfoProvider() {
-          return XmlNamespaceInfoProviderSupplier.createFromExtensionModels(getExtensions(), Optional.of(cl -> serviceRegistry
-              .lookupProviders(XmlNamespaceInfoProvider.class, cl).stream().collect(toList())));
-        }
-      });
+      List<ConfigFile> configFiles = loadConfigFiles();
 
       ArtifactConfig artifactConfig = new ArtifactConfig.Builder()
           .setApplicationName(getArtifactName())
@@ -322,6 +290,72 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
     }
   }
 
+  private List<ConfigFile> loadConfigFiles() throws IOException {
+    if (!getBoolean(XML_CONFIGURATION_CACHE_PROPERTY)) {
+      return parseConfigFiles();
+    }
+
+    Optional<String> cacheKey = createKey(getArtifactConfigResources(), getExtensions(), !disableXmlValidations);
+    if (!cacheKey.isPresent()) {
+      return parseConfigFiles();
+    }
+
+    XmlConfigurationCache cache =
+        new XmlConfigurationCache(new File(muleContext.getConfiguration().getWorkingDirectory(), XML_CONFIGURATION_CACHE_FOLDER));
+    Optional<List<ConfigFile>> cachedConfigFiles = cache.get(cacheKey.get());
+    if (cachedConfigFiles.isPresent()) {
+      LOGGER.debug("Using cached configuration for artifact '{}'", getArtifactName());
+      return cachedConfigFiles.get();
+    }
+
+    List<ConfigFile> configFiles = parseConfigFiles();
+    cache.put(cacheKey.get(), getArtifactConfigResources(), configFiles);
+    return configFiles;
+  }
+
+  private List<ConfigFile> parseConfigFiles() {
+    DefaultConfigurationPropertiesResolver propertyResolver =
+        new DefaultConfigurationPropertiesResolver(empty(), new EnvironmentPropertiesConfigurationProvider());
+    return processXmlConfiguration(new XmlParsingConfiguration() {
+
+      @Override
+      public ParsingPropertyResolver getParsingPropertyResolver() {
+        return propertyKey -> (String) propertyResolver.resolveValue(propertyKey);
+      }
+
+      @Override
+      public ConfigResource[] getArtifactConfigResources() {
+        return MuleArtifactContext.this.getArtifactConfigResources();
+      }
+
+      @Override
+      public ResourceLocator getResourceLocator() {
+        return MuleArtifactContext.this.resourceLocator;
+      }
+
+      @Override
+      public Supplier<SAXParserFactory> getSaxParserFactory() {
+        return () -> XMLSecureFactories.createDefault().getSAXParserFactory();
+      }
+
+      @Override
+      public XmlConfigurationDocumentLoader getXmlConfigurationDocumentLoader() {
+        return xmlConfigurationDocumentLoader;
+      }
+
+      @Override
+      public EntityResolver getEntityResolver() {
+        return new ModuleDelegatingEntityResolver(getExtensions());
+      }
+
+      @Override
+      public List<XmlNamespaceInfoProvider> getXmlNamespaceInfoProvider() {
+        return XmlNamespaceInfoProviderSupplier.createFromExtensionModels(getExtensions(), Optional.of(cl -> serviceRegistry
+            .lookupProviders(XmlNamespaceInfoProvider.class, cl).stream().collect(toList())));
+      }
+    });
+  }
+
   /**
    * Defines if the context should be created for Runtime (execution) o not. This has impact on how the AST
    * will be populated and created.
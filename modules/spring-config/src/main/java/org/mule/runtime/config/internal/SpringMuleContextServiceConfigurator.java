@@ -129,6 +129,7 @@ import org.mule.runtime.core.internal.processor.interceptor.DefaultProcessorInte
 import org.mule.runtime.core.internal.security.DefaultMuleSecurityManager;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
 import org.mule.runtime.core.internal.time.LocalTimeSupplier;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.internal.transaction.TransactionFactoryLocator;
 import org.mule.runtime.core.internal.transformer.DynamicDataTypeConversionResolver;
 import org.mule.runtime.core.internal.util.DefaultStreamCloserService;
@@ -217,6 +218,7 @@ class SpringMuleContextServiceConfigurator {
       .put(NotificationListenerRegistry.REGISTRY_KEY, getBeanDefinition(DefaultNotificationListenerRegistry.class))
       .put(EventContextService.REGISTRY_KEY, getBeanDefinition(DefaultEventContextService.class))
       .put(ThreadNotificationService.REGISTRY_KEY, getBeanDefinition(DefaultThreadNotificationService.class))
+      .put(TimerService.REGISTRY_KEY, getBeanDefinition(TimerService.class))
       .put(BASE_IN_MEMORY_OBJECT_STORE_KEY,
            getBeanDefinitionBuilder(ConstantFactoryBean.class).addConstructorArgReference(OBJECT_LOCAL_STORE_IN_MEMORY)
                .getBeanDefinition())
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal.dsl.xml;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.core.api.config.MuleManifest.getProductVersion;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.dsl.api.ConfigResource;
+import org.mule.runtime.dsl.api.xml.parser.ConfigFile;
+import org.mule.runtime.dsl.api.xml.parser.ConfigLine;
+import org.mule.runtime.dsl.api.xml.parser.SimpleConfigAttribute;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps the {@link ConfigFile}s obtained from parsing, and optionally validating, the XML configuration files of an artifact in a
+ * compact binary form on disk, so that an artifact which configuration has not changed does not have to parse it again when it
+ * is redeployed or restarted.
+ * <p>
+ * Entries are identified by a key created through {@link #createKey(ConfigResource[], Set, boolean)}, which changes whenever the
+ * content of the configuration files, the extensions available to the artifact, the runtime version or the validation setting
+ * do. A corrupt or incompatible entry is discarded and the configuration is parsed again. Only the last stored entry is kept,
+ * since the previous ones are for configurations that are no longer deployed.
+ * <p>
+ * Configurations that import other files are not cached, since the imported files are resolved while parsing.
+ *
+ * @since 4.4.0
+ */
+public final class XmlConfigurationCache {
+
+  /**
+   * System property to enable the cache of the parsed XML configuration of the deployed artifacts.
+   */
+  public static final String XML_CONFIGURATION_CACHE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "xmlConfigurationCache";
+
+  private static final Logger LOGGER = getLogger(XmlConfigurationCache.class);
+
+  private static final int MAGIC = 0x4D434643;
+  private static final int FORMAT_VERSION = 1;
+  private static final String ENTRY_EXTENSION = ".bin";
+  private static final String TEMP_ENTRY_EXTENSION = ".tmp";
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte STRING_VALUE = 1;
+  private static final byte BOOLEAN_VALUE = 2;
+  private static final byte INTEGER_VALUE = 3;
+  private static final byte LONG_VALUE = 4;
+
+  private final File cacheDirectory;
+
+  /**
+   * Creates a new instance
+   *
+   * @param cacheDirectory the directory in which the entries are stored. It is created if it does not exist.
+   */
+  public XmlConfigurationCache(File cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Creates the key that identifies the parsed form of the given {@code configResources}.
+   *
+   * @param configResources the configuration files of the artifact
+   * @param extensionModels the extensions available to the artifact
+   * @param xmlValidations  whether the configuration files are validated against their schemas when parsed
+   * @return the key, or an empty value if the content of some of the {@code configResources} cannot be read without consuming
+   *         it.
+   * @throws IOException if the content of the {@code configResources} cannot be read
+   */
+  public static Optional<String> createKey(ConfigResource[] configResources, Set<ExtensionModel> extensionModels,
+                                           boolean xmlValidations)
+      throws IOException {
+    MessageDigest digest = newDigest();
+    update(digest, getProductVersion());
+    update(digest, Boolean.toString(xmlValidations));
+
+    for (ConfigResource configResource : configResources) {
+      if (configResource.getUrl() == null) {
+        return empty();
+      }
+
+      update(digest, configResource.getResourceName());
+      try (InputStream content = configResource.getUrl().openStream()) {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+          digest.update(buffer, 0, read);
+        }
+      }
+    }
+
+    List<ExtensionModel> sortedExtensionModels = new ArrayList<>(extensionModels);
+    sortedExtensionModels.sort(comparing(ExtensionModel::getName));
+    for (ExtensionModel extensionModel : sortedExtensionModels) {
+      update(digest, extensionModel.getName());
+      update(digest, extensionModel.getVersion());
+      update(digest, extensionModel.getVendor());
+    }
+
+    return of(toHex(digest.digest()));
+  }
+
+  /**
+   * Looks up the {@link ConfigFile}s stored with the given {@code key}.
+   *
+   * @param key a key created through {@link #createKey(ConfigResource[], Set, boolean)}
+   * @return the {@link ConfigFile}s, or an empty value if there are none or they cannot be read.
+   */
+  public Optional<List<ConfigFile>> get(String key) {
+    File entry = getEntry(key);
+    if (!entry.isFile()) {
+      return empty();
+    }
+
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unknown format");
+      }
+
+      int configFilesCount = input.readInt();
+      List<ConfigFile> configFiles = new ArrayList<>(configFilesCount);
+      for (int i = 0; i < configFilesCount; ++i) {
+        String filename = readString(input);
+        int configLinesCount = input.readInt();
+        List<ConfigLine> configLines = new ArrayList<>(configLinesCount);
+        for (int j = 0; j < configLinesCount; ++j) {
+          configLines.add(readConfigLine(input, null));
+        }
+        configFiles.add(new ConfigFile(filename, configLines));
+      }
+      return of(configFiles);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not read cached configuration '{}', it will be parsed again: {}", entry, e.toString());
+      delete(entry);
+      return empty();
+    }
+  }
+
+  /**
+   * Stores the given {@code configFiles} with the given {@code key}, unless they include content from files other than the
+   * {@code configResources} or they cannot be stored.
+   *
+   * @param key             a key created through {@link #createKey(ConfigResource[], Set, boolean)}
+   * @param configResources the configuration files of the artifact
+   * @param configFiles     the result of parsing the {@code configResources}
+   */
+  public void put(String key, ConfigResource[] configResources, List<ConfigFile> configFiles) {
+    if (!isCacheable(configResources, configFiles)) {
+      LOGGER.debug("Configuration with imports or custom attributes that cannot be stored, it will not be cached");
+      return;
+    }
+
+    File entry = getEntry(key);
+    Path tempEntry = null;
+    try {
+      if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+        throw new IOException("Could not create directory " + cacheDirectory);
+      }
+
+      tempEntry = createTempFile(cacheDirectory.toPath(), key, TEMP_ENTRY_EXTENSION);
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempEntry.toFile())))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(configFiles.size());
+        for (ConfigFile configFile : configFiles) {
+          writeString(output, configFile.getFilename());
+          output.writeInt(configFile.getConfigLines().size());
+          for (ConfigLine configLine : configFile.getConfigLines()) {
+            writeConfigLine(output, configLine);
+          }
+        }
+      }
+
+      // other artifacts may be storing the same entry, keep the last complete one
+      move(tempEntry, entry.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      deleteOtherEntries(entry);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not store cached configuration '{}': {}", entry, e.toString());
+      if (tempEntry != null) {
+        delete(tempEntry.toFile());
+      }
+    }
+  }
+
+  private void deleteOtherEntries(File entry) {
+    File[] entries = cacheDirectory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+    if (entries != null) {
+      for (File otherEntry : entries) {
+        if (!otherEntry.equals(entry)) {
+          delete(otherEntry);
+        }
+      }
+    }
+  }
+
+  private static boolean isCacheable(ConfigResource[] configResources, List<ConfigFile> configFiles) {
+    Set<String> resourceNames = new HashSet<>();
+    for (ConfigResource configResource : configResources) {
+      resourceNames.add(configResource.getResourceName());
+    }
+
+    for (ConfigFile configFile : configFiles) {
+      if (!resourceNames.contains(configFile.getFilename())) {
+        return false;
+      }
+      for (ConfigLine configLine : configFile.getConfigLines()) {
+        if (!hasStorableCustomAttributes(configLine)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasStorableCustomAttributes(ConfigLine configLine) {
+    for (Object value : configLine.getCustomAttributes().values()) {
+      if (value != null && !(value instanceof String || value instanceof Boolean || value instanceof Integer
+          || value instanceof Long)) {
+        return false;
+      }
+    }
+    for (ConfigLine child : configLine.getChildren()) {
+      if (!hasStorableCustomAttributes(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeConfigLine(DataOutputStream output, ConfigLine configLine) throws IOException {
+    writeString(output, configLine.getNamespace());
+    writeString(output, configLine.getNamespaceUri());
+    writeString(output, configLine.getIdentifier());
+    output.writeInt(configLine.getLineNumber());
+    output.writeInt(configLine.getStartColumn());
+    writeString(output, configLine.getTextContent());
+    writeString(output, configLine.getSourceCode());
+
+    output.writeInt(configLine.getConfigAttributes().size());
+    for (SimpleConfigAttribute attribute : configLine.getConfigAttributes().values()) {
+      writeString(output, attribute.getName());
+      writeString(output, attribute.getValue());
+      output.writeBoolean(attribute.isValueFromSchema());
+    }
+
+    output.writeInt(configLine.getCustomAttributes().size());
+    for (Map.Entry<String, Object> attribute : configLine.getCustomAttributes().entrySet()) {
+      writeString(output, attribute.getKey());
+      writeValue(output, attribute.getValue());
+    }
+
+    output.writeInt(configLine.getChildren().size());
+    for (ConfigLine child : configLine.getChildren()) {
+      writeConfigLine(output, child);
+    }
+  }
+
+  private static ConfigLine readConfigLine(DataInputStream input, Reference<ConfigLine> parent) throws IOException {
+    ConfigLine.Builder builder = new ConfigLine.Builder()
+        .setNamespace(readString(input))
+        .setNamespaceUri(readString(input))
+        .setIdentifier(readString(input))
+        .setLineNumber(input.readInt())
+        .setStartColumn(input.readInt())
+        .setTextContent(readString(input))
+        .setSourceCode(readString(input));
+
+    // the lines are built from the innermost ones, so the parent is only available once it is built
+    builder.setParent(parent != null ? parent::get : () -> null);
+
+    int configAttributesCount = input.readInt();
+    for (int i = 0; i < configAttributesCount; ++i) {
+      builder.addConfigAttribute(readString(input), readString(input), input.readBoolean());
+    }
+
+    int customAttributesCount = input.readInt();
+    for (int i = 0; i < customAttributesCount; ++i) {
+      builder.addCustomAttribute(readString(input), readValue(input));
+    }
+
+    Reference<ConfigLine> self = new Reference<>();
+    int childrenCount = input.readInt();
+    for (int i = 0; i < childrenCount; ++i) {
+      builder.addChild(readConfigLine(input, self));
+    }
+
+    ConfigLine configLine = builder.build();
+    self.set(configLine);
+    return configLine;
+  }
+
+  private static void writeValue(DataOutputStream output, Object value) throws IOException {
+    if (value == null) {
+      output.writeByte(NULL_VALUE);
+    } else if (value instanceof String) {
+      output.writeByte(STRING_VALUE);
+      writeString(output, (String) value);
+    } else if (value instanceof Boolean) {
+      output.writeByte(BOOLEAN_VALUE);
+      output.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer) {
+      output.writeByte(INTEGER_VALUE);
+      output.writeInt((Integer) value);
+    } else {
+      output.writeByte(LONG_VALUE);
+      output.writeLong((Long) value);
+    }
+  }
+
+  private static Object readValue(DataInputStream input) throws IOException {
+    byte type = input.readByte();
+    switch (type) {
+      case NULL_VALUE:
+        return null;
+      case STRING_VALUE:
+        return readString(input);
+      case BOOLEAN_VALUE:
+        return input.readBoolean();
+      case INTEGER_VALUE:
+        return input.readInt();
+      case LONG_VALUE:
+        return input.readLong();
+      default:
+        throw new IOException("Unknown value type " + type);
+    }
+  }
+
+  /**
+   * Unlike {@link DataOutputStream#writeUTF(String)}, supports strings longer than 64K, such as the source code of large
+   * flows.
+   */
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      return null;
+    }
+
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private File getEntry(String key) {
+    return new File(cacheDirectory, key + ENTRY_EXTENSION);
+  }
+
+  private static void delete(File file) {
+    try {
+      deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      LOGGER.debug("Could not delete file '{}'", file, e);
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every JVM is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    if (value != null) {
+      digest.update(value.getBytes(UTF_8));
+    }
+    // separator, so that consecutive values cannot be confused
+    digest.update((byte) 0);
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
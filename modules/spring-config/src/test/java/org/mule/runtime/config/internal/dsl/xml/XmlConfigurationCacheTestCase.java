@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal.dsl.xml;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.empty;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.apache.commons.io.IOUtils.toInputStream;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.config.internal.dsl.xml.XmlConfigurationCache.createKey;
+import static org.mule.runtime.dsl.api.xml.parser.XmlConfigurationDocumentLoader.noValidationDocumentLoader;
+
+import org.mule.runtime.config.internal.ModuleDelegatingEntityResolver;
+import org.mule.runtime.core.api.util.xmlsecurity.XMLSecureFactories;
+import org.mule.runtime.dsl.api.ConfigResource;
+import org.mule.runtime.dsl.api.xml.parser.ConfigFile;
+import org.mule.runtime.dsl.api.xml.parser.ConfigLine;
+import org.mule.runtime.dsl.api.xml.parser.SimpleConfigAttribute;
+import org.mule.runtime.dsl.internal.xml.parser.XmlApplicationParser;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+@SmallTest
+public class XmlConfigurationCacheTestCase extends AbstractMuleTestCase {
+
+  private static final String CONFIG_FILE_NAME = "config.xml";
+  private static final String KEY = "key";
+  private static final String OTHER_KEY = "otherKey";
+
+  private static final String CONFIG = "<mule xmlns=\"http://www.mulesoft.org/schema/mule/core\">\n"
+      + "  <flow name=\"flow\" initialState=\"stopped\">\n"
+      + "    <logger level=\"INFO\" message=\"#[payload]\"/>\n"
+      + "    <set-payload value=\"payload\"/>\n"
+      + "  </flow>\n"
+      + "</mule>";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private XmlConfigurationCache cache;
+
+  @Before
+  public void before() throws Exception {
+    cache = new XmlConfigurationCache(new File(temporaryFolder.getRoot(), "cache"));
+  }
+
+  @Test
+  public void cachedConfigFilesAreEquivalentToParsedOnes() throws Exception {
+    List<ConfigFile> configFiles = parse(CONFIG);
+    cache.put(KEY, configResources(), configFiles);
+
+    Optional<List<ConfigFile>> cachedConfigFiles = cache.get(KEY);
+    assertThat(cachedConfigFiles.isPresent(), is(true));
+    assertThat(cachedConfigFiles.get().size(), is(1));
+    assertThat(cachedConfigFiles.get().get(0).getFilename(), is(CONFIG_FILE_NAME));
+    ConfigLine cachedRoot = cachedConfigFiles.get().get(0).getConfigLines().get(0);
+    assertThat(cachedRoot.getParent(), is(nullValue()));
+    assertEquivalent(cachedRoot, configFiles.get(0).getConfigLines().get(0));
+  }
+
+  @Test
+  public void previousEntriesAreDeleted() throws Exception {
+    List<ConfigFile> configFiles = parse(CONFIG);
+    cache.put(KEY, configResources(), configFiles);
+    cache.put(OTHER_KEY, configResources(), configFiles);
+
+    assertThat(cache.get(KEY).isPresent(), is(false));
+    assertThat(cache.get(OTHER_KEY).isPresent(), is(true));
+    assertThat(new File(temporaryFolder.getRoot(), "cache").list(), is(new String[] {OTHER_KEY + ".bin"}));
+  }
+
+  @Test
+  public void missingEntry() {
+    assertThat(cache.get(KEY).isPresent(), is(false));
+  }
+
+  @Test
+  public void corruptEntryIsDiscarded() throws Exception {
+    File entry = new File(temporaryFolder.getRoot(), "cache/" + KEY + ".bin");
+    writeStringToFile(entry, "corrupt", UTF_8);
+
+    assertThat(cache.get(KEY).isPresent(), is(false));
+    assertThat(entry.exists(), is(false));
+  }
+
+  @Test
+  public void configFilesWithImportsAreNotCached() throws Exception {
+    List<ConfigFile> configFiles = parse(CONFIG);
+    ConfigFile importedConfigFile = new ConfigFile("imported.xml", configFiles.get(0).getConfigLines());
+    cache.put(KEY, configResources(), singletonList(importedConfigFile));
+
+    assertThat(cache.get(KEY).isPresent(), is(false));
+  }
+
+  @Test
+  public void keyDependsOnContent() throws Exception {
+    File configFile = temporaryFolder.newFile(CONFIG_FILE_NAME);
+    writeStringToFile(configFile, CONFIG, UTF_8);
+    ConfigResource[] configResources = new ConfigResource[] {new ConfigResource(configFile.toURI().toURL())};
+
+    Optional<String> key = createKey(configResources, emptySet(), true);
+    assertThat(key.isPresent(), is(true));
+    assertThat(createKey(configResources, emptySet(), true), is(key));
+    assertThat(createKey(configResources, emptySet(), false), is(not(key)));
+
+    writeStringToFile(configFile, CONFIG.replace("INFO", "DEBUG"), UTF_8);
+    assertThat(createKey(configResources, emptySet(), true), is(not(key)));
+  }
+
+  @Test
+  public void noKeyForResourcesWithoutUrl() throws Exception {
+    assertThat(createKey(configResources(), emptySet(), true).isPresent(), is(false));
+  }
+
+  private void assertEquivalent(ConfigLine cached, ConfigLine parsed) {
+    assertThat(cached.getNamespace(), is(parsed.getNamespace()));
+    assertThat(cached.getNamespaceUri(), is(parsed.getNamespaceUri()));
+    assertThat(cached.getIdentifier(), is(parsed.getIdentifier()));
+    assertThat(cached.getLineNumber(), is(parsed.getLineNumber()));
+    assertThat(cached.getStartColumn(), is(parsed.getStartColumn()));
+    assertThat(cached.getTextContent(), is(parsed.getTextContent()));
+    assertThat(cached.getSourceCode(), is(parsed.getSourceCode()));
+    assertThat(cached.getCustomAttributes(), is(parsed.getCustomAttributes()));
+
+    assertThat(cached.getConfigAttributes().keySet(), is(parsed.getConfigAttributes().keySet()));
+    for (SimpleConfigAttribute attribute : parsed.getConfigAttributes().values()) {
+      SimpleConfigAttribute cachedAttribute = cached.getConfigAttributes().get(attribute.getName());
+      assertThat(cachedAttribute.getValue(), is(attribute.getValue()));
+      assertThat(cachedAttribute.isValueFromSchema(), is(attribute.isValueFromSchema()));
+    }
+
+    assertThat(cached.getChildren().size(), is(parsed.getChildren().size()));
+    for (int i = 0; i < parsed.getChildren().size(); ++i) {
+      ConfigLine cachedChild = cached.getChildren().get(i);
+      assertThat(cachedChild.getParent(), is(sameInstance(cached)));
+      assertEquivalent(cachedChild, parsed.getChildren().get(i));
+    }
+  }
+
+  private List<ConfigFile> parse(String config) {
+    Document document = noValidationDocumentLoader()
+        .loadDocument(() -> XMLSecureFactories.createDefault().getSAXParserFactory(),
+                      new ModuleDelegatingEntityResolver(emptySet()), CONFIG_FILE_NAME, toInputStream(config, UTF_8));
+    ConfigLine configLine = new XmlApplicationParser(XmlNamespaceInfoProviderSupplier.createFromExtensionModels(emptySet(), empty()))
+        .parse(document.getDocumentElement()).get();
+    assertThat(configLine.getParent(), is(nullValue()));
+    return singletonList(new ConfigFile(CONFIG_FILE_NAME, singletonList(configLine)));
+  }
+
+  private ConfigResource[] configResources() {
+    return new ConfigResource[] {new ConfigResource(CONFIG_FILE_NAME, toInputStream(CONFIG, UTF_8))};
+  }
+}
@@ -282,6 +282,7 @@ public interface AllureConstants {
 
       String COLLECT_LIST = "Collect List";
       String COLLECT_MAP = "Collect Map";
+      String STREAMING_COLLECT_LIST = "Streaming Collect List";
       String JOIN_ONLY = "Join Only";
     }
 
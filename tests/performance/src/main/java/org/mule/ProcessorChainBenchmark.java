@@ -6,11 +6,13 @@
  */
 package org.mule;
 
+import static java.lang.System.setProperty;
 import static java.util.Optional.empty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainBuilder.PROCESSOR_CHAIN_FUSION_PROPERTY;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.util.Reference;
@@ -23,6 +25,7 @@ import java.util.concurrent.CountDownLatch;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.Warmup;
 
@@ -36,12 +39,17 @@ public class ProcessorChainBenchmark extends AbstractBenchmark {
 
   private static final int NUM_PROCESSORS = 20;
   private static final int STREAM_SIZE = 1000;
+
+  @Param({"false", "true"})
+  public boolean fusion;
+
   private MessageProcessorChain chain;
 
   private CoreEvent event;
 
   @Setup
   public void setup() throws Exception {
+    setProperty(PROCESSOR_CHAIN_FUSION_PROPERTY, Boolean.toString(fusion));
     DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
     for (int i = 0; i < NUM_PROCESSORS; i++) {
       builder.chain(event -> event);
@@ -10,11 +10,15 @@ import static org.mule.runtime.core.api.util.UUID.getClusterUUID;
 import static org.mule.runtime.core.api.util.UUID.getUUID;
 
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.event.EventIdGenerator;
+import org.mule.runtime.core.internal.event.CompactEventIdGenerator;
 
 import org.openjdk.jmh.annotations.Benchmark;
 
 public class UUIDBenchmark extends AbstractBenchmark {
 
+  private final EventIdGenerator eventIdGenerator = new CompactEventIdGenerator(getClusterIdPrefix());
+
   @Benchmark
   public String UUID() throws MuleException {
     return getUUID();
@@ -30,6 +34,11 @@ public class UUIDBenchmark extends AbstractBenchmark {
     return getClusterUUID(getClusterIdPrefix());
   }
 
+  @Benchmark
+  public String compactEventId() {
+    return eventIdGenerator.generateId();
+  }
+
   private int getClusterId() {
     return 1;
   }
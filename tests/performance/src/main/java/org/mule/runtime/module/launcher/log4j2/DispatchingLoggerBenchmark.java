@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.selector.ContextSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the overhead of a {@link DispatchingLogger} used from context class loaders other than the one of its owner, as
+ * happens with static loggers of libraries shared by the artifacts, with the level of the messages disabled.
+ * <p>
+ * The logger is shared by all the threads, each one with its own context class loader. The dispatching is compared with the
+ * one of an {@link UncachedDispatchingLogger}, which resolves the logger to dispatch to on every call.
+ */
+@Threads(4)
+@State(Scope.Benchmark)
+@OutputTimeUnit(NANOSECONDS)
+public class DispatchingLoggerBenchmark extends AbstractBenchmark {
+
+  private static final String LOGGER_NAME = DispatchingLoggerBenchmark.class.getName();
+  private static final String MESSAGE = "Hello Log!";
+
+  @Param({"false", "true"})
+  public boolean cacheResolutions;
+
+  private final LoggerContext loggerContext = new LoggerContext("benchmark");
+
+  private Logger dispatchingLogger;
+
+  @Setup
+  public void setUp() {
+    ContextSelector contextSelector = new ContextSelector() {
+
+      @Override
+      public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext) {
+        return loggerContext;
+      }
+
+      @Override
+      public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext, URI configLocation) {
+        return loggerContext;
+      }
+
+      @Override
+      public List<LoggerContext> getLoggerContexts() {
+        return singletonList(loggerContext);
+      }
+
+      @Override
+      public void removeContext(LoggerContext context) {}
+    };
+
+    Logger logger = loggerContext.getLogger(LOGGER_NAME);
+    // an owner that is never the resolved one, so that every call is dispatched
+    dispatchingLogger = cacheResolutions
+        ? new DispatchingLogger(logger, 0, loggerContext, contextSelector, logger.getMessageFactory()) {
+
+          @Override
+          public String getName() {
+            return LOGGER_NAME;
+          }
+        }
+        : new UncachedDispatchingLogger(logger, 0, loggerContext, contextSelector, logger.getMessageFactory());
+  }
+
+  @TearDown
+  public void tearDown() {
+    loggerContext.stop();
+  }
+
+  @Benchmark
+  public boolean isDebugEnabled(ArtifactThread artifactThread) {
+    return dispatchingLogger.isDebugEnabled();
+  }
+
+  @Benchmark
+  public void debug(ArtifactThread artifactThread) {
+    dispatchingLogger.debug(MESSAGE);
+  }
+
+  /**
+   * Sets a context class loader of its own to each thread, as if each one was running a different artifact.
+   */
+  @State(Scope.Thread)
+  public static class ArtifactThread {
+
+    private ClassLoader originalContextClassLoader;
+
+    @Setup
+    public void setUp() {
+      originalContextClassLoader = currentThread().getContextClassLoader();
+      currentThread().setContextClassLoader(new URLClassLoader(new URL[0], originalContextClassLoader));
+    }
+
+    @TearDown
+    public void tearDown() {
+      currentThread().setContextClassLoader(originalContextClassLoader);
+    }
+  }
+}
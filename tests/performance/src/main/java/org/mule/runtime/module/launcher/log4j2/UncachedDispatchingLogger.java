@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static java.lang.Thread.currentThread;
+import static org.mule.runtime.module.launcher.log4j2.ArtifactAwareContextSelector.resolveLoggerContextClassLoader;
+
+import org.mule.runtime.api.util.Reference;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.selector.ContextSelector;
+import org.apache.logging.log4j.message.MessageFactory;
+
+/**
+ * Dispatches the calls the {@link DispatchingLoggerBenchmark} measures as {@link DispatchingLogger} did before it cached the
+ * resolutions of each thread: the logger context class loader is resolved on every call, and the logger to dispatch to is
+ * looked up in a cache keyed by it.
+ */
+class UncachedDispatchingLogger extends Logger {
+
+  private final Logger originalLogger;
+  private final ContextSelector contextSelector;
+  private final int ownerClassLoaderHash;
+  private final LoadingCache<ClassLoader, Reference<Logger>> loggerCache = newBuilder()
+      .weakKeys()
+      .weakValues()
+      .build(key -> new Reference<>());
+
+  UncachedDispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext,
+                            ContextSelector contextSelector, MessageFactory messageFactory) {
+    super(loggerContext, originalLogger.getName(), messageFactory);
+    this.originalLogger = originalLogger;
+    this.contextSelector = contextSelector;
+    this.ownerClassLoaderHash = ownerClassLoaderHash;
+  }
+
+  private Logger getLogger() {
+    final ClassLoader resolvedCtxClassLoader = resolveLoggerContextClassLoader(currentThread().getContextClassLoader());
+    if (resolvedCtxClassLoader.hashCode() == ownerClassLoaderHash) {
+      return originalLogger;
+    }
+
+    Reference<Logger> loggerReference = loggerCache.get(resolvedCtxClassLoader);
+    Logger logger = loggerReference.get();
+    if (logger == null) {
+      synchronized (loggerReference) {
+        logger = loggerReference.get();
+        if (logger == null) {
+          logger = contextSelector.getContext(getName(), resolvedCtxClassLoader, true).getLogger(getName(), getMessageFactory());
+          loggerReference.set(logger);
+        }
+      }
+    }
+    return logger;
+  }
+
+  @Override
+  public boolean isDebugEnabled() {
+    return getLogger().isDebugEnabled();
+  }
+
+  @Override
+  public void debug(String message) {
+    getLogger().debug(message);
+  }
+}